@@ -0,0 +1,64 @@
+package com.carlosoliveira.ecommerce.benchmarks;
+
+import com.carlosoliveira.ecommerce.common.valueObjects.Money;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.Cart;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart mutations against the last item of carts of growing size, the worst case for item lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+
+    @Param({"1", "10", "100", "1000", "5000"})
+    private int itemCount;
+
+    private final Money price = new Money(new BigDecimal("19.9900"), Currency.getInstance("USD"));
+    private Cart cart;
+    private UUID lastProductId;
+    private int quantity;
+
+    @Setup
+    public void setUp() {
+        cart = new Cart(UUID.randomUUID());
+        List<UUID> productIds = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            UUID productId = UUID.randomUUID();
+            productIds.add(productId);
+            cart.addItem(productId, "Product " + i, price, 1);
+        }
+        cart.clearDomainEvents();
+        lastProductId = productIds.getLast();
+    }
+
+    @Benchmark
+    public Cart addExistingItem() {
+        cart.addItem(lastProductId, "Product", price, nextQuantity());
+        cart.clearDomainEvents();
+        return cart;
+    }
+
+    @Benchmark
+    public Cart updateItemQuantity() {
+        cart.updateItemQuantity(lastProductId, nextQuantity());
+        cart.clearDomainEvents();
+        return cart;
+    }
+
+    private int nextQuantity() {
+        quantity = quantity == 2 ? 3 : 2;
+        return quantity;
+    }
+}
@@ -0,0 +1,94 @@
+package com.carlosoliveira.ecommerce.benchmarks;
+
+import com.carlosoliveira.ecommerce.common.valueObjects.Money;
+import com.carlosoliveira.ecommerce.shoppingcart.ShoppingCartServiceApplication;
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartStore;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.Cart;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a cart and changing one of its lines through {@link CartStore} on an embedded H2 database:
+ * relational rows, a single document row, and documents served from memory with write-behind.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartStorageBenchmark {
+
+    @Param({"relational", "document", "write-behind"})
+    private String mode;
+
+    @Param({"10", "1000"})
+    private int itemCount;
+
+    private final Money price = new Money(new BigDecimal("19.99"), Currency.getInstance("USD"));
+    private ConfigurableApplicationContext context;
+    private CartStore cartStore;
+    private TransactionTemplate transactionTemplate;
+    private UUID userId;
+    private UUID lastProductId;
+    private int quantity;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShoppingCartServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:cart-benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.flyway.enabled=false",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--shopping-cart.storage.mode=" + mode,
+                        "--logging.level.root=WARN"
+                );
+        cartStore = context.getBean(CartStore.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        userId = UUID.randomUUID();
+        transactionTemplate.executeWithoutResult(status -> {
+            Cart cart = cartStore.create(userId);
+            for (int i = 0; i < itemCount; i++) {
+                lastProductId = UUID.randomUUID();
+                cart.addItem(lastProductId, "Product " + i, price, 1);
+            }
+            cartStore.save(cart);
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Cart load() {
+        return transactionTemplate.execute(status -> cartStore.loadForUpdate(userId, lastProductId).orElseThrow());
+    }
+
+    @Benchmark
+    public void updateOneLine() {
+        quantity = quantity == 2 ? 3 : 2;
+        transactionTemplate.executeWithoutResult(status -> {
+            Cart cart = cartStore.loadForUpdate(userId, lastProductId).orElseThrow();
+            cart.updateItemQuantity(lastProductId, quantity);
+            cart.clearDomainEvents();
+            cartStore.save(cart);
+        });
+    }
+}
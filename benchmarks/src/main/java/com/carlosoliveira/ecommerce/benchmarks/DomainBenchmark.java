@@ -0,0 +1,52 @@
+package com.carlosoliveira.ecommerce.benchmarks;
+
+import com.carlosoliveira.ecommerce.common.valueObjects.Money;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Product;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Stock;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainBenchmark {
+
+    private static final Currency USD = Currency.getInstance("USD");
+
+    private Money price;
+    private Money shipping;
+    private Stock stock;
+
+    @Setup
+    public void setUp() {
+        price = new Money(new BigDecimal("1299.9900"), USD);
+        shipping = new Money(new BigDecimal("15.5000"), USD);
+        stock = new Stock(1_000);
+    }
+
+    @Benchmark
+    public Money moneyAdd() {
+        return price.add(shipping);
+    }
+
+    @Benchmark
+    public Money moneyMultiply() {
+        return price.multiply(7);
+    }
+
+    @Benchmark
+    public Stock stockDecrement() {
+        return stock.decrement(3);
+    }
+
+    @Benchmark
+    public Product productConstruction() {
+        return new Product("Mechanical Keyboard", price, stock);
+    }
+}
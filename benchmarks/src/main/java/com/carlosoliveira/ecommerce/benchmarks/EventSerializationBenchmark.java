@@ -0,0 +1,106 @@
+package com.carlosoliveira.ecommerce.benchmarks;
+
+import com.carlosoliveira.ecommerce.common.events.BinaryEventMessageConverter;
+import com.carlosoliveira.ecommerce.common.events.CartEventContract;
+import com.carlosoliveira.ecommerce.common.events.EventSchemaRegistry;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.CartCheckedOutEvent;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.ItemAddedToCartEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart events written the way the message converter used to (Jackson) and the way it does now (the
+ * binary event codec), and the binary form read back. Sizes are printed once per trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int checkoutItemCount;
+
+    private ObjectWriter itemAddedWriter;
+    private ObjectWriter checkedOutWriter;
+    private ItemAddedToCartEvent itemAdded;
+    private CartCheckedOutEvent checkedOut;
+    private BinaryEventMessageConverter binaryConverter;
+    private Message itemAddedBinary;
+    private Message checkedOutBinary;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        itemAddedWriter = objectMapper.writerFor(ItemAddedToCartEvent.class);
+        checkedOutWriter = objectMapper.writerFor(CartCheckedOutEvent.class);
+
+        itemAdded = new ItemAddedToCartEvent(UUID.randomUUID(), UUID.randomUUID(), 2, Instant.now());
+
+        List<CartCheckedOutEvent.CheckoutItem> items = new ArrayList<>(checkoutItemCount);
+        BigDecimal unitPrice = new BigDecimal("19.99");
+        for (int i = 0; i < checkoutItemCount; i++) {
+            items.add(new CartCheckedOutEvent.CheckoutItem(
+                    UUID.randomUUID(), "Product " + i, 2, unitPrice, unitPrice.multiply(BigDecimal.TWO)));
+        }
+        BigDecimal total = unitPrice.multiply(BigDecimal.valueOf(2L * checkoutItemCount));
+        checkedOut = new CartCheckedOutEvent(UUID.randomUUID(), UUID.randomUUID(), items, total, Instant.now());
+
+        binaryConverter = new BinaryEventMessageConverter(
+                new EventSchemaRegistry()
+                        .register(CartEventContract.ITEM_ADDED, 1, ItemAddedToCartEvent.class)
+                        .register(CartEventContract.CHECKED_OUT, 1, CartCheckedOutEvent.class),
+                new Jackson2JsonMessageConverter()
+        );
+        itemAddedBinary = binaryConverter.toMessage(itemAdded, new MessageProperties());
+        checkedOutBinary = binaryConverter.toMessage(checkedOut, new MessageProperties());
+        try {
+            System.out.printf("%nbytes itemAdded json=%d binary=%d, checkedOut json=%d binary=%d (%s)%n",
+                    itemAddedToCart().length, itemAddedBinary.getBody().length,
+                    cartCheckedOut().length, checkedOutBinary.getBody().length,
+                    checkedOutBinary.getMessageProperties().getContentEncoding() == null ? "plain" : "deflated");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] itemAddedToCart() throws JsonProcessingException {
+        return itemAddedWriter.writeValueAsBytes(itemAdded);
+    }
+
+    @Benchmark
+    public byte[] cartCheckedOut() throws JsonProcessingException {
+        return checkedOutWriter.writeValueAsBytes(checkedOut);
+    }
+
+    @Benchmark
+    public byte[] itemAddedToCartBinary() {
+        return binaryConverter.toMessage(itemAdded, new MessageProperties()).getBody();
+    }
+
+    @Benchmark
+    public byte[] cartCheckedOutBinary() {
+        return binaryConverter.toMessage(checkedOut, new MessageProperties()).getBody();
+    }
+
+    @Benchmark
+    public Object cartCheckedOutBinaryRead() {
+        return binaryConverter.fromMessage(checkedOutBinary);
+    }
+}
@@ -0,0 +1,89 @@
+package com.carlosoliveira.ecommerce.benchmarks;
+
+import com.carlosoliveira.ecommerce.common.valueObjects.Money;
+import com.carlosoliveira.ecommerce.productcatalog.ProductCatalogServiceApplication;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CheckStockRequest;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.StockCheckResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.ProductService;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Product;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Stock;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking the stock of a whole cart with one lookup per line against the batch lookup, against an
+ * embedded H2 database in PostgreSQL mode. The product cache is disabled so every check reads the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductLookupBenchmark {
+
+    @Param({"1", "40"})
+    private int cartLines;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private List<UUID> productIds;
+    private List<CheckStockRequest> checks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProductCatalogServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:lookup-benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.rabbitmq.listener.simple.auto-startup=false",
+                        "--spring.rabbitmq.listener.direct.auto-startup=false",
+                        "--product-catalog.cache.maximum-size=0",
+                        "--product-catalog.cache.time-to-live=0s",
+                        "--logging.level.root=WARN"
+                );
+        productService = context.getBean(ProductService.class);
+
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        Money price = new Money(new BigDecimal("10.00"), Currency.getInstance("USD"));
+        productIds = new ArrayList<>(cartLines);
+        for (int i = 0; i < cartLines; i++) {
+            productIds.add(productRepository.save(new Product("Product " + i, price, new Stock(100))).getId());
+        }
+        checks = productIds.stream().map(productId -> new CheckStockRequest(productId, 1)).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void perLineLookups(Blackhole blackhole) {
+        for (UUID productId : productIds) {
+            blackhole.consume(productService.checkStock(productId, 1));
+        }
+    }
+
+    @Benchmark
+    public Map<UUID, StockCheckResponse> batchLookup() {
+        return productService.checkStock(checks);
+    }
+}
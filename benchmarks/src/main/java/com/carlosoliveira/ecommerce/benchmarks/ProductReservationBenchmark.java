@@ -0,0 +1,83 @@
+package com.carlosoliveira.ecommerce.benchmarks;
+
+import com.carlosoliveira.ecommerce.common.valueObjects.Money;
+import com.carlosoliveira.ecommerce.productcatalog.ProductCatalogServiceApplication;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.StockAdjustment;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.StockHoldService;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Product;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Stock;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cart taking one unit of a product through {@code StockHoldService.adjust}, the path cart events
+ * reserve stock on, end to end against an embedded H2 database in PostgreSQL mode, per reservation
+ * mode. RabbitMQ listeners are not started.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ProductReservationBenchmark {
+
+    @Param({"optimistic", "conditional", "in-memory"})
+    private String mode;
+
+    @Param({"1", "100"})
+    private int productCount;
+
+    private ConfigurableApplicationContext context;
+    private StockHoldService stockHoldService;
+    private List<UUID> productIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProductCatalogServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.rabbitmq.listener.simple.auto-startup=false",
+                        "--spring.rabbitmq.listener.direct.auto-startup=false",
+                        "--product-catalog.reservation.mode=" + mode,
+                        "--logging.level.root=WARN"
+                );
+        stockHoldService = context.getBean(StockHoldService.class);
+
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        Money price = new Money(new BigDecimal("10.00"), Currency.getInstance("USD"));
+        productIds = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            productIds.add(productRepository.save(new Product("Product " + i, price, new Stock(Integer.MAX_VALUE))).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void reserveStock() {
+        UUID productId = productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+        stockHoldService.adjust(List.of(new StockAdjustment(UUID.randomUUID(), productId, 1)));
+    }
+}
@@ -0,0 +1,167 @@
+package com.carlosoliveira.ecommerce.benchmarks;
+
+import com.carlosoliveira.ecommerce.common.valueObjects.Money;
+import com.carlosoliveira.ecommerce.productcatalog.ProductCatalogServiceApplication;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.StockAdjustment;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.StockHoldService;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Product;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Stock;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.ProductRepository;
+import com.carlosoliveira.ecommerce.shoppingcart.ShoppingCartServiceApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform versus virtual threads, switched with {@code spring.threads.virtual.enabled}, with more
+ * callers than the platform pools have threads. Both services run on embedded H2 with the connection
+ * pools of their own configuration; p99 comes from the sample-time results.
+ * <ul>
+ *     <li>{@code addItem}: {@code POST /api/carts/{userId}/items} against the running cart service.</li>
+ *     <li>{@code reserveStock}: a cart taking one unit through {@code StockHoldService.adjust}, submitted
+ *     to the application task executor, which is eight platform threads by default and virtual threads
+ *     limited by {@code spring.task.execution.simple.concurrency-limit}, set here to the connection pool
+ *     size.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(256)
+public class VirtualThreadBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int PRODUCTS = 100;
+
+    @Param({"platform", "virtual"})
+    private String threading;
+
+    @State(Scope.Benchmark)
+    public static class CartService {
+
+        private ConfigurableApplicationContext context;
+        private HttpClient client;
+        private String baseUrl;
+        private List<UUID> productIds;
+
+        @Setup(Level.Trial)
+        public void setUp(VirtualThreadBenchmark benchmark) {
+            context = new SpringApplicationBuilder(ShoppingCartServiceApplication.class)
+                    .web(WebApplicationType.SERVLET)
+                    .run(
+                            "--server.port=0",
+                            "--spring.threads.virtual.enabled=" + benchmark.virtualThreads(),
+                            "--spring.datasource.url=jdbc:h2:mem:cart-threading;DB_CLOSE_DELAY=-1",
+                            "--spring.datasource.driver-class-name=org.h2.Driver",
+                            "--spring.datasource.username=sa",
+                            "--spring.datasource.password=",
+                            "--spring.flyway.enabled=false",
+                            "--spring.jpa.hibernate.ddl-auto=create-drop",
+                            "--spring.jpa.show-sql=false",
+                            "--spring.h2.console.enabled=false",
+                            "--shopping-cart.outbox.relay-enabled=false",
+                            "--logging.level.root=WARN"
+                    );
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/carts/";
+            client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            productIds = new ArrayList<>(PRODUCTS);
+            for (int i = 0; i < PRODUCTS; i++) {
+                productIds.add(UUID.randomUUID());
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            client.close();
+            context.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class CatalogService {
+
+        private ConfigurableApplicationContext context;
+        private StockHoldService stockHoldService;
+        private AsyncTaskExecutor executor;
+        private List<UUID> productIds;
+
+        @Setup(Level.Trial)
+        public void setUp(VirtualThreadBenchmark benchmark) {
+            context = new SpringApplicationBuilder(ProductCatalogServiceApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run(
+                            "--spring.threads.virtual.enabled=" + benchmark.virtualThreads(),
+                            "--spring.task.execution.simple.concurrency-limit=20",
+                            "--spring.datasource.url=jdbc:h2:mem:catalog-threading;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                            "--spring.datasource.driver-class-name=org.h2.Driver",
+                            "--spring.datasource.username=sa",
+                            "--spring.datasource.password=",
+                            "--spring.jpa.hibernate.ddl-auto=create-drop",
+                            "--spring.jpa.show-sql=false",
+                            "--spring.rabbitmq.listener.simple.auto-startup=false",
+                            "--spring.rabbitmq.listener.direct.auto-startup=false",
+                            "--logging.level.root=WARN"
+                    );
+            stockHoldService = context.getBean(StockHoldService.class);
+            executor = context.getBean("applicationTaskExecutor", AsyncTaskExecutor.class);
+
+            ProductRepository productRepository = context.getBean(ProductRepository.class);
+            Money price = new Money(new BigDecimal("10.00"), Currency.getInstance("USD"));
+            productIds = new ArrayList<>(PRODUCTS);
+            for (int i = 0; i < PRODUCTS; i++) {
+                productIds.add(productRepository.save(new Product("Product " + i, price, new Stock(Integer.MAX_VALUE))).getId());
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int addItem(CartService cart) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID userId = new UUID(0, random.nextInt(USERS));
+        UUID productId = cart.productIds.get(random.nextInt(PRODUCTS));
+        String body = "{\"productId\":\"" + productId + "\",\"productName\":\"Product\",\"price\":19.99,\"quantity\":1}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(cart.baseUrl + userId + "/items"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        int status = cart.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("addItem answered " + status);
+        }
+        return status;
+    }
+
+    @Benchmark
+    public void reserveStock(CatalogService catalog) throws ExecutionException, InterruptedException {
+        UUID productId = catalog.productIds.get(ThreadLocalRandom.current().nextInt(PRODUCTS));
+        catalog.executor.submit(() -> catalog.stockHoldService.adjust(List.of(new StockAdjustment(UUID.randomUUID(), productId, 1)))).get();
+    }
+
+    private boolean virtualThreads() {
+        return threading.equals("virtual");
+    }
+}
@@ -0,0 +1,157 @@
+package com.carlosoliveira.ecommerce.common.events;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Writes registered event records in the compact form of {@link RecordCodec}, with the schema name and
+ * version in headers, and anything else through the fallback converter. Bodies over the compression
+ * threshold are deflated and marked with {@code content-encoding: deflate}.
+ * <p>
+ * Reading goes by content type: binary bodies are decoded here and every other message is handed to the
+ * fallback, so JSON producers and consumers keep working while services move over one at a time.
+ */
+public class BinaryEventMessageConverter implements MessageConverter {
+
+    public static final String CONTENT_TYPE = "application/x-event-binary";
+    public static final String SCHEMA_HEADER = "x-event-schema";
+    public static final String SCHEMA_VERSION_HEADER = "x-event-schema-version";
+    public static final String DEFLATE_ENCODING = "deflate";
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+    private static final int MAX_INFLATED_BYTES = 16 * 1024 * 1024;
+    /** Deflaters kept for reuse; enough for every core to compress at once. */
+    private static final int POOLED_DEFLATERS = Runtime.getRuntime().availableProcessors();
+
+    private final EventSchemaRegistry schemas;
+    private final MessageConverter fallback;
+    /**
+     * Setting up a deflater costs more than compressing a few kilobytes with it, so idle ones are kept here.
+     * Each holds native memory until {@link Deflater#end()}, so the pool is bounded and a deflater that does
+     * not fit back is ended right away, however many threads (virtual ones included) are sending.
+     */
+    private final BlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<>(POOLED_DEFLATERS);
+    private int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+    private boolean writeBinary = true;
+
+    public BinaryEventMessageConverter(EventSchemaRegistry schemas, MessageConverter fallback) {
+        this.schemas = schemas;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Bodies larger than this many bytes are deflated; {@code Integer.MAX_VALUE} turns compression off.
+     */
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * With {@code false}, registered events are written by the fallback too; binary messages are still read.
+     */
+    public void setWriteBinary(boolean writeBinary) {
+        this.writeBinary = writeBinary;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        EventSchemaRegistry.Schema<?> schema = writeBinary ? schemas.forType(object.getClass()) : null;
+        if (schema == null) {
+            return fallback.toMessage(object, messageProperties);
+        }
+        BinaryOutput out = new BinaryOutput(128);
+        schema.codec().write(out, object);
+        byte[] body = out.toByteArray();
+        if (body.length > compressionThreshold) {
+            body = deflate(body);
+            messageProperties.setContentEncoding(DEFLATE_ENCODING);
+        }
+        messageProperties.setContentType(CONTENT_TYPE);
+        messageProperties.setContentLength(body.length);
+        messageProperties.setHeader(SCHEMA_HEADER, schema.name());
+        messageProperties.setHeader(SCHEMA_VERSION_HEADER, schema.version());
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        if (!CONTENT_TYPE.equals(properties.getContentType())) {
+            return fallback.fromMessage(message);
+        }
+        String name = properties.getHeader(SCHEMA_HEADER);
+        Object version = properties.getHeader(SCHEMA_VERSION_HEADER);
+        EventSchemaRegistry.Schema<?> schema = name == null || !(version instanceof Number number)
+                ? null
+                : schemas.forName(name, number.intValue());
+        if (schema == null) {
+            throw new MessageConversionException("No event schema registered for " + name + " v" + version);
+        }
+        byte[] body = message.getBody();
+        try {
+            if (DEFLATE_ENCODING.equals(properties.getContentEncoding())) {
+                body = inflate(body);
+            }
+            BinaryInput in = new BinaryInput(body);
+            Object event = schema.codec().read(in);
+            if (!in.exhausted()) {
+                throw new IllegalArgumentException("Trailing bytes after " + name + " v" + version);
+            }
+            return event;
+        } catch (IllegalArgumentException | IllegalStateException | ArithmeticException | DataFormatException e) {
+            throw new MessageConversionException("Malformed " + name + " v" + version + " event: " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] deflate(byte[] body) {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.reset();
+            if (!deflaters.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    private static byte[] inflate(byte[] body) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(body);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length * 4);
+            byte[] chunk = new byte[4096];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(chunk);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Deflated body is truncated");
+                }
+                out.write(chunk, 0, inflated);
+                if (out.size() > MAX_INFLATED_BYTES) {
+                    throw new DataFormatException("Inflated body exceeds " + MAX_INFLATED_BYTES + " bytes");
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.carlosoliveira.ecommerce.common.events;
+
+import java.util.Arrays;
+
+/**
+ * Reads what {@link BinaryOutput} wrote. Running past the end is reported as a malformed payload.
+ */
+final class BinaryInput {
+
+    private final byte[] buffer;
+    private int position;
+
+    BinaryInput(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    int readByte() {
+        require(1);
+        return buffer[position++];
+    }
+
+    long readLong() {
+        require(8);
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (buffer[position++] & 0xFF);
+        }
+        return value;
+    }
+
+    long readVarLong() {
+        long zigzag = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint at byte " + position);
+    }
+
+    int readVarInt() {
+        return Math.toIntExact(readVarLong());
+    }
+
+    byte[] readBytes() {
+        int length = readVarInt();
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative length at byte " + position);
+        }
+        require(length);
+        byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+        position += length;
+        return bytes;
+    }
+
+    boolean exhausted() {
+        return position == buffer.length;
+    }
+
+    private void require(int bytes) {
+        if (buffer.length - position < bytes) {
+            throw new IllegalArgumentException("Payload truncated at byte " + position);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.carlosoliveira.ecommerce.common.events;
+
+import java.util.Arrays;
+
+/**
+ * Growable buffer with the handful of encodings {@link RecordCodec} needs.
+ */
+final class BinaryOutput {
+
+    private byte[] buffer;
+    private int size;
+
+    BinaryOutput(int initialCapacity) {
+        buffer = new byte[initialCapacity];
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    void writeLong(long value) {
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[size++] = (byte) (value >>> shift);
+        }
+    }
+
+    /**
+     * Zigzag varint: seven bits per byte, small magnitudes of either sign in one or two bytes.
+     */
+    void writeVarLong(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        ensureCapacity(10);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        buffer[size++] = (byte) zigzag;
+    }
+
+    void writeBytes(byte[] bytes) {
+        writeVarLong(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
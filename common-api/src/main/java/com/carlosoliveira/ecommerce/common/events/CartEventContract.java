@@ -0,0 +1,47 @@
+package com.carlosoliveira.ecommerce.common.events;
+
+/**
+ * Schema names of the events the shopping cart publishes. Each service binds its own record to a name
+ * and version in an {@link EventSchemaRegistry}; records bound to the same name and version must have
+ * the same component types in the same order, whatever the components are called.
+ * <p>
+ * The message id of a cart event is its event id, which stays the same across redeliveries and resends.
+ * Events may arrive in any order, even those of one cart; {@link #SEQUENCE_HEADER} tells a consumer which
+ * of a cart's events came first.
+ */
+public final class CartEventContract {
+
+    /**
+     * Header carrying the id of the product an event is about, as text, or the cart id for events spanning
+     * products; consumers that partition by product hash on it. Set on every cart event.
+     */
+    public static final String PARTITION_KEY_HEADER = "x-partition-key";
+
+    /**
+     * Header carrying the event's position among the events of its cart, as a long. A cart's events are
+     * numbered 1, 2, 3... in the order their changes committed; an event the publisher dropped leaves a gap.
+     * Absent on events published before sequences were introduced.
+     */
+    public static final String SEQUENCE_HEADER = "x-cart-sequence";
+
+    /** {@code (UUID cartId, UUID productId, int quantity, Instant occurredAt)} */
+    public static final String ITEM_ADDED = "cart.item-added";
+
+    /** {@code (UUID cartId, UUID userId, UUID productId, int previousQuantity, int newQuantity, int quantityDifference, Instant occurredAt)} */
+    public static final String ITEM_QUANTITY_UPDATED = "cart.item-quantity-updated";
+
+    /** {@code (UUID cartId, UUID productId, int quantity, Instant occurredAt)} */
+    public static final String ITEM_REMOVED = "cart.item-removed";
+
+    /**
+     * {@code (UUID cartId, UUID userId, List<(UUID productId, String productName, int quantity, BigDecimal unitPrice,
+     * BigDecimal subtotal)> items, BigDecimal totalAmount, Instant occurredAt)}
+     */
+    public static final String CHECKED_OUT = "cart.checked-out";
+
+    /** {@code (UUID cartId, UUID userId, List<(UUID productId, int quantity)> clearedItems, Instant occurredAt)} */
+    public static final String CLEARED = "cart.cleared";
+
+    private CartEventContract() {
+    }
+}
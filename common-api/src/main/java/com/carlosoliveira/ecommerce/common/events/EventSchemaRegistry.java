@@ -0,0 +1,43 @@
+package com.carlosoliveira.ecommerce.common.events;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The event records a service reads and writes in binary, each under a schema name and version. A record
+ * is written under the one schema it is registered with; it is read under any it is registered with, so
+ * an older version can stay registered, bound to its own record, while producers move on.
+ */
+public final class EventSchemaRegistry {
+
+    private final Map<Class<?>, Schema<?>> byType = new HashMap<>();
+    private final Map<String, Schema<?>> byKey = new HashMap<>();
+
+    /**
+     * @throws IllegalArgumentException if the record has components the codec cannot write, or the name
+     *                                  and version are already taken
+     */
+    public <T extends Record> EventSchemaRegistry register(String name, int version, Class<T> type) {
+        Schema<T> schema = new Schema<>(name, version, RecordCodec.of(type));
+        if (byKey.putIfAbsent(key(name, version), schema) != null) {
+            throw new IllegalArgumentException("Schema " + name + " v" + version + " is already registered");
+        }
+        byType.putIfAbsent(type, schema);
+        return this;
+    }
+
+    Schema<?> forType(Class<?> type) {
+        return byType.get(type);
+    }
+
+    Schema<?> forName(String name, int version) {
+        return byKey.get(key(name, version));
+    }
+
+    private static String key(String name, int version) {
+        return name + '@' + version;
+    }
+
+    record Schema<T extends Record>(String name, int version, RecordCodec<T> codec) {
+    }
+}
@@ -0,0 +1,277 @@
+package com.carlosoliveira.ecommerce.common.events;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes a record's components in declaration order with no names or type tags; the schema name and
+ * version travel beside the payload. UUIDs are two longs, instants are epoch microseconds, ints and longs
+ * are zigzag varints and decimals are a scale plus the unscaled bytes. Every reference component starts
+ * with one byte saying whether it is present.
+ * <p>
+ * Supported components: {@code int}, {@code long}, {@code boolean} and their boxes, {@link String},
+ * {@link UUID}, {@link Instant}, {@link BigDecimal}, nested records and {@link List}s of any of these.
+ */
+final class RecordCodec<T extends Record> {
+
+    private final Class<T> type;
+    private final ValueCodec[] components;
+    private final MethodHandle[] accessors;
+    private final MethodHandle constructor;
+
+    private RecordCodec(Class<T> type) {
+        this.type = type;
+        RecordComponent[] recordComponents = type.getRecordComponents();
+        this.components = new ValueCodec[recordComponents.length];
+        this.accessors = new MethodHandle[recordComponents.length];
+        Class<?>[] parameterTypes = new Class<?>[recordComponents.length];
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            for (int i = 0; i < recordComponents.length; i++) {
+                RecordComponent component = recordComponents[i];
+                components[i] = codecFor(component.getGenericType(), type.getName() + "." + component.getName());
+                component.getAccessor().setAccessible(true);
+                accessors[i] = lookup.unreflect(component.getAccessor());
+                parameterTypes[i] = component.getType();
+            }
+            Constructor<T> canonical = type.getDeclaredConstructor(parameterTypes);
+            canonical.setAccessible(true);
+            this.constructor = lookup.unreflectConstructor(canonical).asSpreader(Object[].class, parameterTypes.length);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot encode " + type.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    static <T extends Record> RecordCodec<T> of(Class<T> type) {
+        return new RecordCodec<>(type);
+    }
+
+    Class<T> type() {
+        return type;
+    }
+
+    void write(BinaryOutput out, Object value) {
+        for (int i = 0; i < components.length; i++) {
+            Object componentValue;
+            try {
+                componentValue = accessors[i].invoke(value);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot read " + type.getName() + " component " + i, e);
+            }
+            components[i].write(out, componentValue);
+        }
+    }
+
+    T read(BinaryInput in) {
+        Object[] arguments = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            arguments[i] = components[i].read(in);
+        }
+        try {
+            return type.cast(constructor.invoke(arguments));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot construct " + type.getName(), e);
+        }
+    }
+
+    private static ValueCodec codecFor(Type type, String path) {
+        if (type == int.class) {
+            return PrimitiveCodec.INT;
+        }
+        if (type == long.class) {
+            return PrimitiveCodec.LONG;
+        }
+        if (type == boolean.class) {
+            return PrimitiveCodec.BOOLEAN;
+        }
+        if (type == Integer.class) {
+            return nullable(PrimitiveCodec.INT);
+        }
+        if (type == Long.class) {
+            return nullable(PrimitiveCodec.LONG);
+        }
+        if (type == Boolean.class) {
+            return nullable(PrimitiveCodec.BOOLEAN);
+        }
+        if (type == String.class) {
+            return nullable(ReferenceCodec.STRING);
+        }
+        if (type == UUID.class) {
+            return nullable(ReferenceCodec.UUID);
+        }
+        if (type == Instant.class) {
+            return nullable(ReferenceCodec.INSTANT);
+        }
+        if (type == BigDecimal.class) {
+            return nullable(ReferenceCodec.DECIMAL);
+        }
+        if (type instanceof Class<?> nested && nested.isRecord()) {
+            RecordCodec<?> codec = new RecordCodec<>(nested.asSubclass(Record.class));
+            return nullable(new ValueCodec() {
+                @Override
+                public void write(BinaryOutput out, Object value) {
+                    codec.write(out, value);
+                }
+
+                @Override
+                public Object read(BinaryInput in) {
+                    return codec.read(in);
+                }
+            });
+        }
+        if (type instanceof ParameterizedType list && list.getRawType() == List.class) {
+            ValueCodec element = codecFor(list.getActualTypeArguments()[0], path + "[]");
+            return nullable(new ValueCodec() {
+                @Override
+                public void write(BinaryOutput out, Object value) {
+                    List<?> values = (List<?>) value;
+                    out.writeVarLong(values.size());
+                    for (Object item : values) {
+                        element.write(out, item);
+                    }
+                }
+
+                @Override
+                public Object read(BinaryInput in) {
+                    int size = in.readVarInt();
+                    if (size < 0) {
+                        throw new IllegalArgumentException("Negative list size");
+                    }
+                    List<Object> values = new ArrayList<>(Math.min(size, 1024));
+                    for (int i = 0; i < size; i++) {
+                        values.add(element.read(in));
+                    }
+                    return List.copyOf(values);
+                }
+            });
+        }
+        throw new IllegalArgumentException("Unsupported component type " + type.getTypeName() + " at " + path);
+    }
+
+    private static ValueCodec nullable(ValueCodec codec) {
+        return new ValueCodec() {
+            @Override
+            public void write(BinaryOutput out, Object value) {
+                out.writeByte(value == null ? 0 : 1);
+                if (value != null) {
+                    codec.write(out, value);
+                }
+            }
+
+            @Override
+            public Object read(BinaryInput in) {
+                return in.readByte() == 0 ? null : codec.read(in);
+            }
+        };
+    }
+
+    private interface ValueCodec {
+
+        void write(BinaryOutput out, Object value);
+
+        Object read(BinaryInput in);
+    }
+
+    private enum PrimitiveCodec implements ValueCodec {
+        INT {
+            @Override
+            public void write(BinaryOutput out, Object value) {
+                out.writeVarLong((Integer) value);
+            }
+
+            @Override
+            public Object read(BinaryInput in) {
+                return in.readVarInt();
+            }
+        },
+        LONG {
+            @Override
+            public void write(BinaryOutput out, Object value) {
+                out.writeVarLong((Long) value);
+            }
+
+            @Override
+            public Object read(BinaryInput in) {
+                return in.readVarLong();
+            }
+        },
+        BOOLEAN {
+            @Override
+            public void write(BinaryOutput out, Object value) {
+                out.writeByte((Boolean) value ? 1 : 0);
+            }
+
+            @Override
+            public Object read(BinaryInput in) {
+                return in.readByte() != 0;
+            }
+        }
+    }
+
+    private enum ReferenceCodec implements ValueCodec {
+        STRING {
+            @Override
+            public void write(BinaryOutput out, Object value) {
+                out.writeBytes(((String) value).getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public Object read(BinaryInput in) {
+                return new String(in.readBytes(), StandardCharsets.UTF_8);
+            }
+        },
+        UUID {
+            @Override
+            public void write(BinaryOutput out, Object value) {
+                java.util.UUID uuid = (java.util.UUID) value;
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            }
+
+            @Override
+            public Object read(BinaryInput in) {
+                return new java.util.UUID(in.readLong(), in.readLong());
+            }
+        },
+        INSTANT {
+            @Override
+            public void write(BinaryOutput out, Object value) {
+                Instant instant = (Instant) value;
+                out.writeLong(Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000));
+            }
+
+            @Override
+            public Object read(BinaryInput in) {
+                long micros = in.readLong();
+                return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+            }
+        },
+        DECIMAL {
+            @Override
+            public void write(BinaryOutput out, Object value) {
+                BigDecimal decimal = (BigDecimal) value;
+                out.writeVarLong(decimal.scale());
+                out.writeBytes(decimal.unscaledValue().toByteArray());
+            }
+
+            @Override
+            public Object read(BinaryInput in) {
+                int scale = in.readVarInt();
+                return new BigDecimal(new BigInteger(in.readBytes()), scale);
+            }
+        }
+    }
+}
@@ -1,40 +1,135 @@
 package com.carlosoliveira.ecommerce.common.valueObjects;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Embeddable;
-import lombok.*;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Currency;
 
+/**
+ * An amount of money held as a {@code long} count of ten-thousandths, the scale of the
+ * {@code price_amount} column, so arithmetic and comparisons never touch {@link BigDecimal}.
+ * Results that do not fit a {@code long} throw {@link ArithmeticException}.
+ */
 @Embeddable
-@Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-@AllArgsConstructor
-@EqualsAndHashCode
-public class Money {
+@JsonSerialize(using = MoneyJsonCodec.Serializer.class)
+@JsonDeserialize(using = MoneyJsonCodec.Deserializer.class)
+public class Money implements Comparable<Money> {
 
-    @Column(name = "price_amount", nullable = false, precision = 19, scale = 4)
-    private BigDecimal amount;
+    public static final int SCALE = 4;
+    static final long UNITS_PER_WHOLE = 10_000L;
+
+    @Convert(converter = MoneyAmountConverter.class)
+    @Column(name = "price_amount", nullable = false, precision = 19, scale = SCALE)
+    private long minorUnits;
 
     @Column(name = "price_currency", nullable = false, length = 3)
     private Currency currency;
 
+    /**
+     * Amounts with more than {@link #SCALE} decimals are rounded half up, as the column would.
+     */
+    public Money(BigDecimal amount, Currency currency) {
+        this(toMinorUnits(amount), currency);
+    }
+
+    private Money(long minorUnits, Currency currency) {
+        if (currency == null) {
+            throw new IllegalArgumentException("Currency cannot be null.");
+        }
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money ofMinorUnits(long minorUnits, Currency currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    public BigDecimal getAmount() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
     public Money add(Money other) {
         if (!this.currency.equals(other.currency)) {
             throw new IllegalArgumentException("Cannot add Money with different currencies.");
         }
-        return new Money(this.amount.add(other.amount), this.currency);
+        return new Money(Math.addExact(this.minorUnits, other.minorUnits), this.currency);
     }
 
     public Money subtract(Money other) {
         if (!this.currency.equals(other.currency)) {
             throw new IllegalArgumentException("Cannot subtract Money with different currencies.");
         }
-        return new Money(this.amount.subtract(other.amount), this.currency);
+        return new Money(Math.subtractExact(this.minorUnits, other.minorUnits), this.currency);
     }
 
     public Money multiply(int multiplier) {
-        return new Money(this.amount.multiply(BigDecimal.valueOf(multiplier)), this.currency);
+        return new Money(Math.multiplyExact(this.minorUnits, (long) multiplier), this.currency);
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    /**
+     * Orders amounts of the same currency.
+     */
+    @Override
+    public int compareTo(Money other) {
+        if (!this.currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot compare Money with different currencies.");
+        }
+        return Long.compare(this.minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money other)) {
+            return false;
+        }
+        return minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorUnits) + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return MoneyJsonCodec.formatAmount(minorUnits, currency) + " " + currency.getCurrencyCode();
+    }
+
+    static long toMinorUnits(BigDecimal amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount cannot be null.");
+        }
+        try {
+            return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Money amount out of range: " + amount);
+        }
     }
 }
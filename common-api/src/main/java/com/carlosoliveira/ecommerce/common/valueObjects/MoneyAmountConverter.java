@@ -0,0 +1,23 @@
+package com.carlosoliveira.ecommerce.common.valueObjects;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps {@link Money}'s ten-thousandths onto the existing {@code numeric(19, 4)} column.
+ */
+@Converter
+public class MoneyAmountConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long minorUnits) {
+        return minorUnits == null ? null : BigDecimal.valueOf(minorUnits, Money.SCALE);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal amount) {
+        return amount == null ? null : Money.toMinorUnits(amount);
+    }
+}
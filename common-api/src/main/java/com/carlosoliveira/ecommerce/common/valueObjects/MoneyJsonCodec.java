@@ -0,0 +1,151 @@
+package com.carlosoliveira.ecommerce.common.valueObjects;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Currency;
+
+/**
+ * JSON form of {@link Money}, {@code {"amount": 19.99, "currency": "USD"}}, read and written
+ * straight from and to the {@code long} amount. Only exponents, more than four decimals and
+ * amounts beyond {@code long} fall back to {@link BigDecimal}.
+ */
+public final class MoneyJsonCodec {
+
+    private static final String AMOUNT = "amount";
+    private static final String CURRENCY = "currency";
+
+    private MoneyJsonCodec() {
+    }
+
+    /**
+     * Plain decimal text with trailing zeros trimmed down to the currency's usual fraction digits.
+     */
+    public static String formatAmount(long minorUnits, Currency currency) {
+        int minDigits = Math.max(0, Math.min(Money.SCALE, currency.getDefaultFractionDigits()));
+        long whole = minorUnits / Money.UNITS_PER_WHOLE;
+        long fraction = Math.abs(minorUnits % Money.UNITS_PER_WHOLE);
+        int digits = Money.SCALE;
+        while (digits > minDigits && fraction % 10 == 0) {
+            fraction /= 10;
+            digits--;
+        }
+
+        StringBuilder text = new StringBuilder(24);
+        if (minorUnits < 0 && whole == 0) {
+            text.append('-');
+        }
+        text.append(whole);
+        if (digits > 0) {
+            text.append('.');
+            String fractionText = Long.toString(fraction);
+            for (int i = fractionText.length(); i < digits; i++) {
+                text.append('0');
+            }
+            text.append(fractionText);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Parses a plain decimal into ten-thousandths.
+     */
+    public static long parseAmount(String text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long units = 0;
+        int fractionDigits = -1;
+        boolean anyDigit = false;
+        try {
+            for (; i < length; i++) {
+                char c = text.charAt(i);
+                if (c == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                } else if (c >= '0' && c <= '9' && fractionDigits < Money.SCALE) {
+                    units = Math.addExact(Math.multiplyExact(units, 10), c - '0');
+                    anyDigit = true;
+                    if (fractionDigits >= 0) {
+                        fractionDigits++;
+                    }
+                } else {
+                    return Money.toMinorUnits(new BigDecimal(text));
+                }
+            }
+            if (!anyDigit) {
+                throw new NumberFormatException("Not a money amount: " + text);
+            }
+            for (int scale = Math.max(fractionDigits, 0); scale < Money.SCALE; scale++) {
+                units = Math.multiplyExact(units, 10);
+            }
+        } catch (ArithmeticException e) {
+            return Money.toMinorUnits(new BigDecimal(text));
+        }
+        return negative ? -units : units;
+    }
+
+    public static class Serializer extends StdSerializer<Money> {
+
+        public Serializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public void serialize(Money money, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName(AMOUNT);
+            gen.writeNumber(formatAmount(money.getMinorUnits(), money.getCurrency()));
+            gen.writeStringField(CURRENCY, money.getCurrency().getCurrencyCode());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<Money> {
+
+        public Deserializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartObjectToken()) {
+                return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+            }
+            Long minorUnits = null;
+            Currency currency = null;
+            for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                switch (field) {
+                    case AMOUNT -> minorUnits = readAmount(p, token, ctxt);
+                    case CURRENCY -> currency = Currency.getInstance(p.getText());
+                    default -> p.skipChildren();
+                }
+            }
+            if (minorUnits == null || currency == null) {
+                return ctxt.reportInputMismatch(Money.class, "Money requires both amount and currency");
+            }
+            return Money.ofMinorUnits(minorUnits, currency);
+        }
+
+        private static long readAmount(JsonParser p, JsonToken token, DeserializationContext ctxt) throws IOException {
+            if (token == JsonToken.VALUE_NUMBER_INT && p.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                return Math.multiplyExact(p.getLongValue(), Money.UNITS_PER_WHOLE);
+            }
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_STRING) {
+                return parseAmount(p.getText());
+            }
+            return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+        }
+    }
+}
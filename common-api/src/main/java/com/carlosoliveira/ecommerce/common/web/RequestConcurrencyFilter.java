@@ -0,0 +1,54 @@
+package com.carlosoliveira.ecommerce.common.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the requests in flight when they run on virtual threads. Tomcat's thread pool no longer does,
+ * so without it a burst would park thousands of requests on the connection pool until each one timed
+ * out. Requests over the cap wait briefly for a slot and are then turned away with 503.
+ * <p>
+ * Asynchronous requests hold their slot only until the handler returns. Services register it themselves,
+ * only when virtual threads are enabled.
+ */
+public class RequestConcurrencyFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long queueTimeoutMs;
+
+    public RequestConcurrencyFilter(RequestConcurrencyProperties properties) {
+        this.permits = new Semaphore(properties.maxConcurrent(), true);
+        this.queueTimeoutMs = properties.queueTimeout().toMillis();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.carlosoliveira.ecommerce.common.web;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Only applied with virtual threads, where nothing else bounds how many requests run at once. Each service
+ * binds it under its own prefix.
+ *
+ * @param maxConcurrent  requests handled at once; keep it near the connection pool size
+ * @param queueTimeout   how long a request waits for a slot before it is answered with 503
+ */
+public record RequestConcurrencyProperties(
+        @DefaultValue("40") int maxConcurrent,
+        @DefaultValue("2s") Duration queueTimeout
+) {}
@@ -0,0 +1,145 @@
+package com.carlosoliveira.ecommerce.common.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Binary Event Message Converter Unit Tests")
+class BinaryEventMessageConverterTest {
+
+    record ItemAdded(UUID cartId, UUID productId, int quantity, Instant occurredAt) {}
+
+    /** Another service's view of the same contract, with its own component names. */
+    record ItemAddedView(UUID cartId, UUID productId, int quantity, Instant timestamp) {}
+
+    record CheckedOut(UUID cartId, List<Line> items, BigDecimal totalAmount, Instant occurredAt) {
+        record Line(UUID productId, String productName, int quantity, BigDecimal unitPrice) {}
+    }
+
+    /** Stands in for the JSON converter: writes anything as text/plain and reads any message as text. */
+    private static final MessageConverter TEXT = new MessageConverter() {
+        @Override
+        public Message toMessage(Object object, MessageProperties messageProperties) {
+            messageProperties.setContentType(MessageProperties.CONTENT_TYPE_TEXT_PLAIN);
+            return new Message(object.toString().getBytes(StandardCharsets.UTF_8), messageProperties);
+        }
+
+        @Override
+        public Object fromMessage(Message message) {
+            return new String(message.getBody(), StandardCharsets.UTF_8);
+        }
+    };
+
+    private final Instant occurredAt = Instant.parse("2025-03-01T10:15:30.123456Z");
+
+    private BinaryEventMessageConverter converter(EventSchemaRegistry schemas) {
+        return new BinaryEventMessageConverter(schemas, TEXT);
+    }
+
+    @Test
+    @DisplayName("Should write UUIDs as longs and timestamps as micros and read them into another service's record")
+    void shouldRoundTripAcrossServices() {
+        ItemAdded event = new ItemAdded(UUID.randomUUID(), UUID.randomUUID(), 3, occurredAt);
+        Message message = converter(new EventSchemaRegistry().register(CartEventContract.ITEM_ADDED, 1, ItemAdded.class))
+                .toMessage(event, new MessageProperties());
+
+        Object read = converter(new EventSchemaRegistry().register(CartEventContract.ITEM_ADDED, 1, ItemAddedView.class))
+                .fromMessage(message);
+
+        assertThat(message.getBody()).hasSize(16 + 16 + 1 + 8 + 3);
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(BinaryEventMessageConverter.CONTENT_TYPE);
+        assertThat((String) message.getMessageProperties().getHeader(BinaryEventMessageConverter.SCHEMA_HEADER))
+                .isEqualTo(CartEventContract.ITEM_ADDED);
+        assertThat(read).isEqualTo(new ItemAddedView(event.cartId(), event.productId(), 3, occurredAt));
+    }
+
+    @Test
+    @DisplayName("Should deflate bodies above the threshold and restore them on read")
+    void shouldCompressLargePayloads() {
+        List<CheckedOut.Line> lines = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            lines.add(new CheckedOut.Line(UUID.randomUUID(), "Product " + i, 2, new BigDecimal("19.99")));
+        }
+        CheckedOut event = new CheckedOut(UUID.randomUUID(), lines, new BigDecimal("3998.00"), occurredAt);
+        BinaryEventMessageConverter converter = converter(new EventSchemaRegistry().register(CartEventContract.CHECKED_OUT, 1, CheckedOut.class));
+
+        Message message = converter.toMessage(event, new MessageProperties());
+
+        assertThat(message.getMessageProperties().getContentEncoding()).isEqualTo(BinaryEventMessageConverter.DEFLATE_ENCODING);
+        assertThat(converter.fromMessage(message)).isEqualTo(event);
+    }
+
+    @Test
+    @DisplayName("Should compress from more threads than deflaters are pooled without mixing bodies up")
+    void shouldCompressConcurrently() throws Exception {
+        BinaryEventMessageConverter converter = converter(new EventSchemaRegistry().register(CartEventContract.CHECKED_OUT, 1, CheckedOut.class));
+        int senders = Runtime.getRuntime().availableProcessors() * 4;
+        ExecutorService executor = Executors.newFixedThreadPool(senders);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int sender = 0; sender < senders; sender++) {
+                results.add(executor.submit(() -> {
+                    for (int round = 0; round < 20; round++) {
+                        List<CheckedOut.Line> lines = new ArrayList<>();
+                        for (int i = 0; i < 50; i++) {
+                            lines.add(new CheckedOut.Line(UUID.randomUUID(), "Product " + i, round + 1, new BigDecimal("19.99")));
+                        }
+                        CheckedOut event = new CheckedOut(UUID.randomUUID(), lines, new BigDecimal("999.50"), occurredAt);
+                        assertThat(converter.fromMessage(converter.toMessage(event, new MessageProperties()))).isEqualTo(event);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave unregistered payloads and non-binary messages to the fallback converter")
+    void shouldNegotiateFallbackByContentType() {
+        BinaryEventMessageConverter converter = converter(new EventSchemaRegistry().register(CartEventContract.ITEM_ADDED, 1, ItemAdded.class));
+
+        Message text = converter.toMessage("hello", new MessageProperties());
+
+        assertThat(text.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_TEXT_PLAIN);
+        assertThat(converter.fromMessage(text)).isEqualTo("hello");
+
+        converter.setWriteBinary(false);
+        Message fallback = converter.toMessage(new ItemAdded(UUID.randomUUID(), UUID.randomUUID(), 1, occurredAt), new MessageProperties());
+        assertThat(fallback.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_TEXT_PLAIN);
+    }
+
+    @Test
+    @DisplayName("Should reject binary messages with an unknown schema version")
+    void shouldRejectUnknownSchemaVersion() {
+        Message message = converter(new EventSchemaRegistry().register(CartEventContract.ITEM_ADDED, 2, ItemAdded.class))
+                .toMessage(new ItemAdded(UUID.randomUUID(), UUID.randomUUID(), 1, occurredAt), new MessageProperties());
+
+        BinaryEventMessageConverter v1Reader = converter(new EventSchemaRegistry().register(CartEventContract.ITEM_ADDED, 1, ItemAddedView.class));
+
+        assertThatThrownBy(() -> v1Reader.fromMessage(message))
+                .isInstanceOf(MessageConversionException.class)
+                .hasMessageContaining("v2");
+    }
+}
@@ -0,0 +1,64 @@
+package com.carlosoliveira.ecommerce.common.valueObjects;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Money JSON Codec Unit Tests")
+class MoneyJsonCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should write the amount as a plain number with the currency code")
+    void shouldWriteAmountAsPlainNumber() throws Exception {
+        Money money = new Money(new BigDecimal("19.90"), Currency.getInstance("USD"));
+
+        assertThat(objectMapper.writeValueAsString(money)).isEqualTo("{\"amount\":19.90,\"currency\":\"USD\"}");
+    }
+
+    @Test
+    @DisplayName("Should round-trip Money through JSON")
+    void shouldRoundTripMoney() throws Exception {
+        Money money = new Money(new BigDecimal("-1234.5678"), Currency.getInstance("EUR"));
+
+        Money read = objectMapper.readValue(objectMapper.writeValueAsString(money), Money.class);
+
+        assertThat(read).isEqualTo(money);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "10, 100000",
+            "10.5, 105000",
+            "\"0.0001\", 1",
+            "-0.25, -2500",
+            "1.23456, 12346",
+            "1e2, 1000000"
+    })
+    @DisplayName("Should read integer, decimal, string and exponent amounts")
+    void shouldReadAmounts(String amount, long minorUnits) throws Exception {
+        Money money = objectMapper.readValue("{\"currency\":\"USD\",\"amount\":" + amount + "}", Money.class);
+
+        assertThat(money.getMinorUnits()).isEqualTo(minorUnits);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "199000, USD, 19.90",
+            "-5000, USD, -0.50",
+            "12345, USD, 1.2345",
+            "10000, JPY, 1"
+    })
+    @DisplayName("Should format amounts down to the currency's fraction digits")
+    void shouldFormatAmounts(long minorUnits, String currency, String expected) {
+        assertThat(MoneyJsonCodec.formatAmount(minorUnits, Currency.getInstance(currency))).isEqualTo(expected);
+    }
+}
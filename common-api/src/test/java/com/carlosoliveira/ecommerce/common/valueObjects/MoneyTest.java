@@ -89,4 +89,35 @@ class MoneyTest {
         assertThat(result.getCurrency()).isEqualTo(Currency.getInstance("USD"));
         assertThat(result).isNotSameAs(m);
     }
+
+    @Test
+    @DisplayName("Should treat amounts that differ only in scale as equal")
+    void shouldTreatAmountsDifferingInScaleAsEqual() {
+        Money m1 = new Money(new BigDecimal("19.9"), Currency.getInstance("USD"));
+        Money m2 = new Money(new BigDecimal("19.9000"), Currency.getInstance("USD"));
+
+        assertThat(m1).isEqualTo(m2).hasSameHashCodeAs(m2);
+        assertThat(m1.compareTo(m2)).isZero();
+        assertThat(m1.getMinorUnits()).isEqualTo(199_000L);
+    }
+
+    @Test
+    @DisplayName("Should round amounts beyond four decimals half up")
+    void shouldRoundAmountsBeyondScaleHalfUp() {
+        Money money = new Money(new BigDecimal("0.00005"), Currency.getInstance("USD"));
+
+        assertThat(money.getAmount()).isEqualByComparingTo("0.0001");
+    }
+
+    @Test
+    @DisplayName("Should throw ArithmeticException when arithmetic overflows")
+    void shouldThrowWhenArithmeticOverflows() {
+        Money large = Money.ofMinorUnits(Long.MAX_VALUE - 1, Currency.getInstance("USD"));
+        Money one = Money.ofMinorUnits(10_000, Currency.getInstance("USD"));
+
+        assertThatThrownBy(() -> large.add(one)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> large.multiply(2)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> new Money(new BigDecimal("1e30"), Currency.getInstance("USD")))
+                .isInstanceOf(ArithmeticException.class);
+    }
 }
@@ -0,0 +1,67 @@
+package com.carlosoliveira.ecommerce.common.web;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RequestConcurrencyFilter Unit Tests")
+class RequestConcurrencyFilterTest {
+
+    private final RequestConcurrencyFilter sut =
+            new RequestConcurrencyFilter(new RequestConcurrencyProperties(1, Duration.ofMillis(50)));
+
+    @Test
+    @DisplayName("Should turn requests away with 503 while every slot is taken")
+    void shouldRejectRequestsOverTheCap() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blocking = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+            try {
+                sut.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), blocking);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        sut.doFilter(new MockHttpServletRequest(), rejected, new MockFilterChain());
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should free the slot once the request completes")
+    void shouldReleaseSlotAfterRequest() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        sut.doFilter(new MockHttpServletRequest(), first, new MockFilterChain());
+        sut.doFilter(new MockHttpServletRequest(), second, new MockFilterChain());
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(200);
+    }
+}
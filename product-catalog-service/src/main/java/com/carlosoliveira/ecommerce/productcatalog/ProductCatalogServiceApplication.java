@@ -1,13 +1,20 @@
 package com.carlosoliveira.ecommerce.productcatalog;
 
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.feeds.FeedImportRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class ProductCatalogServiceApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(ProductCatalogServiceApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(ProductCatalogServiceApplication.class, args);
+        if (context.getEnvironment().matchesProfiles(FeedImportRunner.PROFILE)) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
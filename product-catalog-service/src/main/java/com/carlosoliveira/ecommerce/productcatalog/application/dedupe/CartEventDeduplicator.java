@@ -0,0 +1,248 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dedupe;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEventDelivery;
+import com.carlosoliveira.ecommerce.productcatalog.config.CartEventsProperties;
+import com.carlosoliveira.ecommerce.productcatalog.domain.CartEventMark;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.CartEventMarkRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recognizes cart events that were applied before, by the sequence the cart numbers its events with.
+ * Events of a cart may arrive in any order, so each cart has a {@link CartEventMark}: a high-water mark up
+ * to which everything was applied, and a window of the sequences applied above it. A sequence at or below
+ * the mark, or set in the window, is a duplicate or stale; one above a gap is applied and counted as out
+ * of order, and the mark moves up once the gap fills.
+ * <p>
+ * The mark is read and written in the transaction that applies the event, locked, so consumers applying
+ * events of the same cart take turns. Committed marks of the most recently changed carts are kept in
+ * memory too, and redeliveries they cover are dropped without touching the database at all. Marks of
+ * carts without events for longer than the retention period are deleted.
+ */
+@Slf4j
+@Component
+public class CartEventDeduplicator implements SmartLifecycle {
+
+    private static final Duration PRUNE_INTERVAL = Duration.ofHours(1);
+
+    private final CartEventMarkRepository markRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CartEventsProperties.Dedupe properties;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong outOfOrderCount = new AtomicLong();
+
+    /** Guarded by itself; in access order, so the least recently used cart is evicted first. */
+    private final Map<UUID, CartEventMark.Window> marks;
+
+    private ScheduledExecutorService pruner;
+    private volatile boolean running;
+
+    public CartEventDeduplicator(
+            CartEventMarkRepository markRepository,
+            PlatformTransactionManager transactionManager,
+            CartEventsProperties properties,
+            MeterRegistry meterRegistry) {
+        this.markRepository = markRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties.dedupe();
+        int capacity = this.properties.cachedMarks();
+        this.marks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, CartEventMark.Window> eldest) {
+                return size() > capacity;
+            }
+        };
+        FunctionCounter.builder("catalog.cart_events.duplicates", droppedCount, AtomicLong::get)
+                .description("Cart events dropped as already applied or stale")
+                .register(meterRegistry);
+        FunctionCounter.builder("catalog.cart_events.out_of_order", outOfOrderCount, AtomicLong::get)
+                .description("Cart events applied before an earlier event of their cart")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks the delivery against the marks in memory only.
+     *
+     * @return {@code true} if it is known to have been applied already
+     */
+    public boolean isDuplicate(CartEventDelivery delivery) {
+        if (!isCached(delivery)) {
+            return false;
+        }
+        droppedCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Marks the delivery applied in the current transaction, which must go on to apply the event.
+     * Deliveries without a sequence are always claimed.
+     *
+     * @return {@code false} if the event was applied before, or is stale, and must be skipped
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean claim(CartEventDelivery delivery) {
+        if (!delivery.isSequenced()) {
+            return true;
+        }
+        if (isCached(delivery)) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        CartEventMark mark = lock(delivery.event().cartId());
+        CartEventMark.Window window = mark.window();
+        if (window.isApplied(delivery.sequence())) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        if (window.isAhead(delivery.sequence())) {
+            outOfOrderCount.incrementAndGet();
+        }
+        mark.record(delivery.sequence(), Instant.now());
+        return true;
+    }
+
+    /**
+     * Locks the marks of the deliveries' carts for the rest of the current transaction and leaves out the
+     * deliveries applied before, and those repeated within the list. Nothing is claimed: the transaction
+     * claims the ones it goes on to apply.
+     *
+     * @return the remaining deliveries, in order
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<CartEventDelivery> unapplied(List<CartEventDelivery> deliveries) {
+        // Locked in a fixed order, so two batches sharing carts cannot deadlock
+        Map<UUID, CartEventMark.Window> windows = new TreeMap<>();
+        for (CartEventDelivery delivery : deliveries) {
+            if (delivery.isSequenced()) {
+                windows.put(delivery.event().cartId(), null);
+            }
+        }
+        windows.replaceAll((cartId, ignored) -> lock(cartId).window());
+
+        Map<UUID, Set<Long>> seen = new HashMap<>();
+        List<CartEventDelivery> unapplied = new ArrayList<>(deliveries.size());
+        for (CartEventDelivery delivery : deliveries) {
+            if (!delivery.isSequenced()) {
+                unapplied.add(delivery);
+                continue;
+            }
+            UUID cartId = delivery.event().cartId();
+            if (windows.get(cartId).isApplied(delivery.sequence())
+                    || !seen.computeIfAbsent(cartId, id -> new HashSet<>()).add(delivery.sequence())) {
+                droppedCount.incrementAndGet();
+            } else {
+                unapplied.add(delivery);
+            }
+        }
+        return unapplied;
+    }
+
+    /**
+     * Deliveries recognized as already applied or stale, in memory or by the database.
+     */
+    public long droppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Deliveries applied while an earlier event of their cart was still missing.
+     */
+    public long outOfOrderCount() {
+        return outOfOrderCount.get();
+    }
+
+    /**
+     * Deletes the marks of carts without events for longer than the retention period.
+     *
+     * @return the number of marks deleted
+     */
+    public int pruneExpired() {
+        Instant cutoff = Instant.now().minus(properties.retention());
+        Integer deleted = transactionTemplate.execute(status -> markRepository.deleteUpdatedBefore(cutoff));
+        return deleted == null ? 0 : deleted;
+    }
+
+    @Override
+    public void start() {
+        pruner = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "cart-event-marks-pruner"));
+        pruner.scheduleWithFixedDelay(this::prune, PRUNE_INTERVAL.toMillis(), PRUNE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        pruner.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void prune() {
+        try {
+            int deleted = pruneExpired();
+            if (deleted > 0) {
+                log.debug("Pruned {} cart event marks", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to prune cart event marks, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The cart's mark, locked, and cached once the transaction commits.
+     */
+    private CartEventMark lock(UUID cartId) {
+        CartEventMark mark = markRepository.lockByCartId(cartId).orElseGet(() -> {
+            markRepository.createIfAbsent(cartId, Instant.now());
+            return markRepository.lockByCartId(cartId).orElseThrow();
+        });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                synchronized (marks) {
+                    marks.put(cartId, mark.window());
+                }
+            }
+        });
+        return mark;
+    }
+
+    private boolean isCached(CartEventDelivery delivery) {
+        if (!delivery.isSequenced()) {
+            return false;
+        }
+        CartEventMark.Window window;
+        synchronized (marks) {
+            window = marks.get(delivery.event().cartId());
+        }
+        return window != null && window.isApplied(delivery.sequence());
+    }
+}
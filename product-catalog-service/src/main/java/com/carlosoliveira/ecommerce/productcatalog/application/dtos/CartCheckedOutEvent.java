@@ -0,0 +1,32 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The cart's stock turned into a sale. It takes and gives back nothing: the stock was taken when the
+ * items were added, and checking out only keeps it from being given back.
+ */
+public record CartCheckedOutEvent(
+        UUID cartId,
+        UUID userId,
+        List<CheckoutItem> items,
+        BigDecimal totalAmount,
+        Instant occurredAt
+) implements CartEvent {
+
+    @Override
+    public List<StockAdjustment> stockAdjustments() {
+        return List.of();
+    }
+
+    public record CheckoutItem(
+            UUID productId,
+            String productName,
+            int quantity,
+            BigDecimal unitPrice,
+            BigDecimal subtotal
+    ) {}
+}
@@ -0,0 +1,25 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record CartClearedEvent(
+        UUID cartId,
+        UUID userId,
+        List<ClearedItem> clearedItems,
+        Instant occurredAt
+) implements CartEvent {
+
+    @Override
+    public List<StockAdjustment> stockAdjustments() {
+        return clearedItems.stream()
+                .map(item -> new StockAdjustment(cartId, item.productId(), -item.quantity()))
+                .toList();
+    }
+
+    public record ClearedItem(
+            UUID productId,
+            int quantity
+    ) {}
+}
@@ -0,0 +1,16 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The cart events the catalog consumes, each reduced to the stock it takes or gives back.
+ */
+public sealed interface CartEvent
+        permits ItemAddedToCartEvent, CartItemQuantityUpdatedEvent, ItemRemovedFromCartEvent, CartClearedEvent,
+        CartCheckedOutEvent {
+
+    UUID cartId();
+
+    List<StockAdjustment> stockAdjustments();
+}
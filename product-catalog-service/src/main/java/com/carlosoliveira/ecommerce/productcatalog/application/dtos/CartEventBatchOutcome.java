@@ -0,0 +1,34 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * @param fresh             the deliveries of the batch that had not been applied before, in delivery order
+ * @param rejectedProducts  products that could not cover their net change; nothing of them was applied
+ */
+public record CartEventBatchOutcome(
+        List<CartEventDelivery> fresh,
+        Set<UUID> rejectedProducts
+) {
+
+    /**
+     * The delivery's adjustments that were left out because their product was rejected.
+     */
+    public List<StockAdjustment> leftOut(CartEventDelivery delivery) {
+        return delivery.event().stockAdjustments().stream()
+                .filter(adjustment -> rejectedProducts.contains(adjustment.productId()))
+                .toList();
+    }
+
+    /**
+     * Whether every adjustment of the delivery was left out, so nothing of it was applied and it is not
+     * claimed either.
+     */
+    public boolean isUnapplied(CartEventDelivery delivery) {
+        List<StockAdjustment> adjustments = delivery.event().stockAdjustments();
+        return !adjustments.isEmpty()
+                && adjustments.stream().allMatch(adjustment -> rejectedProducts.contains(adjustment.productId()));
+    }
+}
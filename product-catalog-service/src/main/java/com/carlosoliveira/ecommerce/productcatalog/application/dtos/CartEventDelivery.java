@@ -0,0 +1,17 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
+
+/**
+ * A cart event as delivered, with the id the cart published it under and its position among the events of
+ * its cart. {@code sequence} is {@code null} for events that carry none, which are never recognized as
+ * duplicates.
+ */
+public record CartEventDelivery(
+        CartEvent event,
+        String eventId,
+        Long sequence
+) {
+
+    public boolean isSequenced() {
+        return sequence != null;
+    }
+}
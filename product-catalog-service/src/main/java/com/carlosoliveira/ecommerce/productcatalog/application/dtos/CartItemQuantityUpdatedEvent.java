@@ -0,0 +1,21 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record CartItemQuantityUpdatedEvent(
+        UUID cartId,
+        UUID userId,
+        UUID productId,
+        int previousQuantity,
+        int newQuantity,
+        int quantityDifference,
+        Instant occurredAt
+) implements CartEvent {
+
+    @Override
+    public List<StockAdjustment> stockAdjustments() {
+        return List.of(new StockAdjustment(cartId, productId, newQuantity - previousQuantity));
+    }
+}
@@ -1,9 +1,15 @@
 package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
 
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
 import java.util.UUID;
 
 public record CheckStockRequest(
+        @NotNull(message = "Product id cannot be null")
         UUID productId,
+
+        @Positive(message = "Quantity must be positive")
         int quantity
 ) {
 }
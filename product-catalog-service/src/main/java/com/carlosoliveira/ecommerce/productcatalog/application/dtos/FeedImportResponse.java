@@ -0,0 +1,11 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
+
+import java.util.List;
+
+public record FeedImportResponse(
+        long rowsRead,
+        long rowsRejected,
+        long productsChanged,
+        long productsSkipped,
+        List<String> errors
+) {}
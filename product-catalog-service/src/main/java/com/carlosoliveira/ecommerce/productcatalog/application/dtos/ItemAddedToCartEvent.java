@@ -1,6 +1,7 @@
 package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 public record ItemAddedToCartEvent(
@@ -8,4 +9,10 @@ public record ItemAddedToCartEvent(
         UUID productId,
         int quantity,
         Instant timestamp
-) {}
+) implements CartEvent {
+
+    @Override
+    public List<StockAdjustment> stockAdjustments() {
+        return List.of(new StockAdjustment(cartId, productId, quantity));
+    }
+}
@@ -0,0 +1,18 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record ItemRemovedFromCartEvent(
+        UUID cartId,
+        UUID productId,
+        int quantity,
+        Instant occurredAt
+) implements CartEvent {
+
+    @Override
+    public List<StockAdjustment> stockAdjustments() {
+        return List.of(new StockAdjustment(cartId, productId, -quantity));
+    }
+}
@@ -0,0 +1,9 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
+
+public record ProductCacheStatsResponse(
+        long size,
+        long hitCount,
+        long missCount,
+        long evictionCount,
+        double hitRate
+) {}
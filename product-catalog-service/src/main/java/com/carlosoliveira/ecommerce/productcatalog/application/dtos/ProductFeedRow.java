@@ -0,0 +1,12 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record ProductFeedRow(
+        UUID id,
+        String name,
+        BigDecimal priceAmount,
+        String currency,
+        Integer quantity
+) {}
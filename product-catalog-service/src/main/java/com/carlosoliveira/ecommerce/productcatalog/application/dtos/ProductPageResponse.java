@@ -0,0 +1,9 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
+
+import java.util.List;
+import java.util.UUID;
+
+public record ProductPageResponse(
+        List<ProductDetailsResponse> items,
+        UUID nextCursor
+) {}
@@ -0,0 +1,7 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
+
+import java.util.List;
+
+public record ProductsDetailsWithStockResponse(
+        List<ProductDetailsWithStockResponse> items
+) {}
@@ -0,0 +1,10 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+public record ReshardStockRequest(
+        @Min(value = 1, message = "Bucket count must be at least 1")
+        @Max(value = 64, message = "Bucket count cannot exceed 64")
+        int bucketCount
+) {}
@@ -0,0 +1,12 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
+
+import java.util.UUID;
+
+/**
+ * A signed change to what {@code cartId} holds of {@code productId}: positive takes stock, negative gives it back.
+ */
+public record StockAdjustment(
+        UUID cartId,
+        UUID productId,
+        int delta
+) {}
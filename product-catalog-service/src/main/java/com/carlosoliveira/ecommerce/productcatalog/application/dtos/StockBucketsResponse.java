@@ -0,0 +1,10 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
+
+import java.util.List;
+import java.util.UUID;
+
+public record StockBucketsResponse(
+        UUID productId,
+        int totalQuantity,
+        List<Integer> bucketQuantities
+) {}
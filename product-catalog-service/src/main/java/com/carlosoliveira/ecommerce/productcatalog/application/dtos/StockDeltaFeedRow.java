@@ -0,0 +1,8 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dtos;
+
+import java.util.UUID;
+
+public record StockDeltaFeedRow(
+        UUID productId,
+        Integer delta
+) {}
@@ -3,7 +3,15 @@ package com.carlosoliveira.ecommerce.productcatalog.application.errors;
 import java.util.UUID;
 
 public class StockReservationException extends RuntimeException {
+    public StockReservationException(UUID productId) {
+        super("Could not reserve stock for product " + productId);
+    }
+
     public StockReservationException(UUID productId, int retries) {
         super("Failed to reserve stock for product " + productId + " after " + retries + " retries");
     }
+
+    public StockReservationException(UUID productId, int requested, int available) {
+        super("Insufficient stock to reserve product " + productId + ". Available: " + available + ", Requested: " + requested);
+    }
 }
@@ -0,0 +1,123 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.holds;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed hierarchical timing wheel over integer ticks.
+ * <p>
+ * Level {@code L} has {@code 2^slotBits} slots of {@code 2^(slotBits * L)} ticks each. A timer is
+ * filed by the digit of its deadline at the lowest level whose span covers it and moves down one
+ * level each time its slot comes round, so scheduling is O(1) and every timer is touched at most
+ * once per level however many are pending. Deadlines beyond the top level wait in an overflow
+ * list that is re-filed each time the top level wraps.
+ * <p>
+ * Not thread-safe; the owner serialises access.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final int slotBits;
+    private final long slotMask;
+    private final int levels;
+    private final ArrayDeque<Timer<T>>[][] slots;
+    private final List<Timer<T>> overflow = new ArrayList<>();
+    private final List<Timer<T>> due = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(int slotBits, int levels, long startTick) {
+        if (slotBits < 1 || levels < 1 || (long) slotBits * levels > 62) {
+            throw new IllegalArgumentException("Wheel must have between 1 and 62 bits of ticks.");
+        }
+        this.slotBits = slotBits;
+        this.slotMask = (1L << slotBits) - 1;
+        this.levels = levels;
+        this.slots = new ArrayDeque[levels][1 << slotBits];
+        this.currentTick = startTick;
+    }
+
+    public void schedule(T item, long deadlineTick) {
+        file(new Timer<>(item, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Moves the wheel forward to {@code tick}, handing every timer whose deadline has been
+     * reached to {@code expired}.
+     */
+    public void advanceTo(long tick, Consumer<T> expired) {
+        fireDue(expired);
+        while (currentTick < tick) {
+            currentTick++;
+            for (int level = 1; level < levels; level++) {
+                if ((currentTick & ((1L << (slotBits * level)) - 1)) != 0) {
+                    break;
+                }
+                refile(drain(level, (int) ((currentTick >>> (slotBits * level)) & slotMask)));
+            }
+            if ((currentTick & ((1L << (slotBits * levels)) - 1)) == 0 && !overflow.isEmpty()) {
+                List<Timer<T>> pending = new ArrayList<>(overflow);
+                overflow.clear();
+                refile(pending);
+            }
+            due.addAll(drain(0, (int) (currentTick & slotMask)));
+            fireDue(expired);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    private void file(Timer<T> timer) {
+        long delta = timer.deadlineTick - currentTick;
+        if (delta <= 0) {
+            due.add(timer);
+            return;
+        }
+        for (int level = 0; level < levels; level++) {
+            if (delta < 1L << (slotBits * (level + 1))) {
+                int slot = (int) ((timer.deadlineTick >>> (slotBits * level)) & slotMask);
+                if (slots[level][slot] == null) {
+                    slots[level][slot] = new ArrayDeque<>();
+                }
+                slots[level][slot].add(timer);
+                return;
+            }
+        }
+        overflow.add(timer);
+    }
+
+    private void refile(Iterable<Timer<T>> timers) {
+        timers.forEach(this::file);
+    }
+
+    private List<Timer<T>> drain(int level, int slot) {
+        ArrayDeque<Timer<T>> timers = slots[level][slot];
+        if (timers == null || timers.isEmpty()) {
+            return List.of();
+        }
+        List<Timer<T>> drained = new ArrayList<>(timers);
+        timers.clear();
+        return drained;
+    }
+
+    private void fireDue(Consumer<T> expired) {
+        if (due.isEmpty()) {
+            return;
+        }
+        List<Timer<T>> firing = new ArrayList<>(due);
+        due.clear();
+        size -= firing.size();
+        firing.forEach(timer -> expired.accept(timer.item));
+    }
+
+    private record Timer<T>(T item, long deadlineTick) {}
+}
@@ -0,0 +1,151 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.holds;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.services.StockHoldService;
+import com.carlosoliveira.ecommerce.productcatalog.config.StockHoldProperties;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.PendingHold;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.StockHoldRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the expiry of every pending hold in a {@link HierarchicalTimingWheel} and releases
+ * the ones that come due in batches, once per tick. The database is only read on startup to
+ * refill the wheel; firing is a hint, and the release re-checks each hold's expiry under lock.
+ * A hold confirmed by a checkout is gone by then and simply not found.
+ * <p>
+ * Nothing is scheduled unless {@link StockHoldProperties#expire()} is on.
+ */
+@Slf4j
+@Component
+public class StockHoldExpiryScheduler implements SmartLifecycle {
+
+    private final StockHoldRepository stockHoldRepository;
+    private final ObjectProvider<StockHoldService> stockHoldService;
+    private final StockHoldProperties properties;
+    private final long tickMillis;
+    private final HierarchicalTimingWheel<UUID> wheel;
+
+    private ScheduledExecutorService ticker;
+    private volatile boolean running;
+
+    public StockHoldExpiryScheduler(
+            StockHoldRepository stockHoldRepository,
+            ObjectProvider<StockHoldService> stockHoldService,
+            StockHoldProperties properties) {
+        this.stockHoldRepository = stockHoldRepository;
+        this.stockHoldService = stockHoldService;
+        this.properties = properties;
+        this.tickMillis = properties.tick().toMillis();
+        this.wheel = new HierarchicalTimingWheel<>(properties.slotBits(), properties.levels(), currentTick());
+    }
+
+    public void schedule(UUID holdId, Instant expiresAt) {
+        if (!properties.expire()) {
+            return;
+        }
+        long deadline = Math.ceilDiv(expiresAt.toEpochMilli(), tickMillis);
+        synchronized (wheel) {
+            wheel.schedule(holdId, deadline);
+        }
+    }
+
+    /**
+     * Schedules once the current transaction commits, so a rolled back hold never fires.
+     */
+    public void scheduleAfterCommit(UUID holdId, Instant expiresAt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(holdId, expiresAt);
+                }
+            });
+        } else {
+            schedule(holdId, expiresAt);
+        }
+    }
+
+    public int pendingCount() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    public void tick() {
+        List<UUID> expired = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advanceTo(currentTick(), expired::add);
+        }
+        for (int from = 0; from < expired.size(); from += properties.releaseBatchSize()) {
+            List<UUID> batch = expired.subList(from, Math.min(from + properties.releaseBatchSize(), expired.size()));
+            try {
+                int released = stockHoldService.getObject().releaseExpired(batch);
+                log.debug("Released {} of {} expired stock holds", released, batch.size());
+            } catch (RuntimeException e) {
+                log.warn("Failed to release {} expired stock holds, will retry: {}", batch.size(), e.getMessage());
+                synchronized (wheel) {
+                    batch.forEach(holdId -> wheel.schedule(holdId, wheel.currentTick() + 1));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.expire()) {
+            log.info("Stock hold expiry is off, holds are kept until their cart gives them back or checks out");
+            running = true;
+            return;
+        }
+        List<PendingHold> pending = stockHoldRepository.findAllPending();
+        pending.forEach(hold -> schedule(hold.holdId(), hold.expiresAt()));
+        log.info("Scheduled expiry of {} pending stock holds", pending.size());
+
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "stock-hold-expiry"));
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (ticker == null) {
+            return;
+        }
+        ticker.shutdown();
+        try {
+            ticker.awaitTermination(tickMillis * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts after and stops before the in-memory reservation counters, which releases go through.
+     */
+    @Override
+    public int getPhase() {
+        return 1;
+    }
+
+    private long currentTick() {
+        return Math.floorDiv(System.currentTimeMillis(), tickMillis);
+    }
+}
@@ -0,0 +1,32 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.reservation;
+
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.StockDeltaWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reserves stock with one conditional {@code UPDATE} per product, sent as a single batch, letting the
+ * database check availability instead of loading the products and retrying on version conflicts.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "product-catalog.reservation.mode", havingValue = "conditional")
+public class ConditionalStockReservationStrategy implements StockReservationStrategy {
+
+    private final StockDeltaWriter stockDeltaWriter;
+
+    @Override
+    public Set<UUID> reserveAll(Map<UUID, Integer> quantities) {
+        return stockDeltaWriter.decrementWhereAvailable(quantities);
+    }
+
+    @Override
+    public void releaseAll(Map<UUID, Integer> quantities) {
+        stockDeltaWriter.apply(quantities, quantities.size());
+    }
+}
@@ -0,0 +1,216 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.reservation;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.errors.ProductNotFoundException;
+import com.carlosoliveira.ecommerce.productcatalog.application.errors.StockReservationException;
+import com.carlosoliveira.ecommerce.productcatalog.config.ReservationProperties;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.ProductRepository;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.StockDeltaWriter;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.StockLevel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides reservations against in-memory counters and writes the net change per product
+ * back to the {@code products} table in periodic batches.
+ * <p>
+ * Counters are rebuilt from the database on startup and flushed one last time on shutdown.
+ * Reservations accepted since the last flush are lost if the process dies, and stock changed
+ * in the database by another writer is not seen until the next restart, except through
+ * {@link #detach}.
+ * <p>
+ * Counters change as soon as a reservation or release is made. When that happens inside a transaction,
+ * the change is undone if the transaction rolls back, so a redelivered event does not take stock twice.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "product-catalog.reservation.mode", havingValue = "in-memory")
+public class InMemoryStockReservationStrategy implements StockReservationStrategy, SmartLifecycle {
+
+    private final ConcurrentMap<UUID, StockCounter> counters = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final ProductRepository productRepository;
+    private final StockDeltaWriter stockDeltaWriter;
+    private final ReservationProperties.InMemory properties;
+
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    public InMemoryStockReservationStrategy(
+            ProductRepository productRepository,
+            StockDeltaWriter stockDeltaWriter,
+            ReservationProperties reservationProperties) {
+        this.productRepository = productRepository;
+        this.stockDeltaWriter = stockDeltaWriter;
+        this.properties = reservationProperties.inMemory();
+    }
+
+    /**
+     * Reserves each product on its own counter; a product that is short or unknown is rejected without
+     * affecting the others. A product being rewritten fails the whole call, as it only has to be retried.
+     */
+    @Override
+    public Set<UUID> reserveAll(Map<UUID, Integer> quantities) {
+        Set<UUID> rejected = new HashSet<>();
+        quantities.forEach((productId, quantity) -> {
+            try {
+                reserve(productId, quantity);
+            } catch (StockReservationException | ProductNotFoundException | IllegalArgumentException e) {
+                rejected.add(productId);
+            }
+        });
+        return rejected;
+    }
+
+    public void reserve(UUID productId, int quantity) {
+        StockCounter counter = counters.computeIfAbsent(productId, this::load);
+        counter.reserve(productId, quantity);
+        undoOnRollback(counter, -quantity);
+    }
+
+    @Override
+    public void releaseAll(Map<UUID, Integer> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            StockCounter counter = counters.computeIfAbsent(productId, this::load);
+            counter.release(quantity);
+            undoOnRollback(counter, quantity);
+        });
+    }
+
+    @Override
+    public OptionalInt availableQuantity(UUID productId) {
+        StockCounter counter = counters.get(productId);
+        return counter == null ? OptionalInt.empty() : OptionalInt.of(counter.available());
+    }
+
+    /**
+     * Closes the product's counter and drains it. Runs between flushes, so a change drained by a flush
+     * is already written by the time the caller reads the product row. A product without a counter gets
+     * a closed one, so nothing loads the row while it is being rewritten.
+     */
+    @Override
+    public int detach(UUID productId) {
+        StockCounter placeholder = new StockCounter(0);
+        StockCounter counter;
+        int delta;
+        synchronized (flushLock) {
+            StockCounter existing = counters.putIfAbsent(productId, placeholder);
+            counter = existing == null ? placeholder : existing;
+            delta = counter.close();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED || counter == placeholder) {
+                    counters.remove(productId, counter);
+                } else {
+                    counter.reopen(delta);
+                }
+            }
+        });
+        return delta;
+    }
+
+    public void flush() {
+        synchronized (flushLock) {
+            flushPending();
+        }
+    }
+
+    @Override
+    public void start() {
+        counters.clear();
+        for (StockLevel level : productRepository.findAllStockLevels()) {
+            counters.put(level.productId(), new StockCounter(level.quantity()));
+        }
+        log.info("Loaded stock counters for {} products", counters.size());
+
+        long intervalMs = properties.flushInterval().toMillis();
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "stock-flusher"));
+        flusher.scheduleWithFixedDelay(this::flush, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(properties.flushInterval().toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the message listener containers, so the final flush
+     * sees every reservation they accepted.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void flushPending() {
+        Map<UUID, Integer> deltas = new HashMap<>();
+        Map<UUID, StockCounter> drained = new HashMap<>();
+        counters.forEach((productId, counter) -> {
+            int delta = counter.drain();
+            if (delta != 0) {
+                deltas.put(productId, delta);
+                drained.put(productId, counter);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            stockDeltaWriter.apply(deltas, properties.flushBatchSize());
+            log.debug("Flushed stock changes for {} products", deltas.size());
+        } catch (RuntimeException e) {
+            deltas.forEach((productId, delta) -> drained.get(productId).restore(delta));
+            log.warn("Failed to flush stock changes for {} products, will retry: {}", deltas.size(), e.getMessage());
+        }
+    }
+
+    private void undoOnRollback(StockCounter counter, int change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    counter.undo(change);
+                }
+            }
+        });
+    }
+
+    private StockCounter load(UUID productId) {
+        var product = productRepository.findById(productId)
+                .orElseThrow(() -> new ProductNotFoundException(productId));
+        return new StockCounter(product.getStock().getQuantity());
+    }
+}
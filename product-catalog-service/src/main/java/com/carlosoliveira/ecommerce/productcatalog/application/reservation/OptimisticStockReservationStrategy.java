@@ -0,0 +1,48 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.reservation;
+
+import com.carlosoliveira.ecommerce.productcatalog.domain.Product;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.ProductRepository;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.StockDeltaWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Loads the products, takes the stock on the entities and lets their version catch concurrent writers.
+ * A conflict fails the flush with {@code ObjectOptimisticLockingFailureException} and rolls back the
+ * caller's transaction, which {@code StockHoldService} retries.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "product-catalog.reservation.mode", havingValue = "optimistic", matchIfMissing = true)
+public class OptimisticStockReservationStrategy implements StockReservationStrategy {
+
+    private final ProductRepository productRepository;
+    private final StockDeltaWriter stockDeltaWriter;
+
+    @Transactional
+    @Override
+    public Set<UUID> reserveAll(Map<UUID, Integer> quantities) {
+        Set<UUID> rejected = new HashSet<>(quantities.keySet());
+        for (Product product : productRepository.findAllById(quantities.keySet())) {
+            int quantity = quantities.get(product.getId());
+            if (quantity >= 0 && product.getStock().getQuantity() >= quantity) {
+                product.decrementStock(quantity);
+                rejected.remove(product.getId());
+            }
+        }
+        productRepository.flush();
+        return rejected;
+    }
+
+    @Override
+    public void releaseAll(Map<UUID, Integer> quantities) {
+        stockDeltaWriter.apply(quantities, quantities.size());
+    }
+}
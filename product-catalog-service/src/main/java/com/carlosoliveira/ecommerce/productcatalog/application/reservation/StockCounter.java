@@ -0,0 +1,125 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.reservation;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.errors.StockReservationException;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lock-free available quantity of one product plus the net change not yet written to the database.
+ * <p>
+ * Reservations and releases share a read lock, so they only wait for {@link #close()}.
+ */
+class StockCounter {
+
+    private final AtomicInteger available;
+    private final AtomicInteger unflushed = new AtomicInteger();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean closed;
+
+    StockCounter(int available) {
+        this.available = new AtomicInteger(available);
+    }
+
+    /**
+     * @throws StockReservationException if less than {@code amount} is available
+     */
+    void reserve(UUID productId, int amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Decrement amount cannot be negative.");
+        }
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            while (true) {
+                int current = available.get();
+                if (current < amount) {
+                    throw new StockReservationException(productId, amount, current);
+                }
+                if (available.compareAndSet(current, current - amount)) {
+                    unflushed.addAndGet(-amount);
+                    return;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void release(int amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Increment amount cannot be negative.");
+        }
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            available.addAndGet(amount);
+            unflushed.addAndGet(amount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Takes back a reservation or release whose transaction rolled back. It is applied even to a closed
+     * counter: if a flush has written the change already, the opposite change is written by the next one.
+     */
+    void undo(int change) {
+        available.addAndGet(-change);
+        unflushed.addAndGet(-change);
+    }
+
+    int available() {
+        return available.get();
+    }
+
+    /**
+     * Takes the pending net change, leaving zero behind for reservations that race with the flush.
+     */
+    int drain() {
+        return unflushed.getAndSet(0);
+    }
+
+    /**
+     * Puts back a drained change whose write failed so the next flush picks it up again.
+     */
+    void restore(int delta) {
+        unflushed.addAndGet(delta);
+    }
+
+    /**
+     * Waits for the reservations and releases in flight, then turns away any further ones.
+     *
+     * @return the pending net change, which the counter no longer holds
+     */
+    int close() {
+        lock.writeLock().lock();
+        try {
+            closed = true;
+            return drain();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Takes reservations again, with a change handed out by {@link #close()} that was never written.
+     */
+    void reopen(int delta) {
+        lock.writeLock().lock();
+        try {
+            restore(delta);
+            closed = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Stock of this product is being rewritten, try again.");
+        }
+    }
+}
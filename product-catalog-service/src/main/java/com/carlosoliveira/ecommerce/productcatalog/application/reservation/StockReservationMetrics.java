@@ -0,0 +1,53 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.reservation;
+
+import com.carlosoliveira.ecommerce.productcatalog.config.ReservationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code catalog.stock.reservations} times each call reserving stock for cart events, tagged with the reservation
+ * mode and its outcome: {@code reserved}, {@code rejected} when any product was refused for short stock, a
+ * negative quantity or being unknown, or {@code failed} when the call threw. {@code catalog.stock.rejections}
+ * counts the refused products.
+ */
+@Component
+public class StockReservationMetrics {
+
+    private final Meter.MeterProvider<Timer> reservations;
+    private final Counter rejections;
+
+    public StockReservationMetrics(MeterRegistry meterRegistry, ReservationProperties properties) {
+        this.reservations = Timer.builder("catalog.stock.reservations")
+                .description("Stock reservation calls")
+                .tag("mode", properties.mode())
+                .withRegistry(meterRegistry);
+        this.rejections = Counter.builder("catalog.stock.rejections")
+                .description("Products whose reservation was refused")
+                .tag("mode", properties.mode())
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param startedAt {@link System#nanoTime()} when the call started
+     */
+    public void record(long startedAt, int rejected) {
+        reservations.withTags("outcome", rejected == 0 ? "reserved" : "rejected")
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        if (rejected > 0) {
+            rejections.increment(rejected);
+        }
+    }
+
+    /**
+     * @param startedAt {@link System#nanoTime()} when the call started
+     */
+    public void recordFailure(long startedAt) {
+        reservations.withTags("outcome", "failed")
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,45 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.reservation;
+
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Decides and records a stock reservation for a product.
+ * The active implementation is selected with {@code product-catalog.reservation.mode}.
+ */
+public interface StockReservationStrategy {
+
+    /**
+     * Reserves an aggregated quantity for each product, in the caller's transaction when there is one.
+     *
+     * @return the ids whose reservation could not be made; the others have been applied
+     */
+    Set<UUID> reserveAll(Map<UUID, Integer> quantities);
+
+    /**
+     * Gives back previously reserved quantities, e.g. when a hold expires.
+     */
+    void releaseAll(Map<UUID, Integer> quantities);
+
+    /**
+     * Quantity known to the strategy when it is more recent than the persisted {@code Stock},
+     * or empty when the database is the source of truth.
+     */
+    default OptionalInt availableQuantity(UUID productId) {
+        return OptionalInt.empty();
+    }
+
+    /**
+     * Hands over the product's net change not yet written to the database, for a caller about to rewrite
+     * its stock in the current transaction. Until that transaction completes, reservations and releases of
+     * the product fail; afterwards the product is read from the database again, or keeps the change if
+     * the transaction rolled back.
+     *
+     * @return the change to add to the persisted quantity
+     */
+    default int detach(UUID productId) {
+        return 0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.services;
+
+import org.springframework.http.MediaType;
+
+public enum FeedFormat {
+    NDJSON,
+    CSV;
+
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+
+    public static FeedFormat fromMediaType(MediaType mediaType) {
+        return MediaType.parseMediaType(CSV_MEDIA_TYPE).includes(mediaType) ? CSV : NDJSON;
+    }
+
+    public static FeedFormat fromFileName(String fileName) {
+        return fileName.toLowerCase().endsWith(".csv") ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,157 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.services;
+
+import com.carlosoliveira.ecommerce.common.valueObjects.Money;
+import com.carlosoliveira.ecommerce.common.valueObjects.MoneyJsonCodec;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.FeedImportResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductFeedRow;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.StockDeltaFeedRow;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Product;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Stock;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.cache.ProductCache;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.FeedStagingRepository;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams supplier feeds row by row, validates each row with the domain rules and stages the valid
+ * ones through COPY before merging them in one statement. Memory use does not depend on feed size.
+ */
+@Slf4j
+@Service
+public class FeedImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_NAME_LENGTH = 100;
+
+    private final FeedStagingRepository feedStagingRepository;
+    private final ProductCache productCache;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build();
+
+    public FeedImportService(FeedStagingRepository feedStagingRepository, ProductCache productCache, ObjectMapper objectMapper) {
+        this.feedStagingRepository = feedStagingRepository;
+        this.productCache = productCache;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional
+    public FeedImportResponse importProducts(InputStream feed, FeedFormat format) {
+        Report report = new Report();
+        try (var copy = feedStagingRepository.copyProducts()) {
+            readRows(feed, format, ProductFeedRow.class, report, row -> {
+                Product product = toProduct(row);
+                copy.writeRow(
+                        report.rowsRead,
+                        row.id() != null ? row.id() : product.getId(),
+                        product.getName(),
+                        MoneyJsonCodec.formatAmount(product.getPrice().getMinorUnits(), product.getPrice().getCurrency()),
+                        product.getPrice().getCurrency().getCurrencyCode(),
+                        product.getStock().getQuantity()
+                );
+            });
+            copy.finish();
+        }
+        int merged = feedStagingRepository.mergeProducts();
+        productCache.evictAll();
+        log.info("Imported product feed: {} rows read, {} rejected, {} products merged",
+                report.rowsRead, report.rowsRejected, merged);
+        return report.toResponse(merged, 0);
+    }
+
+    @Transactional
+    public FeedImportResponse importStockDeltas(InputStream feed, FeedFormat format) {
+        Report report = new Report();
+        try (var copy = feedStagingRepository.copyStockDeltas()) {
+            readRows(feed, format, StockDeltaFeedRow.class, report, row -> {
+                if (row.productId() == null) {
+                    throw new IllegalArgumentException("Product ID cannot be null.");
+                }
+                if (row.delta() == null) {
+                    throw new IllegalArgumentException("Increment amount cannot be null.");
+                }
+                // stock feeds restock, so a delta is an increment and cannot take stock away
+                Stock.requireValidIncrement(row.delta());
+                copy.writeRow(row.productId(), row.delta());
+            });
+            copy.finish();
+        }
+        var merged = feedStagingRepository.mergeStockDeltas();
+        productCache.evictAll();
+        log.info("Imported stock feed: {} rows read, {} rejected, {} products restocked, {} skipped",
+                report.rowsRead, report.rowsRejected, merged.updated(), merged.skipped());
+        return report.toResponse(merged.updated(), merged.skipped());
+    }
+
+    private Product toProduct(ProductFeedRow row) {
+        if (row.priceAmount() == null) {
+            throw new IllegalArgumentException("Product price cannot be null.");
+        }
+        if (row.priceAmount().signum() < 0) {
+            throw new IllegalArgumentException("Price amount must be non-negative.");
+        }
+        if (row.currency() == null) {
+            throw new IllegalArgumentException("Currency code cannot be empty.");
+        }
+        if (row.name() != null && row.name().length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Product name cannot exceed " + MAX_NAME_LENGTH + " characters.");
+        }
+        Money price = new Money(row.priceAmount(), Currency.getInstance(row.currency()));
+        return new Product(row.name(), price, new Stock(row.quantity() == null ? 0 : row.quantity()));
+    }
+
+    private <T> void readRows(InputStream feed, FeedFormat format, Class<T> rowType, Report report, Consumer<T> stage) {
+        try (MappingIterator<T> rows = reader(format, rowType).readValues(feed)) {
+            while (rows.hasNextValue()) {
+                report.rowsRead++;
+                try {
+                    stage.accept(rows.nextValue());
+                } catch (IllegalArgumentException | IOException e) {
+                    report.reject(e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read feed", e);
+        }
+    }
+
+    private ObjectReader reader(FeedFormat format, Class<?> rowType) {
+        if (format == FeedFormat.CSV) {
+            return csvMapper.readerFor(rowType).with(CsvSchema.emptySchema().withHeader());
+        }
+        return objectMapper.readerFor(rowType);
+    }
+
+    private static final class Report {
+        private long rowsRead;
+        private long rowsRejected;
+        private final List<String> errors = new ArrayList<>();
+
+        void reject(String reason) {
+            rowsRejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Row " + rowsRead + ": " + reason);
+            }
+        }
+
+        FeedImportResponse toResponse(long productsChanged, long productsSkipped) {
+            return new FeedImportResponse(rowsRead, rowsRejected, productsChanged, productsSkipped, List.copyOf(errors));
+        }
+    }
+}
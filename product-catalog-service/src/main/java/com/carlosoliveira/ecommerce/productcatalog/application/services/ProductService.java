@@ -2,34 +2,51 @@ package com.carlosoliveira.ecommerce.productcatalog.application.services;
 
 import com.carlosoliveira.ecommerce.common.valueObjects.Money;
 
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CheckStockRequest;
 import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CreateProductRequest;
 import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductDetailsResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductPageResponse;
 import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductResponse;
 import com.carlosoliveira.ecommerce.productcatalog.application.dtos.StockCheckResponse;
 import com.carlosoliveira.ecommerce.productcatalog.application.errors.ProductNotFoundException;
 import com.carlosoliveira.ecommerce.productcatalog.application.errors.StockReservationException;
+import com.carlosoliveira.ecommerce.productcatalog.application.reservation.StockReservationMetrics;
+import com.carlosoliveira.ecommerce.productcatalog.application.reservation.StockReservationStrategy;
 import com.carlosoliveira.ecommerce.productcatalog.domain.Product;
 import com.carlosoliveira.ecommerce.productcatalog.domain.Stock;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.cache.ProductCache;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.ProductExportReader;
 import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.ProductRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.orm.ObjectOptimisticLockingFailureException;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @RequiredArgsConstructor
 @Service
 public class ProductService {
 
     private final ProductRepository productRepository;
-    private static final int MAX_RETRIES = 3;
-    private static final long BASE_DELAY_MS = 50;
-    private static final long MAX_DELAY_MS = 500;
+    private final StockReservationStrategy stockReservationStrategy;
+    private final StockBucketService stockBucketService;
+    private final ProductCache productCache;
+    private final ProductExportReader productExportReader;
+    private final StockReservationMetrics reservationMetrics;
+    private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 500;
 
     @Transactional
     public ProductResponse createProduct(CreateProductRequest request) {
@@ -48,42 +65,168 @@ public class ProductService {
         );
     }
 
-    @Transactional(readOnly = true)
     public ProductDetailsResponse getProduct(UUID id) throws ProductNotFoundException {
-        var product = productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException(id));
+        return productCache.get(id, this::loadProductDetails);
+    }
+
+    public StockCheckResponse checkStock(UUID productId, int quantity) {
+        int available = getProduct(productId).stockQuantity();
+        return new StockCheckResponse(available >= quantity, available);
+    }
+
+    /**
+     * Looks up many products at once, loading the ones missing from the cache with chunked IN-list queries.
+     *
+     * @return the found products keyed by id; unknown ids are left out
+     */
+    public Map<UUID, ProductDetailsResponse> getProducts(Collection<UUID> ids) {
+        return productCache.getAll(ids, this::loadProductDetails);
+    }
+
+    /**
+     * Checks stock for many products at once. Requests for the same product are added together.
+     *
+     * @return the results keyed by product id, in request order; unknown products are left out
+     */
+    public Map<UUID, StockCheckResponse> checkStock(Collection<CheckStockRequest> requests) {
+        Map<UUID, Integer> requested = new LinkedHashMap<>();
+        requests.forEach(request -> requested.merge(request.productId(), request.quantity(), Integer::sum));
+
+        Map<UUID, ProductDetailsResponse> products = getProducts(requested.keySet());
+        Map<UUID, StockCheckResponse> results = new LinkedHashMap<>();
+        requested.forEach((productId, quantity) -> {
+            var product = products.get(productId);
+            if (product != null) {
+                results.put(productId, new StockCheckResponse(product.stockQuantity() >= quantity, product.stockQuantity()));
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Returns the page of products whose id follows {@code after} (or the first page when it is null).
+     * Seeking on the primary key keeps deep pages as cheap as the first one.
+     */
+    @Transactional(readOnly = true)
+    public ProductPageResponse listProducts(UUID after, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        List<Product> products = after == null
+                ? productRepository.findAllByOrderByIdAsc(Limit.of(size))
+                : productRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size));
+
+        Map<UUID, Integer> shardedStock = stockBucketService.totalQuantities(products.stream().map(Product::getId).toList());
+        List<ProductDetailsResponse> items = products.stream().map(product -> toDetails(product, shardedStock)).toList();
+        UUID nextCursor = items.size() == size ? items.getLast().id() : null;
+        return new ProductPageResponse(items, nextCursor);
+    }
+
+    /**
+     * Streams every product to {@code consumer} in id order, holding one fetch window in memory at a time.
+     * Stock is the same total a single read reports: the query adds up the buckets, and changes the
+     * reservation strategy has not written yet are laid over it.
+     */
+    public void exportProducts(Consumer<ProductDetailsResponse> consumer) {
+        productExportReader.forEach(product -> consumer.accept(withUnwrittenStock(product)));
+    }
+
+    /**
+     * Reserves stock for many products at once, in the caller's transaction. Sharded products take it from
+     * their buckets; the others go to the reservation strategy together.
+     *
+     * @return the ids of products whose reservation was rejected because their stock was short, the
+     * quantity negative or the product unknown
+     */
+    public Set<UUID> reserveStock(Map<UUID, Integer> quantities) {
+        long startedAt = System.nanoTime();
+        Set<UUID> rejected = new HashSet<>();
+        try {
+            Map<UUID, Integer> unsharded = new HashMap<>();
+            quantities.forEach((productId, quantity) -> {
+                if (!stockBucketService.isSharded(productId)) {
+                    unsharded.put(productId, quantity);
+                    return;
+                }
+                try {
+                    stockBucketService.reserve(productId, quantity);
+                } catch (StockReservationException | IllegalArgumentException e) {
+                    rejected.add(productId);
+                }
+            });
+            if (!unsharded.isEmpty()) {
+                rejected.addAll(stockReservationStrategy.reserveAll(unsharded));
+            }
+        } catch (RuntimeException e) {
+            reservationMetrics.recordFailure(startedAt);
+            throw e;
+        }
+        quantities.keySet().forEach(productCache::evict);
+        reservationMetrics.record(startedAt, rejected.size());
+        return rejected;
+    }
+
+    /**
+     * Returns previously reserved stock, routing sharded products to their buckets.
+     */
+    public void releaseStock(Map<UUID, Integer> quantities) {
+        Map<UUID, Integer> unsharded = new HashMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (!stockBucketService.isSharded(productId) || !stockBucketService.release(productId, quantity)) {
+                unsharded.put(productId, quantity);
+            }
+        });
+        if (!unsharded.isEmpty()) {
+            stockReservationStrategy.releaseAll(unsharded);
+        }
+        quantities.keySet().forEach(productCache::evict);
+    }
+
+    private ProductDetailsResponse loadProductDetails(UUID id) {
+        Product product = productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(id));
+        return toDetails(product, stockBucketService.totalQuantities(List.of(id)));
+    }
 
+    private Map<UUID, ProductDetailsResponse> loadProductDetails(Set<? extends UUID> ids) {
+        List<UUID> pending = new ArrayList<>(ids);
+        Map<UUID, ProductDetailsResponse> loaded = new HashMap<>();
+        for (int from = 0; from < pending.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            var chunk = pending.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, pending.size()));
+            List<Product> products = productRepository.findAllById(chunk);
+            Map<UUID, Integer> shardedStock = stockBucketService.totalQuantities(products.stream().map(Product::getId).toList());
+            products.forEach(product -> loaded.put(product.getId(), toDetails(product, shardedStock)));
+        }
+        return loaded;
+    }
+
+    /**
+     * @param shardedStock bucket totals of the sharded products among those being loaded
+     */
+    private ProductDetailsResponse toDetails(Product product, Map<UUID, Integer> shardedStock) {
         return new ProductDetailsResponse(
                 product.getId(),
                 product.getName(),
                 product.getPrice().getAmount(),
-                product.getStock().getQuantity(),
+                availableQuantity(product, shardedStock),
                 product.getVersion()
         );
     }
 
-    @Transactional(readOnly = true)
-    public StockCheckResponse checkStock(UUID productId, int quantity) {
-        var product = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException(productId));
-        boolean hasStock =  product.getStock().isAvailable(quantity);
-        return new StockCheckResponse(hasStock, product.getStock().getQuantity());
-    }
-
-    @Retryable(
-            retryFor = {ObjectOptimisticLockingFailureException.class},
-            backoff = @Backoff(delay = 50, multiplier = 2, maxDelay = 500)
-    )
-    @Transactional
-    public void reserveStock(UUID productId, int quantity) {
-        var product = productRepository.findByIdForUpdate(productId)
-                .orElseThrow(() -> new ProductNotFoundException(productId));
-        product.decrementStock(quantity);
-        productRepository.save(product);
+    private ProductDetailsResponse withUnwrittenStock(ProductDetailsResponse product) {
+        OptionalInt available = stockReservationStrategy.availableQuantity(product.id());
+        if (available.isEmpty() || available.getAsInt() == product.stockQuantity()) {
+            return product;
+        }
+        return new ProductDetailsResponse(
+                product.id(), product.name(), product.priceAmount(), available.getAsInt(), product.version());
     }
 
-    @Recover
-    public void recover(ObjectOptimisticLockingFailureException ex, UUID productId, int quantity) {
-        throw new StockReservationException(productId, MAX_RETRIES);
+    private int availableQuantity(Product product, Map<UUID, Integer> shardedStock) {
+        Integer sharded = shardedStock.get(product.getId());
+        if (sharded != null) {
+            return sharded;
+        }
+        return stockReservationStrategy.availableQuantity(product.getId())
+                .orElse(product.getStock().getQuantity());
     }
 }
@@ -0,0 +1,205 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.services;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.StockBucketsResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.errors.ProductNotFoundException;
+import com.carlosoliveira.ecommerce.productcatalog.application.errors.StockReservationException;
+import com.carlosoliveira.ecommerce.productcatalog.application.reservation.StockReservationStrategy;
+import com.carlosoliveira.ecommerce.productcatalog.config.ReservationProperties;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Product;
+import com.carlosoliveira.ecommerce.productcatalog.domain.StockBucket;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.cache.ProductCache;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.BucketTotal;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.ProductRepository;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.StockBucketRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps the stock of hot products split across {@link StockBucket} rows.
+ * <p>
+ * While a product is sharded its {@code products.quantity} stays at zero and the buckets hold
+ * the whole stock, so an instance that has not yet seen a reshard rejects reservations instead
+ * of overselling. Each instance reads a product's bucket count from the database and trusts it
+ * for {@code product-catalog.reservation.buckets.layout-ttl}; the instance that reshards forgets
+ * it as soon as the reshard commits.
+ */
+@Slf4j
+@Service
+public class StockBucketService {
+
+    private final StockBucketRepository stockBucketRepository;
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final StockReservationStrategy stockReservationStrategy;
+    private final LoadingCache<UUID, Integer> bucketCounts;
+
+    public StockBucketService(
+            StockBucketRepository stockBucketRepository,
+            ProductRepository productRepository,
+            ProductCache productCache,
+            StockReservationStrategy stockReservationStrategy,
+            ReservationProperties reservationProperties) {
+        this.stockBucketRepository = stockBucketRepository;
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.stockReservationStrategy = stockReservationStrategy;
+        ReservationProperties.Buckets properties = reservationProperties.buckets();
+        this.bucketCounts = Caffeine.newBuilder()
+                .maximumSize(properties.cachedLayouts())
+                .expireAfterWrite(properties.layoutTtl())
+                .build(productId -> (int) stockBucketRepository.countByProductId(productId));
+    }
+
+    public boolean isSharded(UUID productId) {
+        return bucketCounts.get(productId) > 0;
+    }
+
+    /**
+     * Adds up the buckets of many products with one grouped query and refreshes their cached bucket counts
+     * along the way.
+     *
+     * @return the total stock of the given products that are sharded; the others are left out
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, Integer> totalQuantities(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, Integer> counts = new HashMap<>();
+        productIds.forEach(productId -> counts.put(productId, 0));
+        Map<UUID, Integer> totals = new HashMap<>();
+        for (BucketTotal total : stockBucketRepository.findTotalsByProductIdIn(productIds)) {
+            counts.put(total.productId(), (int) total.buckets());
+            totals.put(total.productId(), (int) total.quantity());
+        }
+        bucketCounts.putAll(counts);
+        return totals;
+    }
+
+    /**
+     * Takes the quantity from a randomly chosen bucket, moving on to its neighbours when it runs dry.
+     * When no single bucket covers the request, the buckets are locked and drained in order.
+     */
+    @Transactional
+    public void reserve(UUID productId, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Decrement amount cannot be negative.");
+        }
+        int buckets = bucketCounts.get(productId);
+        if (buckets == 0) {
+            reserveAcrossBuckets(productId, quantity);
+            return;
+        }
+        int start = ThreadLocalRandom.current().nextInt(buckets);
+        for (int i = 0; i < buckets; i++) {
+            if (stockBucketRepository.decrementIfAvailable(productId, (start + i) % buckets, quantity) == 1) {
+                return;
+            }
+        }
+        reserveAcrossBuckets(productId, quantity);
+    }
+
+    /**
+     * Adds {@code quantity} to one of the product's buckets.
+     *
+     * @return false when the product is no longer sharded and the caller must restock the product row instead
+     */
+    @Transactional
+    public boolean release(UUID productId, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Increment amount cannot be negative.");
+        }
+        int buckets = bucketCounts.get(productId);
+        if (buckets == 0) {
+            return false;
+        }
+        return stockBucketRepository.increment(productId, ThreadLocalRandom.current().nextInt(buckets), quantity) == 1;
+    }
+
+    /**
+     * Moves the product's whole stock into {@code bucketCount} evenly filled buckets.
+     * Calling it with the current count rebalances the buckets; a count of 1 merges them back into the product row.
+     * Changes the reservation strategy has not written yet are taken along, and the strategy reads the
+     * product again once the reshard commits.
+     */
+    @Transactional
+    public StockBucketsResponse reshard(UUID productId, int bucketCount) {
+        if (bucketCount < 1) {
+            throw new IllegalArgumentException("Bucket count must be at least 1.");
+        }
+        // Before locking the row, which a flush of the strategy may be waiting for
+        int unflushed = stockReservationStrategy.detach(productId);
+        var product = productRepository.findByIdWithWriteLock(productId)
+                .orElseThrow(() -> new ProductNotFoundException(productId));
+        List<StockBucket> current = stockBucketRepository.findByProductIdForUpdate(productId);
+        int total = product.getStock().getQuantity() + unflushed
+                + current.stream().mapToInt(bucket -> bucket.getStock().getQuantity()).sum();
+
+        stockBucketRepository.deleteByProductId(productId);
+        stockBucketRepository.flush();
+        productCache.evict(productId);
+        forgetBucketCountAfterCommit(productId);
+
+        if (bucketCount == 1) {
+            setProductStock(product, total);
+            log.info("Merged stock buckets of Product ID: {} back into the product row", productId);
+            return new StockBucketsResponse(productId, total, List.of());
+        }
+
+        setProductStock(product, 0);
+        List<StockBucket> buckets = stockBucketRepository.saveAll(StockBucket.split(productId, total, bucketCount));
+        log.info("Split stock of Product ID: {} into {} buckets", productId, bucketCount);
+        return new StockBucketsResponse(
+                productId,
+                total,
+                buckets.stream().map(bucket -> bucket.getStock().getQuantity()).toList()
+        );
+    }
+
+    private void setProductStock(Product product, int quantity) {
+        int difference = quantity - product.getStock().getQuantity();
+        if (difference > 0) {
+            product.incrementStock(difference);
+        } else if (difference < 0) {
+            product.decrementStock(-difference);
+        }
+    }
+
+    private void forgetBucketCountAfterCommit(UUID productId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bucketCounts.invalidate(productId);
+            }
+        });
+    }
+
+    private void reserveAcrossBuckets(UUID productId, int quantity) {
+        List<StockBucket> buckets = stockBucketRepository.findByProductIdForUpdate(productId);
+        int available = buckets.stream().mapToInt(bucket -> bucket.getStock().getQuantity()).sum();
+        if (available < quantity) {
+            throw new StockReservationException(productId, quantity, available);
+        }
+        int remaining = quantity;
+        for (StockBucket bucket : buckets) {
+            int taken = Math.min(remaining, bucket.getStock().getQuantity());
+            bucket.decrementStock(taken);
+            remaining -= taken;
+            if (remaining == 0) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.services;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.dedupe.CartEventDeduplicator;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartCheckedOutEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEventBatchOutcome;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEventDelivery;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.StockAdjustment;
+import com.carlosoliveira.ecommerce.productcatalog.application.errors.StockReservationException;
+import com.carlosoliveira.ecommerce.productcatalog.application.holds.StockHoldExpiryScheduler;
+import com.carlosoliveira.ecommerce.productcatalog.config.StockHoldProperties;
+import com.carlosoliveira.ecommerce.productcatalog.domain.StockHold;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.StockHoldRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reserves stock for carts as holds that give the stock back once they expire, or sooner when the cart
+ * gives it up. A checkout confirms the cart's holds: they are dropped and their stock stays taken.
+ * <p>
+ * Applying events runs in a transaction of its own, retried with backoff when it loses an optimistic
+ * version check to a concurrent writer, as the {@code optimistic} reservation mode does under contention.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockHoldService {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_DELAY_MS = 50;
+    private static final long MAX_DELAY_MS = 500;
+
+    private final ProductService productService;
+    private final StockHoldRepository stockHoldRepository;
+    private final StockHoldExpiryScheduler expiryScheduler;
+    private final StockHoldProperties properties;
+    private final CartEventDeduplicator deduplicator;
+
+    /**
+     * Applies the delivered event, unless it has been applied before.
+     *
+     * @return {@code false} if it was a duplicate and nothing changed
+     * @throws StockReservationException if a product's stock is short; the event is left unclaimed
+     */
+    @Retryable(
+            retryFor = ObjectOptimisticLockingFailureException.class,
+            maxAttempts = MAX_ATTEMPTS,
+            backoff = @Backoff(delay = BASE_DELAY_MS, multiplier = 2, maxDelay = MAX_DELAY_MS)
+    )
+    @Transactional
+    public boolean apply(CartEventDelivery delivery) {
+        if (!deduplicator.claim(delivery)) {
+            return false;
+        }
+        adjust(delivery.event().stockAdjustments());
+        if (delivery.event() instanceof CartCheckedOutEvent checkedOut) {
+            confirm(checkedOut);
+        }
+        return true;
+    }
+
+    /**
+     * Drops the deliveries applied before and applies the rest together, as {@link #adjustAll} does.
+     * Fresh events are claimed where any of their adjustments was applied; the ones left out entirely
+     * because of rejected products are not, and the caller applies or dead-letters them on their own.
+     * The caller replays the rejected adjustments of the others.
+     */
+    @Retryable(
+            retryFor = ObjectOptimisticLockingFailureException.class,
+            maxAttempts = MAX_ATTEMPTS,
+            backoff = @Backoff(delay = BASE_DELAY_MS, multiplier = 2, maxDelay = MAX_DELAY_MS)
+    )
+    @Transactional
+    public CartEventBatchOutcome applyAll(List<CartEventDelivery> deliveries) {
+        List<CartEventDelivery> fresh = deduplicator.unapplied(deliveries);
+        List<StockAdjustment> adjustments = fresh.stream()
+                .flatMap(delivery -> delivery.event().stockAdjustments().stream())
+                .toList();
+        CartEventBatchOutcome outcome = new CartEventBatchOutcome(fresh, adjustAll(adjustments));
+        for (CartEventDelivery delivery : fresh) {
+            if (outcome.isUnapplied(delivery)) {
+                continue;
+            }
+            deduplicator.claim(delivery);
+            if (delivery.event() instanceof CartCheckedOutEvent checkedOut) {
+                confirm(checkedOut);
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Drops what the cart holds of each checked out item without giving it back, so the stock stays
+     * taken for good. A hold is only dropped by the quantity checked out; whatever is left of it still
+     * expires.
+     */
+    @Transactional
+    public void confirm(CartCheckedOutEvent event) {
+        for (CartCheckedOutEvent.CheckoutItem item : event.items()) {
+            if (item.quantity() <= 0) {
+                continue;
+            }
+            stockHoldRepository.findByCartIdAndProductIdForUpdate(event.cartId(), item.productId())
+                    .ifPresent(hold -> {
+                        hold.shrink(item.quantity());
+                        if (hold.getQuantity() == 0) {
+                            stockHoldRepository.delete(hold);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Applies the adjustments together, or none of them if any product cannot cover what they take.
+     *
+     * @throws StockReservationException if a product's stock is short
+     */
+    @Retryable(
+            retryFor = ObjectOptimisticLockingFailureException.class,
+            maxAttempts = MAX_ATTEMPTS,
+            backoff = @Backoff(delay = BASE_DELAY_MS, multiplier = 2, maxDelay = MAX_DELAY_MS)
+    )
+    @Transactional
+    public void adjust(List<StockAdjustment> adjustments) {
+        Set<UUID> rejected = adjustAll(adjustments);
+        if (!rejected.isEmpty()) {
+            throw new StockReservationException(rejected.iterator().next());
+        }
+    }
+
+    /**
+     * Nets the adjustments per cart and product, then reserves or releases each product's net change in
+     * one batch. Taking stock grows the cart's hold and renews its expiry; giving it back shrinks the
+     * hold, and only by what it still holds, since an expired hold has already returned its stock.
+     *
+     * @return the ids of the products that could not cover their net change; none of their adjustments
+     * are applied
+     */
+    @Transactional
+    public Set<UUID> adjustAll(List<StockAdjustment> adjustments) {
+        Map<HoldKey, Integer> perCart = new LinkedHashMap<>();
+        adjustments.forEach(adjustment ->
+                perCart.merge(new HoldKey(adjustment.cartId(), adjustment.productId()), adjustment.delta(), Integer::sum));
+
+        Map<HoldKey, StockHold> shrinking = new HashMap<>();
+        Map<UUID, Integer> perProduct = new LinkedHashMap<>();
+        perCart.forEach((key, delta) -> {
+            if (delta > 0) {
+                perProduct.merge(key.productId(), delta, Integer::sum);
+            } else if (delta < 0) {
+                stockHoldRepository.findByCartIdAndProductIdForUpdate(key.cartId(), key.productId())
+                        .ifPresent(hold -> {
+                            shrinking.put(key, hold);
+                            perProduct.merge(key.productId(), -Math.min(-delta, hold.getQuantity()), Integer::sum);
+                        });
+            }
+        });
+
+        Map<UUID, Integer> reservations = new LinkedHashMap<>();
+        Map<UUID, Integer> releases = new LinkedHashMap<>();
+        perProduct.forEach((productId, delta) -> {
+            if (delta > 0) {
+                reservations.put(productId, delta);
+            } else if (delta < 0) {
+                releases.put(productId, -delta);
+            }
+        });
+        Set<UUID> rejected = reservations.isEmpty() ? Set.of() : productService.reserveStock(reservations);
+        if (!releases.isEmpty()) {
+            productService.releaseStock(releases);
+        }
+
+        Instant expiresAt = Instant.now().plus(properties.ttl());
+        perCart.forEach((key, delta) -> {
+            if (rejected.contains(key.productId())) {
+                return;
+            }
+            if (delta > 0) {
+                StockHold hold = upsert(key.cartId(), key.productId(), delta, expiresAt);
+                expiryScheduler.scheduleAfterCommit(hold.getId(), hold.getExpiresAt());
+            } else if (shrinking.containsKey(key)) {
+                StockHold hold = shrinking.get(key);
+                hold.shrink(-delta);
+                if (hold.getQuantity() == 0) {
+                    stockHoldRepository.delete(hold);
+                }
+            }
+        });
+        return rejected;
+    }
+
+    /**
+     * Deletes the given holds that are still expired and returns their stock in one batch.
+     * Holds renewed since they were scheduled are left alone.
+     *
+     * @return the number of holds released
+     */
+    @Transactional
+    public int releaseExpired(Collection<UUID> holdIds) {
+        List<StockHold> expired = stockHoldRepository.lockExpired(holdIds, Instant.now());
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        Map<UUID, Integer> quantities = new HashMap<>();
+        expired.forEach(hold -> quantities.merge(hold.getProductId(), hold.getQuantity(), Integer::sum));
+        stockHoldRepository.deleteAllInBatch(expired);
+        productService.releaseStock(quantities);
+        return expired.size();
+    }
+
+    private StockHold upsert(UUID cartId, UUID productId, int quantity, Instant expiresAt) {
+        return stockHoldRepository.findByCartIdAndProductIdForUpdate(cartId, productId)
+                .map(existing -> {
+                    existing.extend(quantity, expiresAt);
+                    return existing;
+                })
+                .orElseGet(() -> stockHoldRepository.saveAndFlush(new StockHold(cartId, productId, quantity, expiresAt)));
+    }
+
+    private record HoldKey(UUID cartId, UUID productId) {}
+}
@@ -0,0 +1,34 @@
+package com.carlosoliveira.ecommerce.productcatalog.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param listenerMode       {@code single}, {@code batch} or {@code partitioned}
+ * @param partitions         partition queues in {@code partitioned} mode; every instance must agree on it
+ * @param rebalanceInterval  how often an instance gives up partitions beyond its share to newly joined
+ *                           instances; {@code 0} leaves ownership to change only when an instance leaves
+ * @param dedupe             how already applied events are recognized
+ */
+@ConfigurationProperties(prefix = "product-catalog.cart-events")
+public record CartEventsProperties(
+        @DefaultValue("single") String listenerMode,
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("50ms") Duration batchReceiveTimeout,
+        @DefaultValue("8") int partitions,
+        @DefaultValue("30s") Duration rebalanceInterval,
+        @DefaultValue Dedupe dedupe
+) {
+    /**
+     * @param cachedMarks  carts whose committed {@link com.carlosoliveira.ecommerce.productcatalog.domain.CartEventMark}
+     *                     is kept in memory; redeliveries it covers are dropped without a database round trip
+     * @param retention    how long a cart's mark outlives its last event; a duplicate arriving later than
+     *                     this is applied again
+     */
+    public record Dedupe(
+            @DefaultValue("100000") int cachedMarks,
+            @DefaultValue("7d") Duration retention
+    ) {}
+}
@@ -0,0 +1,19 @@
+package com.carlosoliveira.ecommerce.productcatalog.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Files to import when the service runs in the {@code feed-import} profile, which imports them and exits
+ * instead of serving traffic.
+ */
+@ConfigurationProperties(prefix = "product-catalog.feed-import")
+public record FeedImportProperties(
+        Path productsFile,
+        Path stockFile
+) {
+    public boolean enabled() {
+        return productsFile != null || stockFile != null;
+    }
+}
@@ -0,0 +1,82 @@
+package com.carlosoliveira.ecommerce.productcatalog.config;
+
+import com.carlosoliveira.ecommerce.common.events.CartEventContract;
+import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.DirectRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.amqp.DirectRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Splits cart events by product over {@code partitions} queues behind a consistent-hash exchange keyed on
+ * {@link CartEventContract#PARTITION_KEY_HEADER}. Each queue takes a single active consumer, so however many
+ * instances subscribe, one consumer cluster-wide handles a given product, one event at a time; when its instance goes
+ * away the broker hands the queue to the next one waiting.
+ * <p>
+ * Requires the {@code rabbitmq_consistent_hash_exchange} plugin. Changing {@code partitions} moves products
+ * between queues, so drain the old queues first.
+ * <p>
+ * The queues dead-letter rejected events to {@code cart_events_dlq}. They replace the
+ * {@code cart_events_partition_*} queues, which were declared without dead-letter arguments and cannot be
+ * redeclared with them; drain and delete those once this version is consuming.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product-catalog.cart-events.listener-mode", havingValue = "partitioned")
+public class PartitionedCartEventsConfig {
+
+    @Bean
+    public String[] cartEventPartitionQueues(CartEventsProperties properties) {
+        return IntStream.range(0, properties.partitions())
+                .mapToObj(partition -> RabbitMQConfig.CART_EVENTS_PARTITION_QUEUE_PREFIX + partition)
+                .toArray(String[]::new);
+    }
+
+    @Bean
+    public Declarables cartEventPartitions(String[] cartEventPartitionQueues, TopicExchange cartEventsExchange) {
+        Exchange partitioned = new CustomExchange(
+                RabbitMQConfig.CART_EVENTS_PARTITIONED_EXCHANGE,
+                "x-consistent-hash",
+                true,
+                false,
+                Map.of("hash-header", CartEventContract.PARTITION_KEY_HEADER)
+        );
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(partitioned);
+        declarables.add(BindingBuilder.bind(partitioned).to(cartEventsExchange).with(RabbitMQConfig.CART_ROUTING_KEY_PATTERN));
+        for (String name : cartEventPartitionQueues) {
+            Queue queue = QueueBuilder.durable(name)
+                    .singleActiveConsumer()
+                    .deadLetterExchange("")
+                    .deadLetterRoutingKey(RabbitMQConfig.CART_EVENTS_DLQ)
+                    .build();
+            declarables.add(queue);
+            // the routing key of a consistent-hash binding is the queue's weight
+            declarables.add(BindingBuilder.bind(queue).to(partitioned).with("1").noargs());
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * One consumer per partition queue, each handling its deliveries one at a time and acknowledging them itself.
+     */
+    @Bean(name = RabbitMQConfig.PARTITIONED_LISTENER_CONTAINER_FACTORY)
+    public DirectRabbitListenerContainerFactory partitionedListenerContainerFactory(
+            DirectRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter) {
+        DirectRabbitListenerContainerFactory factory = new DirectRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setConsumersPerQueue(1);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+}
@@ -0,0 +1,12 @@
+package com.carlosoliveira.ecommerce.productcatalog.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "product-catalog.cache")
+public record ProductCacheProperties(
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("30s") Duration timeToLive
+) {}
@@ -0,0 +1,11 @@
+package com.carlosoliveira.ecommerce.productcatalog.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "product-catalog.rpc")
+public record ProductRpcProperties(
+        @DefaultValue("4") int concurrentConsumers,
+        @DefaultValue("16") int maxConcurrentConsumers,
+        @DefaultValue("50") int prefetch
+) {}
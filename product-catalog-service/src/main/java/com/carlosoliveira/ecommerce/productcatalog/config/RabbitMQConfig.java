@@ -1,38 +1,98 @@
 package com.carlosoliveira.ecommerce.productcatalog.config;
 
+import com.carlosoliveira.ecommerce.common.events.BinaryEventMessageConverter;
+import com.carlosoliveira.ecommerce.common.events.CartEventContract;
+import com.carlosoliveira.ecommerce.common.events.EventSchemaRegistry;
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartCheckedOutEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartClearedEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartItemQuantityUpdatedEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.GetProductDetailsWithStockRequest;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.GetProductsDetailsWithStockRequest;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ItemAddedToCartEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ItemRemovedFromCartEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductDetailsWithStockResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductsDetailsWithStockResponse;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Map;
+
 @Configuration
 public class RabbitMQConfig {
 
     public static final String CART_EVENTS_EXCHANGE = "cart_events_exchange";
     public static final String CART_EVENTS_QUEUE = "cart_events_queue";
-    public static final String CART_ROUTING_KEY_PATTERN = "cart.*";
+    public static final String CART_EVENTS_BATCH_QUEUE = "cart_events_batch_queue";
+    public static final String CART_ROUTING_KEY_PATTERN = "cart.#";
+    public static final String CART_EVENTS_DLQ = "cart_events_dlq";
+    public static final String CART_EVENTS_PARTITIONED_EXCHANGE = "cart_events_partitioned";
+    public static final String CART_EVENTS_PARTITION_QUEUE_PREFIX = "cart_events_partitioned_";
+    public static final String PARTITIONED_LISTENER_CONTAINER_FACTORY = "partitionedListenerContainerFactory";
+    public static final String BATCH_LISTENER_CONTAINER_FACTORY = "batchListenerContainerFactory";
+    public static final String PRODUCT_RPC_QUEUE = "product_queue";
+    public static final String RPC_LISTENER_CONTAINER_FACTORY = "rpcListenerContainerFactory";
+
+    // Only the single listener reads cart_events_queue; other modes would leave it filling up unread
+    private static final String LISTENER_MODE = "product-catalog.cart-events.listener-mode";
+
+    // __TypeId__ values of the product_queue contract, so callers do not depend on our class names
+    public static final String PRODUCT_STOCK_QUERY_TYPE = "productStockQuery";
+    public static final String PRODUCT_STOCK_BATCH_QUERY_TYPE = "productStockBatchQuery";
+    public static final String PRODUCT_STOCK_RESULT_TYPE = "productStockResult";
+    public static final String PRODUCT_STOCK_BATCH_RESULT_TYPE = "productStockBatchResult";
 
     @Bean
     public Queue productRpcQueue() {
-        return new Queue("product_queue", false);
+        return new Queue(PRODUCT_RPC_QUEUE, false);
     }
 
     @Bean
+    @ConditionalOnProperty(name = LISTENER_MODE, havingValue = "single", matchIfMissing = true)
     public Queue cartEventsQueue() {
         return new Queue(CART_EVENTS_QUEUE, true, false, false);
     }
 
+    /**
+     * The batch listener's own queue, so its dead-lettering arguments never have to be added to an existing
+     * {@code cart_events_queue}, which the broker refuses. Messages rejected without requeueing are
+     * dead-lettered to {@code cart_events_dlq} with their headers and message id intact. When moving from
+     * single mode, let {@code cart_events_queue} drain before deleting it.
+     */
+    @Bean
+    @ConditionalOnProperty(name = LISTENER_MODE, havingValue = "batch")
+    public Queue cartEventsBatchQueue() {
+        return QueueBuilder.durable(CART_EVENTS_BATCH_QUEUE)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(CART_EVENTS_DLQ)
+                .build();
+    }
+
+    @Bean
+    public Queue cartEventsDeadLetterQueue() {
+        return new Queue(CART_EVENTS_DLQ, true, false, false);
+    }
+
     @Bean
     public TopicExchange cartEventsExchange() {
         return new TopicExchange(CART_EVENTS_EXCHANGE, true, false);
     }
 
     @Bean
+    @ConditionalOnProperty(name = LISTENER_MODE, havingValue = "single", matchIfMissing = true)
     public Binding cartEventsBinding(Queue cartEventsQueue, TopicExchange cartEventsExchange) {
         return BindingBuilder.bind(cartEventsQueue)
                 .to(cartEventsExchange)
@@ -40,8 +100,41 @@ public class RabbitMQConfig {
     }
 
     @Bean
-    public Jackson2JsonMessageConverter messageConverter() {
-        return new Jackson2JsonMessageConverter();
+    @ConditionalOnProperty(name = LISTENER_MODE, havingValue = "batch")
+    public Binding cartEventsBatchBinding(Queue cartEventsBatchQueue, TopicExchange cartEventsExchange) {
+        return BindingBuilder.bind(cartEventsBatchQueue)
+                .to(cartEventsExchange)
+                .with(CART_ROUTING_KEY_PATTERN);
+    }
+
+    /**
+     * Cart events arrive in the binary form shared through {@code common-api}, or as JSON from a cart
+     * service still writing it; the content type decides. JSON cart events are typed by their contract
+     * name, as binary ones are. The RPC contract stays JSON.
+     */
+    @Bean
+    public MessageConverter messageConverter() {
+        DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+        typeMapper.setIdClassMapping(Map.of(
+                PRODUCT_STOCK_QUERY_TYPE, GetProductDetailsWithStockRequest.class,
+                PRODUCT_STOCK_BATCH_QUERY_TYPE, GetProductsDetailsWithStockRequest.class,
+                PRODUCT_STOCK_RESULT_TYPE, ProductDetailsWithStockResponse.class,
+                PRODUCT_STOCK_BATCH_RESULT_TYPE, ProductsDetailsWithStockResponse.class,
+                CartEventContract.ITEM_ADDED, ItemAddedToCartEvent.class,
+                CartEventContract.ITEM_QUANTITY_UPDATED, CartItemQuantityUpdatedEvent.class,
+                CartEventContract.ITEM_REMOVED, ItemRemovedFromCartEvent.class,
+                CartEventContract.CHECKED_OUT, CartCheckedOutEvent.class,
+                CartEventContract.CLEARED, CartClearedEvent.class
+        ));
+        Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter();
+        json.setJavaTypeMapper(typeMapper);
+        EventSchemaRegistry cartEvents = new EventSchemaRegistry()
+                .register(CartEventContract.ITEM_ADDED, 1, ItemAddedToCartEvent.class)
+                .register(CartEventContract.ITEM_QUANTITY_UPDATED, 1, CartItemQuantityUpdatedEvent.class)
+                .register(CartEventContract.ITEM_REMOVED, 1, ItemRemovedFromCartEvent.class)
+                .register(CartEventContract.CHECKED_OUT, 1, CartCheckedOutEvent.class)
+                .register(CartEventContract.CLEARED, 1, CartClearedEvent.class);
+        return new BinaryEventMessageConverter(cartEvents, json);
     }
 
     @Bean
@@ -50,4 +143,45 @@ public class RabbitMQConfig {
         template.setMessageConverter(messageConverter());
         return template;
     }
+
+    /**
+     * Batch listeners acknowledge each message themselves, so one event can be dead-lettered while the
+     * rest of its batch is acknowledged.
+     */
+    @Bean(name = BATCH_LISTENER_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            CartEventsProperties properties) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(messageConverter());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setBatchSize(properties.batchSize());
+        factory.setReceiveTimeout(properties.batchReceiveTimeout().toMillis());
+        factory.setPrefetchCount(Math.max(properties.batchSize(), 250));
+        return factory;
+    }
+
+    /**
+     * Replies go straight to the caller's reply-to address, which for direct reply-to is the
+     * pseudo-queue {@code amq.rabbitmq.reply-to}, so no per-call queue is ever declared.
+     * Malformed requests are dropped rather than requeued; the caller times out.
+     */
+    @Bean(name = RPC_LISTENER_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory rpcListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            ProductRpcProperties properties) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(messageConverter());
+        factory.setConcurrentConsumers(properties.concurrentConsumers());
+        factory.setMaxConcurrentConsumers(properties.maxConcurrentConsumers());
+        factory.setPrefetchCount(properties.prefetch());
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
 }
@@ -0,0 +1,29 @@
+package com.carlosoliveira.ecommerce.productcatalog.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "product-catalog.reservation")
+public record ReservationProperties(
+        @DefaultValue("optimistic") String mode,
+        @DefaultValue InMemory inMemory,
+        @DefaultValue Buckets buckets
+) {
+    public record InMemory(
+            @DefaultValue("500ms") Duration flushInterval,
+            @DefaultValue("500") int flushBatchSize
+    ) {}
+
+    /**
+     * @param layoutTtl      how long an instance trusts the bucket count it read for a product; a reshard made
+     *                       elsewhere is seen within this time, and until then reservations of the product
+     *                       are rejected rather than oversold
+     * @param cachedLayouts  products whose bucket count is kept in memory
+     */
+    public record Buckets(
+            @DefaultValue("5s") Duration layoutTtl,
+            @DefaultValue("10000") int cachedLayouts
+    ) {}
+}
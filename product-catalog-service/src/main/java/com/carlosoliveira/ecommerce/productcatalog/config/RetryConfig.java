@@ -1,9 +1,21 @@
 package com.carlosoliveira.ecommerce.productcatalog.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.retry.support.MetricsRetryListener;
 
 @Configuration
 @EnableRetry
 public class RetryConfig {
+
+    /**
+     * Applies to every {@code @Retryable} method: {@code spring.retry} times each call, tagged with the
+     * attempts it took and the exception it finally gave up on, if any.
+     */
+    @Bean
+    public MetricsRetryListener retryMetricsListener(MeterRegistry meterRegistry) {
+        return new MetricsRetryListener(meterRegistry);
+    }
 }
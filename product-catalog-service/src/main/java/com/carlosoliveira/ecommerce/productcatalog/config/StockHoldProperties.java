@@ -0,0 +1,26 @@
+package com.carlosoliveira.ecommerce.productcatalog.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param ttl               how long a cart keeps stock it has not checked out
+ * @param tick              resolution of the expiry wheel; holds are released up to one tick late
+ * @param slotBits          log2 of the slots per wheel level
+ * @param levels            wheel levels; {@code tick * 2^(slotBits * levels)} is the longest span filed without overflow
+ * @param releaseBatchSize  expired holds released per transaction
+ * @param expire            whether holds give their stock back after {@code ttl}; while off, stock taken by
+ *                          a cart stays taken unless the cart gives it back, as before holds existed. Only
+ *                          a checkout confirms a hold, so leave it off until carts publish their checkouts
+ */
+@ConfigurationProperties(prefix = "product-catalog.holds")
+public record StockHoldProperties(
+        @DefaultValue("15m") Duration ttl,
+        @DefaultValue("1s") Duration tick,
+        @DefaultValue("6") int slotBits,
+        @DefaultValue("4") int levels,
+        @DefaultValue("500") int releaseBatchSize,
+        @DefaultValue("false") boolean expire
+) {}
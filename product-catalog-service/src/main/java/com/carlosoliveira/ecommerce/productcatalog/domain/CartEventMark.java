@@ -0,0 +1,97 @@
+package com.carlosoliveira.ecommerce.productcatalog.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Which sequences of a cart's events have been applied: all of them up to {@code highWater}, and those of
+ * the {@value Window#SIZE} sequences above it whose bit is set in {@code appliedAbove}. Bit {@code i} stands
+ * for sequence {@code highWater + 1 + i}.
+ */
+@Entity
+@Table(name = "cart_event_marks", indexes = @Index(columnList = "updated_at"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CartEventMark {
+
+    @Id
+    @Column(name = "cart_id")
+    private UUID cartId;
+
+    @Column(name = "high_water", nullable = false)
+    private long highWater;
+
+    @Column(name = "applied_above", nullable = false)
+    private long appliedAbove;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    /**
+     * A mark with nothing applied yet.
+     */
+    public CartEventMark(UUID cartId, Instant now) {
+        this.cartId = cartId;
+        this.updatedAt = now;
+    }
+
+    public Window window() {
+        return new Window(highWater, appliedAbove);
+    }
+
+    /**
+     * Marks the sequence applied.
+     */
+    public void record(long sequence, Instant now) {
+        Window next = window().with(sequence);
+        this.highWater = next.highWater();
+        this.appliedAbove = next.appliedAbove();
+        this.updatedAt = now;
+    }
+
+    /**
+     * A cart's applied sequences. Sequences are consecutive, so the mark moves up as soon as the gap below
+     * a sequence fills. A sequence arriving more than {@link #SIZE} above the mark moves it up regardless,
+     * giving up on the sequences that are still missing below; should one of them turn up after all, it is
+     * taken for stale.
+     */
+    public record Window(long highWater, long appliedAbove) {
+
+        public static final int SIZE = Long.SIZE;
+
+        public boolean isApplied(long sequence) {
+            long offset = sequence - highWater - 1;
+            return offset < 0 || offset < SIZE && (appliedAbove & 1L << offset) != 0;
+        }
+
+        /**
+         * Whether an earlier sequence of the cart is still missing.
+         */
+        public boolean isAhead(long sequence) {
+            return sequence > highWater + 1;
+        }
+
+        public Window with(long sequence) {
+            long mark = highWater;
+            long above = appliedAbove;
+            long offset = sequence - mark - 1;
+            if (offset < 0) {
+                return this;
+            }
+            if (offset >= SIZE) {
+                long slide = offset - SIZE + 1;
+                above = slide >= SIZE ? 0 : above >>> slide;
+                mark += slide;
+                offset = SIZE - 1;
+            }
+            above |= 1L << offset;
+            int filled = Long.numberOfTrailingZeros(~above);
+            return new Window(mark + filled, filled == SIZE ? 0 : above >>> filled);
+        }
+    }
+}
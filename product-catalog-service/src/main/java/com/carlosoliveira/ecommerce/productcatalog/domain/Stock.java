@@ -34,10 +34,18 @@ public class Stock {
     }
 
     public Stock increment(int amount) {
+        requireValidIncrement(amount);
+        return new Stock(this.quantity + amount);
+    }
+
+    /**
+     * Restocking only ever adds: an increment must be zero or more. Taking stock away goes through
+     * {@link #decrement(int)}, which also checks there is enough of it.
+     */
+    public static void requireValidIncrement(int amount) {
         if (amount < 0) {
             throw new IllegalArgumentException("Increment amount cannot be negative.");
         }
-        return new Stock(this.quantity + amount);
     }
 
     public boolean isAvailable(int amount) {
@@ -0,0 +1,80 @@
+package com.carlosoliveira.ecommerce.productcatalog.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One slice of a hot product's stock. A sharded product keeps its stock in N buckets
+ * so concurrent reservations land on different rows and versions.
+ */
+@Entity
+@Table(
+        name = "stock_buckets",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "bucket_index"})
+)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StockBucket {
+
+    @Id
+    @Column(updatable = false)
+    private UUID id;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private UUID productId;
+
+    @Column(name = "bucket_index", nullable = false, updatable = false)
+    private int bucketIndex;
+
+    @Embedded
+    private Stock stock;
+
+    @Version
+    private Long version;
+
+    public StockBucket(UUID productId, int bucketIndex, Stock stock) {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product ID cannot be null.");
+        }
+        if (bucketIndex < 0) {
+            throw new IllegalArgumentException("Bucket index cannot be negative.");
+        }
+        if (stock == null) {
+            throw new IllegalArgumentException("Bucket stock cannot be null.");
+        }
+        this.id = UUID.randomUUID();
+        this.productId = productId;
+        this.bucketIndex = bucketIndex;
+        this.stock = stock;
+    }
+
+    /**
+     * Spreads {@code total} as evenly as possible over {@code bucketCount} buckets,
+     * giving the remainder to the lowest indexes.
+     */
+    public static List<StockBucket> split(UUID productId, int total, int bucketCount) {
+        if (bucketCount < 1) {
+            throw new IllegalArgumentException("Bucket count must be at least 1.");
+        }
+        if (total < 0) {
+            throw new IllegalArgumentException("Stock quantity cannot be negative.");
+        }
+        List<StockBucket> buckets = new ArrayList<>(bucketCount);
+        int share = total / bucketCount;
+        int remainder = total % bucketCount;
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new StockBucket(productId, i, new Stock(share + (i < remainder ? 1 : 0))));
+        }
+        return buckets;
+    }
+
+    public void decrementStock(int amount) {
+        this.stock = this.stock.decrement(amount);
+    }
+}
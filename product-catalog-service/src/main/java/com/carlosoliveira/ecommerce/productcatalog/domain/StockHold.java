@@ -0,0 +1,88 @@
+package com.carlosoliveira.ecommerce.productcatalog.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Stock taken out of a product on behalf of a cart until {@code expiresAt}. There is at most
+ * one hold per cart and product; adding more of the same product grows it and renews its expiry.
+ */
+@Entity
+@Table(
+        name = "stock_holds",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"cart_id", "product_id"}),
+        indexes = @Index(columnList = "expires_at")
+)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StockHold {
+
+    @Id
+    @Column(updatable = false)
+    private UUID id;
+
+    @Column(name = "cart_id", nullable = false, updatable = false)
+    private UUID cartId;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private UUID productId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public StockHold(UUID cartId, UUID productId, int quantity, Instant expiresAt) {
+        if (cartId == null) {
+            throw new IllegalArgumentException("Cart ID cannot be null.");
+        }
+        if (productId == null) {
+            throw new IllegalArgumentException("Product ID cannot be null.");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Hold quantity must be positive.");
+        }
+        if (expiresAt == null) {
+            throw new IllegalArgumentException("Hold expiry cannot be null.");
+        }
+        this.id = UUID.randomUUID();
+        this.cartId = cartId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    public void extend(int amount, Instant newExpiresAt) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Hold quantity must be positive.");
+        }
+        this.quantity += amount;
+        if (newExpiresAt.isAfter(this.expiresAt)) {
+            this.expiresAt = newExpiresAt;
+        }
+    }
+
+    /**
+     * Gives back up to {@code amount} of the held quantity; a hold never goes below zero.
+     *
+     * @return the quantity actually given back
+     */
+    public int shrink(int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Released quantity must be positive.");
+        }
+        int released = Math.min(amount, this.quantity);
+        this.quantity -= released;
+        return released;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,96 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.cache;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductCacheStatsResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductDetailsResponse;
+import com.carlosoliveira.ecommerce.productcatalog.config.ProductCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of product details, keyed by product id.
+ * <p>
+ * Writers evict after their transaction commits. For {@link #get}, an eviction that races with a load
+ * waits for the load and removes its result, so no entry outlives a committed write of its product.
+ * {@link #getAll} gives no such guarantee: its loader runs outside the per-key locks, so a write that
+ * commits while a bulk load is reading can be overwritten by what the load read, and that stale entry
+ * stays until the next eviction of the product or until {@code timeToLive} passes. Entries carry the
+ * product version they were read at, but nothing here compares it.
+ */
+@Component
+public class ProductCache {
+
+    private final Cache<UUID, ProductDetailsResponse> cache;
+
+    public ProductCache(ProductCacheProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.timeToLive())
+                .recordStats()
+                .build();
+    }
+
+    public ProductDetailsResponse get(UUID productId, Function<UUID, ProductDetailsResponse> loader) {
+        return cache.get(productId, loader);
+    }
+
+    /**
+     * Returns the cached entries for {@code productIds} and loads all the missing ones with a single
+     * call to {@code loader}. Ids the loader does not return are left out of the result. What the loader
+     * returns may be cached even if a write evicted those products while it ran; see the class comment.
+     */
+    public Map<UUID, ProductDetailsResponse> getAll(
+            Collection<UUID> productIds,
+            Function<Set<? extends UUID>, Map<UUID, ProductDetailsResponse>> loader) {
+        return cache.getAll(productIds, loader);
+    }
+
+    public void evict(UUID productId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(productId);
+                }
+            });
+        } else {
+            cache.invalidate(productId);
+        }
+    }
+
+    /**
+     * Drops every entry after the current transaction commits, for bulk writes that do not know their ids.
+     */
+    public void evictAll() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidateAll();
+                }
+            });
+        } else {
+            cache.invalidateAll();
+        }
+    }
+
+    public ProductCacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return new ProductCacheStatsResponse(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate()
+        );
+    }
+}
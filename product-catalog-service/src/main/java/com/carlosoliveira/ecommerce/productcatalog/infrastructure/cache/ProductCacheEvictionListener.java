@@ -0,0 +1,34 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.cache;
+
+import com.carlosoliveira.ecommerce.productcatalog.domain.Product;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts a product from {@link ProductCache} whenever Hibernate writes a change to it,
+ * such as a new price or name. Bulk JPQL/JDBC updates bypass this and evict explicitly.
+ * <p>
+ * Registered for {@code Product} in {@code META-INF/orm.xml}, which keeps the domain model free of it.
+ */
+@Component
+public class ProductCacheEvictionListener {
+
+    private final ObjectProvider<ProductCache> productCache;
+
+    public ProductCacheEvictionListener(ObjectProvider<ProductCache> productCache) {
+        this.productCache = productCache;
+    }
+
+    // One method per event: Hibernate keeps only one of the events a single method is registered for
+    public void onProductUpdated(Product product) {
+        evict(product);
+    }
+
+    public void onProductRemoved(Product product) {
+        evict(product);
+    }
+
+    private void evict(Product product) {
+        productCache.ifAvailable(cache -> cache.evict(product.getId()));
+    }
+}
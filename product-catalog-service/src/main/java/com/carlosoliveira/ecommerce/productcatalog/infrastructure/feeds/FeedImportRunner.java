@@ -0,0 +1,69 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.feeds;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.FeedImportResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.FeedFormat;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.FeedImportService;
+import com.carlosoliveira.ecommerce.productcatalog.config.FeedImportProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BiFunction;
+
+/**
+ * Batch mode: imports the configured feed files, products first. Only loaded in the {@value #PROFILE} profile,
+ * where {@code main} shuts the application down afterwards with this runner's exit code: 1 if any row was
+ * rejected or no file is configured, 0 otherwise.
+ */
+@Slf4j
+@Component
+@Profile(FeedImportRunner.PROFILE)
+@RequiredArgsConstructor
+public class FeedImportRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    public static final String PROFILE = "feed-import";
+
+    private final FeedImportProperties properties;
+    private final FeedImportService feedImportService;
+
+    private int exitCode;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!properties.enabled()) {
+            log.error("No feed files configured, set product-catalog.feed-import.products-file or stock-file");
+            exitCode = 1;
+            return;
+        }
+        boolean failed = false;
+        if (properties.productsFile() != null) {
+            failed |= importFile(properties.productsFile(), feedImportService::importProducts);
+        }
+        if (properties.stockFile() != null) {
+            failed |= importFile(properties.stockFile(), feedImportService::importStockDeltas);
+        }
+        exitCode = failed ? 1 : 0;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private boolean importFile(Path file, BiFunction<InputStream, FeedFormat, FeedImportResponse> importer) throws IOException {
+        try (InputStream feed = Files.newInputStream(file)) {
+            FeedImportResponse response = importer.apply(feed, FeedFormat.fromFileName(file.getFileName().toString()));
+            log.info("Imported {}: {}", file, response);
+            response.errors().forEach(error -> log.warn("{}: {}", file, error));
+            return response.rowsRejected() > 0;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.messaging.listeners;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.dedupe.CartEventDeduplicator;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEventBatchOutcome;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEventDelivery;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.StockAdjustment;
+import com.carlosoliveira.ecommerce.productcatalog.application.errors.StockReservationException;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.StockHoldService;
+import com.carlosoliveira.ecommerce.productcatalog.config.RabbitMQConfig;
+import com.rabbitmq.client.Channel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Drains {@code cart_events_batch_queue} in batches and applies each product's net stock change once.
+ * Events applied before are dropped first.
+ * <p>
+ * When a product cannot cover its net change, its adjustments are replayed one event at a time in
+ * arrival order. An event that still does not fit had nothing applied and holds no claim; it is rejected
+ * without requeueing and the broker dead-letters it to {@code cart_events_dlq} with its own sequence, so
+ * sending it back applies it once, unless so many later events of its cart were applied meanwhile that it
+ * counts as stale. Acknowledgements are manual and only sent once the stock changes have
+ * committed; if the batch cannot be applied at all, it is requeued as a whole.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "product-catalog.cart-events.listener-mode", havingValue = "batch")
+public class BatchCartEventListener {
+
+    private final StockHoldService stockHoldService;
+    private final CartEventDeduplicator deduplicator;
+
+    public BatchCartEventListener(StockHoldService stockHoldService, CartEventDeduplicator deduplicator) {
+        this.stockHoldService = stockHoldService;
+        this.deduplicator = deduplicator;
+    }
+
+    @RabbitListener(
+            queues = RabbitMQConfig.CART_EVENTS_BATCH_QUEUE,
+            containerFactory = RabbitMQConfig.BATCH_LISTENER_CONTAINER_FACTORY
+    )
+    public void handleCartEvents(List<Message<CartEvent>> messages, Channel channel) throws IOException {
+        log.info("Received batch of {} cart events", messages.size());
+        long lastTag = deliveryTag(messages.getLast());
+
+        Map<CartEventDelivery, Long> deliveryTags = new IdentityHashMap<>();
+        List<CartEventDelivery> deliveries = new ArrayList<>(messages.size());
+        for (Message<CartEvent> message : messages) {
+            CartEventDelivery delivery = CartEventDeliveries.of(message);
+            if (!deduplicator.isDuplicate(delivery)) {
+                deliveries.add(delivery);
+                deliveryTags.put(delivery, deliveryTag(message));
+            }
+        }
+        if (deliveries.isEmpty()) {
+            channel.basicAck(lastTag, true);
+            return;
+        }
+
+        CartEventBatchOutcome outcome;
+        try {
+            outcome = stockHoldService.applyAll(deliveries);
+        } catch (RuntimeException e) {
+            log.warn("Could not apply batch of {} cart events, requeueing it: {}", messages.size(), e.getMessage());
+            channel.basicNack(lastTag, true, true);
+            return;
+        }
+
+        Set<Long> settled = new HashSet<>();
+        for (CartEventDelivery delivery : outcome.fresh()) {
+            List<StockAdjustment> leftOut = outcome.leftOut(delivery);
+            if (leftOut.isEmpty()) {
+                continue;
+            }
+            long tag = deliveryTags.get(delivery);
+            if (outcome.isUnapplied(delivery)) {
+                if (!applyAlone(delivery, tag, channel)) {
+                    settled.add(tag);
+                }
+            } else {
+                replayLeftOut(delivery, leftOut);
+            }
+        }
+
+        if (settled.isEmpty()) {
+            channel.basicAck(lastTag, true);
+            return;
+        }
+        for (Message<CartEvent> message : messages) {
+            long tag = deliveryTag(message);
+            if (!settled.contains(tag)) {
+                channel.basicAck(tag, false);
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} if the message was rejected or requeued instead of applied
+     */
+    private boolean applyAlone(CartEventDelivery delivery, long tag, Channel channel) throws IOException {
+        try {
+            stockHoldService.apply(delivery);
+            return true;
+        } catch (StockReservationException e) {
+            log.warn("Could not adjust stock for Cart ID: {}, dead-lettering event to {}: {}",
+                    delivery.event().cartId(), RabbitMQConfig.CART_EVENTS_DLQ, e.getMessage());
+            channel.basicReject(tag, false);
+        } catch (RuntimeException e) {
+            log.warn("Could not apply cart event {}, requeueing it: {}", delivery.eventId(), e.getMessage());
+            channel.basicNack(tag, false, true);
+        }
+        return false;
+    }
+
+    /**
+     * Replays the left out part of an event whose other adjustments are applied already. Only releases span
+     * several products and releases are never rejected, so this only fails when the database does.
+     */
+    private void replayLeftOut(CartEventDelivery delivery, List<StockAdjustment> leftOut) {
+        try {
+            stockHoldService.adjust(leftOut);
+        } catch (RuntimeException e) {
+            log.error("Lost stock adjustments {} of cart event {}, the rest of it is applied: {}",
+                    leftOut, delivery.eventId(), e.getMessage());
+        }
+    }
+
+    private long deliveryTag(Message<?> message) {
+        return message.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class);
+    }
+}
@@ -0,0 +1,25 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.messaging.listeners;
+
+import com.carlosoliveira.ecommerce.common.events.CartEventContract;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEventDelivery;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+
+/**
+ * Reads the identity of a cart event from the headers the cart publishes it with.
+ */
+final class CartEventDeliveries {
+
+    private CartEventDeliveries() {
+    }
+
+    static CartEventDelivery of(Message<? extends CartEvent> message) {
+        Number sequence = message.getHeaders().get(CartEventContract.SEQUENCE_HEADER, Number.class);
+        return new CartEventDelivery(
+                message.getPayload(),
+                message.getHeaders().get(AmqpHeaders.MESSAGE_ID, String.class),
+                sequence == null ? null : sequence.longValue()
+        );
+    }
+}
@@ -1,26 +1,35 @@
 package com.carlosoliveira.ecommerce.productcatalog.infrastructure.messaging.listeners;
 
-import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ItemAddedToCartEvent;
-import com.carlosoliveira.ecommerce.productcatalog.application.services.ProductService;
+import com.carlosoliveira.ecommerce.productcatalog.application.dedupe.CartEventDeduplicator;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEventDelivery;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.StockHoldService;
 import com.carlosoliveira.ecommerce.productcatalog.config.RabbitMQConfig;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 
 @Component
 @Slf4j
+@ConditionalOnProperty(name = "product-catalog.cart-events.listener-mode", havingValue = "single", matchIfMissing = true)
 public class CartEventListener {
 
-    private final ProductService productService;
+    private final StockHoldService stockHoldService;
+    private final CartEventDeduplicator deduplicator;
 
-    public CartEventListener(ProductService productService) {
-        this.productService = productService;
+    public CartEventListener(StockHoldService stockHoldService, CartEventDeduplicator deduplicator) {
+        this.stockHoldService = stockHoldService;
+        this.deduplicator = deduplicator;
     }
 
     @RabbitListener(queues = RabbitMQConfig.CART_EVENTS_QUEUE)
-    public void handleItemAddedToCartEvent(@Payload ItemAddedToCartEvent event) {
-        log.info("Received ItemAddedToCartEvent for Product ID: {}", event.productId());
-        productService.reserveStock(event.productId(), event.quantity());
+    public void handleCartEvent(Message<CartEvent> message) {
+        CartEventDelivery delivery = CartEventDeliveries.of(message);
+        log.info("Received {} for Cart ID: {}", delivery.event().getClass().getSimpleName(), delivery.event().cartId());
+        if (deduplicator.isDuplicate(delivery) || !stockHoldService.apply(delivery)) {
+            log.debug("Dropped cart event {}, already applied", delivery.eventId());
+        }
     }
 }
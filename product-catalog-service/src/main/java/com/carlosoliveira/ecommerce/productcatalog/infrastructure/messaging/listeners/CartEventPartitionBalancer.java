@@ -0,0 +1,114 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.messaging.listeners;
+
+import com.carlosoliveira.ecommerce.productcatalog.config.CartEventsProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands partitions to instances that joined after ownership was settled. Single active consumer moves a
+ * partition only when its owner goes away, so a new instance would otherwise sit idle.
+ * <p>
+ * Every instance subscribes to every partition, so a partition queue's consumer count is the number of
+ * instances. An instance that has had deliveries from more than its share of partitions since the last
+ * round re-subscribes to the excess ones, which puts it at the back of their line and makes the next
+ * waiting instance their owner. Messages it has not acknowledged yet are redelivered to the new owner.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "product-catalog.cart-events.listener-mode", havingValue = "partitioned")
+public class CartEventPartitionBalancer implements SmartLifecycle {
+
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final AmqpAdmin amqpAdmin;
+    private final CartEventsProperties properties;
+    private final Set<String> activeSinceLastRound = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public CartEventPartitionBalancer(
+            RabbitListenerEndpointRegistry listenerRegistry,
+            AmqpAdmin amqpAdmin,
+            CartEventsProperties properties) {
+        this.listenerRegistry = listenerRegistry;
+        this.amqpAdmin = amqpAdmin;
+        this.properties = properties;
+    }
+
+    void delivered(String partition) {
+        activeSinceLastRound.add(partition);
+    }
+
+    /**
+     * @return the partitions given up this round
+     */
+    List<String> rebalance() {
+        List<String> owned = new ArrayList<>(activeSinceLastRound);
+        activeSinceLastRound.removeAll(owned);
+        if (owned.isEmpty()) {
+            return List.of();
+        }
+        QueueInformation info = amqpAdmin.getQueueInfo(owned.getFirst());
+        int instances = info == null ? 1 : Math.max(1, info.getConsumerCount());
+        int share = (properties.partitions() + instances - 1) / instances;
+        if (owned.size() <= share) {
+            return List.of();
+        }
+
+        Collections.sort(owned);
+        List<String> excess = owned.subList(share, owned.size());
+        DirectMessageListenerContainer container =
+                (DirectMessageListenerContainer) listenerRegistry.getListenerContainer(PartitionedCartEventListener.LISTENER_ID);
+        for (String partition : excess) {
+            container.removeQueueNames(partition);
+            container.addQueueNames(partition);
+        }
+        log.info("Owned {} of {} cart event partitions with {} instances, handed off {}",
+                owned.size(), properties.partitions(), instances, excess);
+        return List.copyOf(excess);
+    }
+
+    @Override
+    public void start() {
+        long intervalMs = properties.rebalanceInterval().toMillis();
+        if (intervalMs > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "cart-partition-balancer"));
+            scheduler.scheduleWithFixedDelay(this::rebalanceQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void rebalanceQuietly() {
+        try {
+            rebalance();
+        } catch (RuntimeException e) {
+            log.warn("Cart event partition rebalance failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.messaging.listeners;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.dedupe.CartEventDeduplicator;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEventDelivery;
+import com.carlosoliveira.ecommerce.productcatalog.application.errors.StockReservationException;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.StockHoldService;
+import com.carlosoliveira.ecommerce.productcatalog.config.RabbitMQConfig;
+import com.rabbitmq.client.Channel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Consumes the cart event partitions. Each partition is handled by one consumer at a time cluster-wide,
+ * so the events of a product are applied one at a time, in the order they arrive. A cart clear is keyed on
+ * the cart rather than a product and may overtake an earlier event of one of its products in another
+ * partition; stock that misses its release that way comes back when the hold expires.
+ * <p>
+ * Acknowledgements are manual and only sent once the stock change has committed. An event whose stock is
+ * short is rejected without requeueing and the broker dead-letters it to {@code cart_events_dlq} as it was
+ * delivered, headers and sequence included, so sending it back applies it once, unless so many later events
+ * of its cart were applied meanwhile that it counts as stale. Any other failure requeues
+ * the event, holding up its partition until the cause clears rather than dropping it out of order.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "product-catalog.cart-events.listener-mode", havingValue = "partitioned")
+public class PartitionedCartEventListener {
+
+    static final String LISTENER_ID = "partitionedCartEvents";
+
+    private final StockHoldService stockHoldService;
+    private final CartEventPartitionBalancer balancer;
+    private final CartEventDeduplicator deduplicator;
+
+    public PartitionedCartEventListener(
+            StockHoldService stockHoldService,
+            CartEventPartitionBalancer balancer,
+            CartEventDeduplicator deduplicator) {
+        this.stockHoldService = stockHoldService;
+        this.balancer = balancer;
+        this.deduplicator = deduplicator;
+    }
+
+    @RabbitListener(
+            id = LISTENER_ID,
+            queues = "#{cartEventPartitionQueues}",
+            containerFactory = RabbitMQConfig.PARTITIONED_LISTENER_CONTAINER_FACTORY
+    )
+    public void handleCartEvent(
+            Message<CartEvent> message,
+            @Header(AmqpHeaders.CONSUMER_QUEUE) String partition,
+            @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag,
+            Channel channel) throws IOException {
+        balancer.delivered(partition);
+        CartEventDelivery delivery = CartEventDeliveries.of(message);
+        if (deduplicator.isDuplicate(delivery)) {
+            log.debug("Dropped cart event {} from {}, already applied", delivery.eventId(), partition);
+            channel.basicAck(deliveryTag, false);
+            return;
+        }
+        try {
+            stockHoldService.apply(delivery);
+        } catch (StockReservationException e) {
+            log.warn("Could not adjust stock for Cart ID: {} from {}, dead-lettering event to {}: {}",
+                    delivery.event().cartId(), partition, RabbitMQConfig.CART_EVENTS_DLQ, e.getMessage());
+            channel.basicReject(deliveryTag, false);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Could not apply cart event {} from {}, requeueing it: {}", delivery.eventId(), partition, e.getMessage());
+            channel.basicNack(deliveryTag, false, true);
+            return;
+        }
+        channel.basicAck(deliveryTag, false);
+    }
+}
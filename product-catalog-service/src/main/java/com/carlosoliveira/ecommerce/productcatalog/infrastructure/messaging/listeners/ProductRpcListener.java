@@ -0,0 +1,68 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.messaging.listeners;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.GetProductDetailsWithStockRequest;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.GetProductsDetailsWithStockRequest;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductDetailsResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductDetailsWithStockResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductsDetailsWithStockResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.ProductService;
+import com.carlosoliveira.ecommerce.productcatalog.config.RabbitMQConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitHandler;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Request/reply server for {@code product_queue}. The return value is sent to the request's
+ * reply-to address with its correlation id.
+ * <p>
+ * A batch is answered item by item in request order, each item checked on its own. Unknown
+ * products come back with a {@code null} product and no stock.
+ */
+@Slf4j
+@Component
+@RabbitListener(queues = RabbitMQConfig.PRODUCT_RPC_QUEUE, containerFactory = RabbitMQConfig.RPC_LISTENER_CONTAINER_FACTORY)
+public class ProductRpcListener {
+
+    private final ProductService productService;
+
+    public ProductRpcListener(ProductService productService) {
+        this.productService = productService;
+    }
+
+    @RabbitHandler
+    public ProductDetailsWithStockResponse getProductDetailsWithStock(@Payload GetProductDetailsWithStockRequest request) {
+        return lookup(List.of(request)).getFirst();
+    }
+
+    @RabbitHandler
+    public ProductsDetailsWithStockResponse getProductsDetailsWithStock(@Payload GetProductsDetailsWithStockRequest request) {
+        List<GetProductDetailsWithStockRequest> items = request.items() == null ? List.of() : request.items();
+        log.debug("Received product stock query for {} items", items.size());
+        return new ProductsDetailsWithStockResponse(lookup(items));
+    }
+
+    private List<ProductDetailsWithStockResponse> lookup(List<GetProductDetailsWithStockRequest> items) {
+        List<UUID> ids = items.stream().map(GetProductDetailsWithStockRequest::productId).filter(Objects::nonNull).toList();
+        Map<UUID, ProductDetailsResponse> products = productService.getProducts(ids);
+        return items.stream()
+                .map(item -> {
+                    ProductDetailsResponse product = item.productId() == null ? null : products.get(item.productId());
+                    if (product == null) {
+                        return new ProductDetailsWithStockResponse(null, false, 0);
+                    }
+                    return new ProductDetailsWithStockResponse(
+                            product,
+                            product.stockQuantity() >= item.requiredQuantity(),
+                            product.stockQuantity()
+                    );
+                })
+                .toList();
+    }
+}
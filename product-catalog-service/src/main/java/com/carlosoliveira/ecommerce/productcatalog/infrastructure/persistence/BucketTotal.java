@@ -0,0 +1,9 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence;
+
+import java.util.UUID;
+
+public record BucketTotal(
+        UUID productId,
+        long buckets,
+        long quantity
+) {}
@@ -0,0 +1,39 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence;
+
+import com.carlosoliveira.ecommerce.productcatalog.domain.CartEventMark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CartEventMarkRepository extends JpaRepository<CartEventMark, UUID> {
+
+    /**
+     * Creates the cart's mark, with nothing applied, unless it exists.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO cart_event_marks (cart_id, high_water, applied_above, updated_at) " +
+            "VALUES (:cartId, 0, 0, :now) ON CONFLICT (cart_id) DO NOTHING",
+            nativeQuery = true)
+    int createIfAbsent(@Param("cartId") UUID cartId, @Param("now") Instant now);
+
+    /**
+     * The cart's mark, locked until the caller's transaction ends, so consumers applying events of the
+     * same cart take turns.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM CartEventMark m WHERE m.cartId = :cartId")
+    Optional<CartEventMark> lockByCartId(@Param("cartId") UUID cartId);
+
+    @Modifying
+    @Query("DELETE FROM CartEventMark m WHERE m.updatedAt < :cutoff")
+    int deleteUpdatedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,186 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * Loads feed rows into transaction-scoped staging tables through the PostgreSQL COPY protocol
+ * and merges them into {@code products} with one set-based statement.
+ * <p>
+ * Every method must run in the same transaction: the staging tables are dropped on commit.
+ */
+@Repository
+public class FeedStagingRepository {
+
+    private static final String CREATE_PRODUCT_STAGING_SQL = """
+            CREATE TEMP TABLE IF NOT EXISTS product_feed_staging (
+                line bigint NOT NULL,
+                id uuid NOT NULL,
+                name varchar(100) NOT NULL,
+                price_amount numeric(19, 4) NOT NULL,
+                price_currency varchar(3) NOT NULL,
+                quantity integer NOT NULL
+            ) ON COMMIT DROP
+            """;
+    private static final String COPY_PRODUCTS_SQL =
+            "COPY product_feed_staging (line, id, name, price_amount, price_currency, quantity) FROM STDIN WITH (FORMAT csv)";
+    private static final String MERGE_PRODUCTS_SQL = """
+            INSERT INTO products (id, name, price_amount, price_currency, quantity, version)
+            SELECT DISTINCT ON (id) id, name, price_amount, price_currency, quantity, 0
+            FROM product_feed_staging
+            ORDER BY id, line DESC
+            ON CONFLICT (id) DO UPDATE SET
+                name = EXCLUDED.name,
+                price_amount = EXCLUDED.price_amount,
+                price_currency = EXCLUDED.price_currency,
+                version = products.version + 1
+            """;
+
+    private static final String CREATE_STOCK_DELTA_STAGING_SQL = """
+            CREATE TEMP TABLE IF NOT EXISTS stock_delta_staging (
+                product_id uuid NOT NULL,
+                delta integer NOT NULL
+            ) ON COMMIT DROP
+            """;
+    private static final String COPY_STOCK_DELTAS_SQL =
+            "COPY stock_delta_staging (product_id, delta) FROM STDIN WITH (FORMAT csv)";
+    private static final String MERGE_STOCK_DELTAS_SQL = """
+            UPDATE products p
+            SET quantity = p.quantity + d.delta, version = p.version + 1
+            FROM (SELECT product_id, SUM(delta) AS delta FROM stock_delta_staging GROUP BY product_id) d
+            WHERE p.id = d.product_id
+              AND NOT EXISTS (SELECT 1 FROM stock_buckets b WHERE b.product_id = p.id)
+            """;
+    private static final String COUNT_STAGED_STOCK_PRODUCTS_SQL =
+            "SELECT COUNT(DISTINCT product_id) FROM stock_delta_staging";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public FeedStagingRepository(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public CopyWriter copyProducts() {
+        jdbcTemplate.execute(CREATE_PRODUCT_STAGING_SQL);
+        return new CopyWriter(copyIn(COPY_PRODUCTS_SQL));
+    }
+
+    public CopyWriter copyStockDeltas() {
+        jdbcTemplate.execute(CREATE_STOCK_DELTA_STAGING_SQL);
+        return new CopyWriter(copyIn(COPY_STOCK_DELTAS_SQL));
+    }
+
+    /**
+     * Inserts new products and updates name and price of existing ones; the last row wins for repeated ids.
+     * Stock of existing products only changes through stock-delta feeds.
+     */
+    public int mergeProducts() {
+        return jdbcTemplate.update(MERGE_PRODUCTS_SQL);
+    }
+
+    /**
+     * Adds the summed delta of each staged product. Unknown and sharded products are left untouched
+     * and reported as skipped.
+     */
+    public StockMergeResult mergeStockDeltas() {
+        Long staged = jdbcTemplate.queryForObject(COUNT_STAGED_STOCK_PRODUCTS_SQL, Long.class);
+        int updated = jdbcTemplate.update(MERGE_STOCK_DELTAS_SQL);
+        return new StockMergeResult(updated, (staged == null ? 0 : staged) - updated);
+    }
+
+    private CopyIn copyIn(String sql) {
+        try {
+            return DataSourceUtils.getConnection(dataSource)
+                    .unwrap(PGConnection.class)
+                    .getCopyAPI()
+                    .copyIn(sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not start COPY into staging table", e);
+        }
+    }
+
+    public record StockMergeResult(long updated, long skipped) {}
+
+    /**
+     * Buffers CSV rows and hands them to the COPY stream in fixed-size chunks.
+     */
+    public static class CopyWriter implements AutoCloseable {
+
+        private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 1024);
+
+        CopyWriter(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        public void writeRow(Object... values) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                appendValue(values[i]);
+            }
+            buffer.append('\n');
+            if (buffer.length() >= FLUSH_THRESHOLD) {
+                flush();
+            }
+        }
+
+        /**
+         * Sends the remaining rows and completes the COPY.
+         *
+         * @return the number of rows the database accepted
+         */
+        public long finish() {
+            flush();
+            try {
+                return copyIn.endCopy();
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not complete COPY into staging table", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (copyIn.isActive()) {
+                try {
+                    copyIn.cancelCopy();
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+
+        private void appendValue(Object value) {
+            String text = value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                buffer.append(text);
+                return;
+            }
+            buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+        }
+
+        private void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            try {
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not write to COPY stream", e);
+            }
+            buffer.setLength(0);
+        }
+    }
+}
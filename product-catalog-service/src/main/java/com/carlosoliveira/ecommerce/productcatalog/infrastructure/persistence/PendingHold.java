@@ -0,0 +1,6 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record PendingHold(UUID holdId, Instant expiresAt) {}
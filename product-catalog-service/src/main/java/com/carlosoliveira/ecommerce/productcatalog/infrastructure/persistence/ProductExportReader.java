@@ -0,0 +1,50 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductDetailsResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads the whole catalog through a server-side cursor, one fetch-size window of rows at a time,
+ * without registering entities in a persistence context. Quantities are what is written: the product row
+ * plus its stock buckets.
+ */
+@Repository
+public class ProductExportReader {
+
+    private static final int FETCH_SIZE = 1_000;
+    private static final String EXPORT_SQL = """
+            SELECT p.id, p.name, p.price_amount, p.version,
+                   p.quantity + COALESCE((SELECT SUM(b.quantity) FROM stock_buckets b WHERE b.product_id = p.id), 0) AS quantity
+            FROM products p
+            ORDER BY p.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductExportReader(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    /**
+     * Must run inside a transaction: the PostgreSQL driver only honours the fetch size with auto-commit off.
+     */
+    @Transactional(readOnly = true)
+    public void forEach(Consumer<ProductDetailsResponse> consumer) {
+        jdbcTemplate.query(EXPORT_SQL, rs -> {
+            consumer.accept(new ProductDetailsResponse(
+                    rs.getObject("id", UUID.class),
+                    rs.getString("name"),
+                    rs.getBigDecimal("price_amount"),
+                    rs.getInt("quantity"),
+                    rs.getLong("version")
+            ));
+        });
+    }
+}
@@ -1,12 +1,14 @@
 package com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence;
 
 import com.carlosoliveira.ecommerce.productcatalog.domain.Product;import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,4 +17,15 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
     @Query("SELECT p FROM Product p WHERE p.id = :id")
     Optional<Product> findByIdForUpdate(@Param("id") UUID id);
+
+    List<Product> findAllByOrderByIdAsc(Limit limit);
+
+    List<Product> findByIdGreaterThanOrderByIdAsc(UUID after, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdWithWriteLock(@Param("id") UUID id);
+
+    @Query("SELECT new com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.StockLevel(p.id, p.stock.quantity) FROM Product p")
+    List<StockLevel> findAllStockLevels();
 }
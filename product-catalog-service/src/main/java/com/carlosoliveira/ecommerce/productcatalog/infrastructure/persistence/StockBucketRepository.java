@@ -0,0 +1,48 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence;
+
+import com.carlosoliveira.ecommerce.productcatalog.domain.StockBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StockBucketRepository extends JpaRepository<StockBucket, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StockBucket b WHERE b.productId = :productId ORDER BY b.bucketIndex")
+    List<StockBucket> findByProductIdForUpdate(@Param("productId") UUID productId);
+
+    @Modifying
+    @Query("UPDATE StockBucket b SET b.stock.quantity = b.stock.quantity - :quantity, b.version = b.version + 1 " +
+            "WHERE b.productId = :productId AND b.bucketIndex = :bucketIndex AND b.stock.quantity >= :quantity")
+    int decrementIfAvailable(
+            @Param("productId") UUID productId,
+            @Param("bucketIndex") int bucketIndex,
+            @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE StockBucket b SET b.stock.quantity = b.stock.quantity + :quantity, b.version = b.version + 1 " +
+            "WHERE b.productId = :productId AND b.bucketIndex = :bucketIndex")
+    int increment(
+            @Param("productId") UUID productId,
+            @Param("bucketIndex") int bucketIndex,
+            @Param("quantity") int quantity);
+
+    @Query("SELECT new com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.BucketTotal(" +
+            "b.productId, COUNT(b), SUM(b.stock.quantity)) FROM StockBucket b WHERE b.productId IN :productIds GROUP BY b.productId")
+    List<BucketTotal> findTotalsByProductIdIn(@Param("productIds") Collection<UUID> productIds);
+
+    long countByProductId(UUID productId);
+
+    @Modifying
+    @Query("DELETE FROM StockBucket b WHERE b.productId = :productId")
+    void deleteByProductId(@Param("productId") UUID productId);
+}
@@ -0,0 +1,69 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Applies signed per-product stock changes with JDBC batches instead of one entity update each.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockDeltaWriter {
+
+    private static final String APPLY_DELTA_SQL =
+            "UPDATE products SET quantity = quantity + ?, version = version + 1 WHERE id = ?";
+    private static final String CONDITIONAL_DECREMENT_SQL =
+            "UPDATE products SET quantity = quantity - ?, version = version + 1 WHERE id = ? AND quantity >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void apply(Map<UUID, Integer> deltas, int batchSize) {
+        jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, new ArrayList<>(deltas.entrySet()), batchSize, (ps, delta) -> {
+            ps.setInt(1, delta.getValue());
+            ps.setObject(2, delta.getKey());
+        });
+    }
+
+    /**
+     * Decrements every product whose stock covers the requested quantity, one statement each in a single batch.
+     *
+     * @return the ids whose quantity was negative, whose row was missing or that did not hold enough stock
+     */
+    @Transactional
+    public Set<UUID> decrementWhereAvailable(Map<UUID, Integer> quantities) {
+        Set<UUID> rejected = new HashSet<>();
+        List<Map.Entry<UUID, Integer>> entries = new ArrayList<>(quantities.size());
+        quantities.entrySet().forEach(entry -> {
+            if (entry.getValue() < 0) {
+                rejected.add(entry.getKey());
+            } else {
+                entries.add(entry);
+            }
+        });
+        if (entries.isEmpty()) {
+            return rejected;
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(CONDITIONAL_DECREMENT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setObject(2, entry.getKey());
+            ps.setInt(3, entry.getValue());
+        });
+        for (int i = 0; i < entries.size(); i++) {
+            if (counts[0][i] == 0) {
+                rejected.add(entries.get(i).getKey());
+            }
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,34 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence;
+
+import com.carlosoliveira.ecommerce.productcatalog.domain.StockHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM StockHold h WHERE h.cartId = :cartId AND h.productId = :productId")
+    Optional<StockHold> findByCartIdAndProductIdForUpdate(@Param("cartId") UUID cartId, @Param("productId") UUID productId);
+
+    /**
+     * Locks the holds among {@code ids} that are still expired, skipping ones another release already holds.
+     */
+    @Query(value = "SELECT * FROM stock_holds WHERE id IN (:ids) AND expires_at <= :now FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<StockHold> lockExpired(@Param("ids") Collection<UUID> ids, @Param("now") Instant now);
+
+    @Query("SELECT new com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.PendingHold(h.id, h.expiresAt) " +
+            "FROM StockHold h")
+    List<PendingHold> findAllPending();
+}
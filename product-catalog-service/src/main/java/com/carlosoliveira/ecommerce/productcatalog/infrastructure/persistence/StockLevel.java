@@ -0,0 +1,8 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence;
+
+import java.util.UUID;
+
+public record StockLevel(
+        UUID productId,
+        int quantity
+) {}
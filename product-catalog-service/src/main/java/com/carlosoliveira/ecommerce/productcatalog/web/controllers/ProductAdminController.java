@@ -0,0 +1,62 @@
+package com.carlosoliveira.ecommerce.productcatalog.web.controllers;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.FeedImportResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductCacheStatsResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ReshardStockRequest;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.StockBucketsResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.FeedFormat;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.FeedImportService;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.StockBucketService;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.cache.ProductCache;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/admin/products")
+@RequiredArgsConstructor
+public class ProductAdminController {
+
+    private final StockBucketService stockBucketService;
+    private final ProductCache productCache;
+    private final FeedImportService feedImportService;
+
+    @PutMapping("/{id}/stock-buckets")
+    public ResponseEntity<StockBucketsResponse> reshardStock(
+            @PathVariable UUID id,
+            @Valid @RequestBody ReshardStockRequest request) {
+        return ResponseEntity.ok(stockBucketService.reshard(id, request.bucketCount()));
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<ProductCacheStatsResponse> cacheStats() {
+        return ResponseEntity.ok(productCache.stats());
+    }
+
+    @PostMapping(value = "/feeds/products", consumes = {FeedFormat.NDJSON_MEDIA_TYPE, FeedFormat.CSV_MEDIA_TYPE})
+    public ResponseEntity<FeedImportResponse> importProductFeed(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream feed) {
+        return ResponseEntity.ok(feedImportService.importProducts(feed, FeedFormat.fromMediaType(contentType)));
+    }
+
+    @PostMapping(value = "/feeds/stock", consumes = {FeedFormat.NDJSON_MEDIA_TYPE, FeedFormat.CSV_MEDIA_TYPE})
+    public ResponseEntity<FeedImportResponse> importStockFeed(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream feed) {
+        return ResponseEntity.ok(feedImportService.importStockDeltas(feed, FeedFormat.fromMediaType(contentType)));
+    }
+}
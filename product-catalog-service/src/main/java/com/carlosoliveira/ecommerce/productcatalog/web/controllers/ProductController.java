@@ -1,27 +1,85 @@
 package com.carlosoliveira.ecommerce.productcatalog.web.controllers;
 
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CheckStockRequest;
 import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CreateProductRequest;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductDetailsResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductPageResponse;
 import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.StockCheckResponse;
 import com.carlosoliveira.ecommerce.productcatalog.application.services.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/products")
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int MAX_STOCK_CHECKS = 500;
+
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<ProductResponse> createProduct(@Valid @RequestBody CreateProductRequest request) {
         ProductResponse product = productService.createProduct(request);
         return new ResponseEntity<>(product, HttpStatus.CREATED);
     }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<Map<UUID, ProductDetailsResponse>> getProducts(@RequestParam List<UUID> ids) {
+        return ResponseEntity.ok(productService.getProducts(ids));
+    }
+
+    @PostMapping("/stock-checks")
+    public ResponseEntity<Map<UUID, StockCheckResponse>> checkStock(
+            @RequestBody @Size(max = MAX_STOCK_CHECKS, message = "At most " + MAX_STOCK_CHECKS + " stock checks per request")
+            List<@Valid CheckStockRequest> requests) {
+        return ResponseEntity.ok(productService.checkStock(requests));
+    }
+
+    @GetMapping(params = "!ids")
+    public ResponseEntity<ProductPageResponse> listProducts(
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(productService.listProducts(after, size));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writerFor(ProductDetailsResponse.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out)) {
+                productService.exportProducts(product -> {
+                    try {
+                        writer.write(product);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
 }
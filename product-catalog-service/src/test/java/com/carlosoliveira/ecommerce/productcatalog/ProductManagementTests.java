@@ -1,6 +1,8 @@
 package com.carlosoliveira.ecommerce.productcatalog;
 
 import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CreateProductRequest;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductDetailsResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductPageResponse;
 import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductResponse;
 import com.github.javafaker.Faker;
 import jakarta.transaction.Transactional;
@@ -12,6 +14,8 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
@@ -19,6 +23,8 @@ import org.testcontainers.containers.PostgreSQLContainer;
 
 import java.math.BigDecimal;
 import java.util.Currency;
+import java.util.Map;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -66,4 +72,64 @@ public class ProductManagementTests {
             assertThat(responseBody.version()).isNotNull();
         }
     }
+
+    @Nested
+    @DisplayName("GET /products?ids=")
+    class GetProductsTests {
+        @Test
+        @DisplayName("Should return every requested product keyed by id and skip unknown ids")
+        void shouldReturnRequestedProductsKeyedById() {
+            // Arrange
+            ProductResponse first = createProduct(5);
+            ProductResponse second = createProduct(7);
+            UUID unknownId = UUID.randomUUID();
+
+            // Act
+            ResponseEntity<Map<UUID, ProductDetailsResponse>> response = restTemplate.exchange(
+                    PRODUCTS_API_URL + "?ids={first},{second},{unknown}",
+                    HttpMethod.GET,
+                    null,
+                    new ParameterizedTypeReference<>() {},
+                    first.id(), second.id(), unknownId);
+
+            // Assert
+            assertThat(response.getBody()).containsOnlyKeys(first.id(), second.id());
+            assertThat(response.getBody().get(second.id()).stockQuantity()).isEqualTo(7);
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /products")
+    class ListProductsTests {
+        @Test
+        @DisplayName("Should page through products in id order using the returned cursor")
+        void shouldPageThroughProductsUsingCursor() {
+            // Arrange
+            for (int i = 0; i < 3; i++) {
+                createProduct(1);
+            }
+
+            // Act
+            ProductPageResponse firstPage = restTemplate.getForObject(PRODUCTS_API_URL + "?size=2", ProductPageResponse.class);
+            ProductPageResponse secondPage = restTemplate.getForObject(
+                    PRODUCTS_API_URL + "?size=2&after={after}", ProductPageResponse.class, firstPage.nextCursor());
+
+            // Assert
+            assertThat(firstPage.items()).hasSize(2);
+            assertThat(firstPage.nextCursor()).isEqualTo(firstPage.items().getLast().id());
+            assertThat(secondPage.items()).isNotEmpty()
+                    .extracting(ProductDetailsResponse::id)
+                    .doesNotContainAnyElementsOf(firstPage.items().stream().map(ProductDetailsResponse::id).toList());
+        }
+    }
+
+    private ProductResponse createProduct(int initialStock) {
+        var request = new CreateProductRequest(
+                faker.commerce().productName(),
+                BigDecimal.valueOf(faker.number().randomDouble(2, 50, 1000)),
+                Currency.getInstance("USD"),
+                initialStock
+        );
+        return restTemplate.postForEntity(PRODUCTS_API_URL, request, ProductResponse.class).getBody();
+    }
 }
@@ -0,0 +1,140 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.dedupe;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEventDelivery;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ItemAddedToCartEvent;
+import com.carlosoliveira.ecommerce.productcatalog.config.CartEventsProperties;
+import com.carlosoliveira.ecommerce.productcatalog.domain.CartEventMark;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.CartEventMarkRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Cart Event Deduplicator Unit Tests")
+class CartEventDeduplicatorTest {
+
+    private final UUID cartId = UUID.randomUUID();
+    private final UUID productId = UUID.randomUUID();
+    private final Map<UUID, CartEventMark> stored = new HashMap<>();
+    private CartEventMarkRepository markRepository;
+    private CartEventDeduplicator sut;
+
+    @BeforeEach
+    void setUp() {
+        markRepository = mock(CartEventMarkRepository.class);
+        when(markRepository.lockByCartId(any()))
+                .thenAnswer(invocation -> Optional.ofNullable(stored.get(invocation.<UUID>getArgument(0))));
+        when(markRepository.createIfAbsent(any(), any())).thenAnswer(invocation -> {
+            UUID id = invocation.getArgument(0);
+            return stored.putIfAbsent(id, new CartEventMark(id, invocation.getArgument(1))) == null ? 1 : 0;
+        });
+        sut = new CartEventDeduplicator(
+                markRepository,
+                mock(PlatformTransactionManager.class),
+                new CartEventsProperties("single", 100, Duration.ofMillis(50), 8, Duration.ZERO,
+                        new CartEventsProperties.Dedupe(2, Duration.ofDays(7))),
+                new SimpleMeterRegistry()
+        );
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("Should apply events that arrive out of order and count them")
+    void shouldApplyEventsArrivingOutOfOrder() {
+        assertThat(sut.claim(delivery(2))).isTrue();
+        commit();
+        assertThat(sut.isDuplicate(delivery(1))).isFalse();
+        assertThat(sut.claim(delivery(1))).isTrue();
+        commit();
+
+        assertThat(stored.get(cartId).getHighWater()).isEqualTo(2);
+        assertThat(sut.outOfOrderCount()).isEqualTo(1);
+        assertThat(sut.droppedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drop redeliveries in memory once the claim has committed")
+    void shouldDropRedeliveriesInMemoryAfterCommit() {
+        assertThat(sut.claim(delivery(1))).isTrue();
+        assertThat(sut.isDuplicate(delivery(1))).isFalse();
+        commit();
+
+        assertThat(sut.isDuplicate(delivery(1))).isTrue();
+        assertThat(sut.isDuplicate(delivery(2))).isFalse();
+        assertThat(sut.droppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should skip an event the stored mark covers and remember the mark")
+    void shouldSkipEventCoveredByStoredMark() {
+        CartEventMark mark = new CartEventMark(cartId, Instant.now());
+        mark.record(1, Instant.now());
+        mark.record(2, Instant.now());
+        stored.put(cartId, mark);
+
+        assertThat(sut.claim(delivery(1))).isFalse();
+        commit();
+
+        assertThat(sut.isDuplicate(delivery(2))).isTrue();
+        assertThat(sut.claim(delivery(2))).isFalse();
+        verify(markRepository, times(1)).lockByCartId(cartId);
+        verify(markRepository, never()).createIfAbsent(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should leave out events applied before and repeats within the batch without claiming any")
+    void shouldLeaveOutAppliedAndRepeatedDeliveries() {
+        assertThat(sut.claim(delivery(1))).isTrue();
+        commit();
+
+        List<CartEventDelivery> unapplied = sut.unapplied(List.of(delivery(1), delivery(2), delivery(2), delivery(null)));
+
+        assertThat(unapplied).containsExactly(delivery(2), delivery(null));
+        assertThat(stored.get(cartId).window().isApplied(2)).isFalse();
+        assertThat(sut.droppedCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should always claim events without a sequence")
+    void shouldAlwaysClaimEventsWithoutSequence() {
+        assertThat(sut.isDuplicate(delivery(null))).isFalse();
+        assertThat(sut.claim(delivery(null))).isTrue();
+        assertThat(sut.claim(delivery(null))).isTrue();
+        verifyNoInteractions(markRepository);
+    }
+
+    private CartEventDelivery delivery(Integer sequence) {
+        return new CartEventDelivery(
+                new ItemAddedToCartEvent(cartId, productId, 1, Instant.EPOCH),
+                sequence == null ? null : "event-" + sequence,
+                sequence == null ? null : sequence.longValue()
+        );
+    }
+
+    private void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+}
@@ -0,0 +1,80 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.holds;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Hierarchical Timing Wheel Unit Tests")
+class HierarchicalTimingWheelTest {
+
+    @Test
+    @DisplayName("Should fire each timer on its deadline tick across levels")
+    void shouldFireOnDeadlineTick() {
+        var wheel = new HierarchicalTimingWheel<Long>(2, 3, 5);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long deadline = 5 + 1 + random.nextInt(60);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        Map<Long, List<Long>> firedAt = new TreeMap<>();
+        for (long tick = 6; tick <= 70; tick++) {
+            long now = tick;
+            wheel.advanceTo(tick, deadline -> firedAt.computeIfAbsent(now, t -> new ArrayList<>()).add(deadline));
+        }
+
+        firedAt.forEach((tick, fired) -> assertThat(fired).containsOnly(tick));
+        assertThat(firedAt.values().stream().mapToInt(List::size).sum()).isEqualTo(deadlines.size());
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fire past deadlines on the next advance")
+    void shouldFirePastDeadlinesImmediately() {
+        var wheel = new HierarchicalTimingWheel<String>(6, 4, 1_000);
+        List<String> fired = new ArrayList<>();
+
+        wheel.schedule("late", 10);
+        wheel.advanceTo(1_000, fired::add);
+
+        assertThat(fired).containsExactly("late");
+    }
+
+    @Test
+    @DisplayName("Should keep deadlines beyond the top level until they come in range")
+    void shouldHoldOverflowUntilDue() {
+        var wheel = new HierarchicalTimingWheel<String>(1, 2, 0);
+        List<Long> firedAt = new ArrayList<>();
+
+        wheel.schedule("far", 11);
+        for (long tick = 1; tick <= 12; tick++) {
+            long now = tick;
+            wheel.advanceTo(tick, item -> firedAt.add(now));
+        }
+
+        assertThat(firedAt).containsExactly(11L);
+    }
+
+    @Test
+    @DisplayName("Should catch up over a gap in one advance")
+    void shouldCatchUpOverGap() {
+        var wheel = new HierarchicalTimingWheel<Integer>(6, 4, 0);
+        for (int i = 1; i <= 10_000; i += 7) {
+            wheel.schedule(i, i);
+        }
+        List<Integer> fired = new ArrayList<>();
+
+        wheel.advanceTo(10_000, fired::add);
+
+        assertThat(fired).isSorted().hasSize(1429);
+    }
+}
@@ -0,0 +1,119 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.holds;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.services.StockHoldService;
+import com.carlosoliveira.ecommerce.productcatalog.config.StockHoldProperties;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.PendingHold;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.StockHoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Stock Hold Expiry Scheduler Unit Tests")
+class StockHoldExpirySchedulerTest {
+
+    private static final Duration TICK = Duration.ofMillis(10);
+
+    private StockHoldRepository stockHoldRepository;
+    private StockHoldService stockHoldService;
+    private ObjectProvider<StockHoldService> stockHoldServiceProvider;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stockHoldRepository = mock(StockHoldRepository.class);
+        stockHoldService = mock(StockHoldService.class);
+        stockHoldServiceProvider = mock(ObjectProvider.class);
+        when(stockHoldServiceProvider.getObject()).thenReturn(stockHoldService);
+    }
+
+    @Test
+    @DisplayName("Should release holds in batches once their expiry has passed, and not before")
+    void shouldReleaseDueHoldsInBatches() throws InterruptedException {
+        var sut = scheduler(true);
+        List<UUID> due = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        UUID later = UUID.randomUUID();
+        due.forEach(holdId -> sut.schedule(holdId, Instant.now()));
+        sut.schedule(later, Instant.now().plusSeconds(60));
+
+        Thread.sleep(TICK.toMillis() * 3);
+        sut.tick();
+
+        ArgumentCaptor<List<UUID>> batches = ArgumentCaptor.captor();
+        verify(stockHoldService, times(2)).releaseExpired(batches.capture());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        assertThat(batches.getAllValues().stream().flatMap(List::stream)).containsExactlyInAnyOrderElementsOf(due);
+        assertThat(sut.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should retry a batch whose release failed on a later tick")
+    void shouldRetryFailedRelease() throws InterruptedException {
+        var sut = scheduler(true);
+        UUID holdId = UUID.randomUUID();
+        when(stockHoldService.releaseExpired(List.of(holdId)))
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(1);
+        sut.schedule(holdId, Instant.now());
+
+        Thread.sleep(TICK.toMillis() * 3);
+        sut.tick();
+        assertThat(sut.pendingCount()).isEqualTo(1);
+        Thread.sleep(TICK.toMillis() * 3);
+        sut.tick();
+
+        verify(stockHoldService, times(2)).releaseExpired(List.of(holdId));
+        assertThat(sut.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should refill the wheel from the pending holds on start")
+    void shouldRefillWheelOnStart() {
+        var sut = scheduler(true);
+        when(stockHoldRepository.findAllPending()).thenReturn(List.of(
+                new PendingHold(UUID.randomUUID(), Instant.now().plusSeconds(60)),
+                new PendingHold(UUID.randomUUID(), Instant.now().plusSeconds(120))
+        ));
+
+        sut.start();
+        try {
+            assertThat(sut.pendingCount()).isEqualTo(2);
+        } finally {
+            sut.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should neither schedule nor release anything while expiry is off")
+    void shouldDoNothingWhileExpiryIsOff() throws InterruptedException {
+        var sut = scheduler(false);
+
+        sut.start();
+        sut.schedule(UUID.randomUUID(), Instant.now());
+        Thread.sleep(TICK.toMillis() * 3);
+        sut.tick();
+        sut.stop();
+
+        assertThat(sut.pendingCount()).isZero();
+        verify(stockHoldRepository, never()).findAllPending();
+        verify(stockHoldService, never()).releaseExpired(anyCollection());
+    }
+
+    private StockHoldExpiryScheduler scheduler(boolean expire) {
+        return new StockHoldExpiryScheduler(
+                stockHoldRepository,
+                stockHoldServiceProvider,
+                new StockHoldProperties(Duration.ofMinutes(15), TICK, 2, 3, 2, expire)
+        );
+    }
+}
@@ -0,0 +1,224 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.reservation;
+
+import com.carlosoliveira.ecommerce.common.valueObjects.Money;
+import com.carlosoliveira.ecommerce.productcatalog.application.errors.ProductNotFoundException;
+import com.carlosoliveira.ecommerce.productcatalog.application.errors.StockReservationException;
+import com.carlosoliveira.ecommerce.productcatalog.config.ReservationProperties;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Product;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Stock;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.ProductRepository;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.StockDeltaWriter;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.StockLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@DisplayName("In-Memory Stock Reservation Strategy Unit Tests")
+class InMemoryStockReservationStrategyTest {
+
+    private final UUID productId = UUID.randomUUID();
+    private ProductRepository productRepository;
+    private StockDeltaWriter stockDeltaWriter;
+    private InMemoryStockReservationStrategy sut;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        stockDeltaWriter = mock(StockDeltaWriter.class);
+        when(productRepository.findAllStockLevels()).thenReturn(List.of(new StockLevel(productId, 100)));
+
+        var properties = new ReservationProperties("in-memory",
+                new ReservationProperties.InMemory(Duration.ofHours(1), 100),
+                new ReservationProperties.Buckets(Duration.ofSeconds(5), 100));
+        sut = new InMemoryStockReservationStrategy(productRepository, stockDeltaWriter, properties);
+        sut.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.stop();
+    }
+
+    @Test
+    @DisplayName("Should decrement the in-memory counter when reserving stock")
+    void shouldDecrementCounterWhenReserving() {
+        sut.reserve(productId, 30);
+
+        assertThat(sut.availableQuantity(productId)).hasValue(70);
+    }
+
+    @Test
+    @DisplayName("Should reject a reservation larger than the available quantity")
+    void shouldRejectReservationOnInsufficientStock() {
+        assertThatThrownBy(() -> sut.reserve(productId, 101))
+                .isInstanceOf(StockReservationException.class)
+                .hasMessageContaining("Available: 100, Requested: 101");
+
+        assertThat(sut.availableQuantity(productId)).hasValue(100);
+    }
+
+    @Test
+    @DisplayName("Should reject a negative reservation")
+    void shouldRejectNegativeReservation() {
+        assertThatThrownBy(() -> sut.reserve(productId, -1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Decrement amount cannot be negative.");
+    }
+
+    @Test
+    @DisplayName("Should never oversell under concurrent reservations")
+    void shouldNeverOversellUnderConcurrentReservations() throws InterruptedException {
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1_000; i++) {
+            executor.submit(() -> {
+                try {
+                    sut.reserve(productId, 1);
+                    accepted.incrementAndGet();
+                } catch (StockReservationException ignored) {
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(accepted.get()).isEqualTo(100);
+        assertThat(sut.availableQuantity(productId)).hasValue(0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should flush the net change per product in one batch")
+    void shouldFlushNetChangePerProduct() {
+        sut.reserve(productId, 2);
+        sut.reserve(productId, 3);
+
+        sut.flush();
+
+        ArgumentCaptor<Map<UUID, Integer>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(stockDeltaWriter).apply(deltas.capture(), eq(100));
+        assertThat(deltas.getValue()).containsExactly(entry(productId, -5));
+
+        sut.flush();
+        verifyNoMoreInteractions(stockDeltaWriter);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should keep unflushed changes when the batch write fails")
+    void shouldKeepChangesWhenFlushFails() {
+        sut.reserve(productId, 4);
+        doThrow(new RuntimeException("connection refused")).doNothing()
+                .when(stockDeltaWriter).apply(anyMap(), anyInt());
+
+        sut.flush();
+        sut.flush();
+
+        ArgumentCaptor<Map<UUID, Integer>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(stockDeltaWriter, times(2)).apply(deltas.capture(), anyInt());
+        assertThat(deltas.getAllValues().get(1)).containsExactly(entry(productId, -4));
+    }
+
+    @Test
+    @DisplayName("Should load products created after startup on first reservation")
+    void shouldLoadUnknownProductOnFirstReservation() {
+        UUID unknownId = UUID.randomUUID();
+        when(productRepository.findById(unknownId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> sut.reserve(unknownId, 1))
+                .isInstanceOf(ProductNotFoundException.class);
+        assertThat(sut.availableQuantity(unknownId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should hand over unflushed changes and reload the product once the rewrite commits")
+    void shouldDetachUntilRewriteCommits() {
+        sut.reserve(productId, 5);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(sut.detach(productId)).isEqualTo(-5);
+            assertThatThrownBy(() -> sut.reserve(productId, 1)).isInstanceOf(IllegalStateException.class);
+
+            when(productRepository.findById(productId)).thenReturn(Optional.of(
+                    new Product("Product", new Money(BigDecimal.TEN, Currency.getInstance("USD")), new Stock(0))));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        sut.flush();
+        verifyNoInteractions(stockDeltaWriter);
+        assertThatThrownBy(() -> sut.reserve(productId, 1))
+                .isInstanceOf(StockReservationException.class)
+                .hasMessageContaining("Available: 0");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should keep the handed over change when the rewrite rolls back")
+    void shouldKeepChangeWhenRewriteRollsBack() {
+        sut.reserve(productId, 5);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            sut.detach(productId);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        sut.reserve(productId, 1);
+        sut.flush();
+
+        ArgumentCaptor<Map<UUID, Integer>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(stockDeltaWriter).apply(deltas.capture(), anyInt());
+        assertThat(deltas.getValue()).containsExactly(entry(productId, -6));
+        assertThat(sut.availableQuantity(productId)).hasValue(94);
+    }
+
+    @Test
+    @DisplayName("Should undo reservations and releases whose transaction rolls back")
+    void shouldUndoChangesOnRollback() {
+        UUID otherId = UUID.randomUUID();
+        when(productRepository.findById(otherId)).thenReturn(Optional.of(
+                new Product("Other", new Money(BigDecimal.TEN, Currency.getInstance("USD")), new Stock(10))));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            sut.reserve(productId, 5);
+            sut.releaseAll(Map.of(otherId, 3));
+            assertThat(sut.availableQuantity(productId)).hasValue(95);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        sut.flush();
+
+        verifyNoInteractions(stockDeltaWriter);
+        assertThat(sut.availableQuantity(productId)).hasValue(100);
+        assertThat(sut.availableQuantity(otherId)).hasValue(10);
+    }
+}
@@ -0,0 +1,58 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.reservation;
+
+import com.carlosoliveira.ecommerce.common.valueObjects.Money;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Product;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Stock;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.ProductRepository;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.StockDeltaWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Optimistic Stock Reservation Strategy Unit Tests")
+class OptimisticStockReservationStrategyTest {
+
+    private ProductRepository productRepository;
+    private OptimisticStockReservationStrategy sut;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        sut = new OptimisticStockReservationStrategy(productRepository, mock(StockDeltaWriter.class));
+    }
+
+    @Test
+    @DisplayName("Should take stock on the loaded products and reject the short and unknown ones")
+    void shouldReserveOnEntitiesAndRejectTheRest() {
+        Product plenty = product(10);
+        Product scarce = product(1);
+        UUID unknownId = UUID.randomUUID();
+        when(productRepository.findAllById(any())).thenReturn(List.of(plenty, scarce));
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(plenty.getId(), 4);
+        quantities.put(scarce.getId(), 2);
+        quantities.put(unknownId, 1);
+
+        var rejected = sut.reserveAll(quantities);
+
+        assertThat(rejected).containsExactlyInAnyOrder(scarce.getId(), unknownId);
+        assertThat(plenty.getStock().getQuantity()).isEqualTo(6);
+        assertThat(scarce.getStock().getQuantity()).isEqualTo(1);
+        verify(productRepository).flush();
+    }
+
+    private Product product(int quantity) {
+        return new Product("Product", new Money(new BigDecimal("10.00"), Currency.getInstance("USD")), new Stock(quantity));
+    }
+}
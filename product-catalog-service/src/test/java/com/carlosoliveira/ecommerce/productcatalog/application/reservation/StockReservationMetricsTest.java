@@ -0,0 +1,35 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.reservation;
+
+import com.carlosoliveira.ecommerce.productcatalog.config.ReservationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StockReservationMetrics Unit Tests")
+class StockReservationMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StockReservationMetrics sut = new StockReservationMetrics(
+            meterRegistry,
+            new ReservationProperties("conditional", new ReservationProperties.InMemory(Duration.ofMillis(500), 500),
+                    new ReservationProperties.Buckets(Duration.ofSeconds(5), 100))
+    );
+
+    @Test
+    @DisplayName("Should time calls by outcome and count every refused product")
+    void shouldRecordOutcomesAndRejections() {
+        sut.record(System.nanoTime(), 0);
+        sut.record(System.nanoTime(), 3);
+        sut.recordFailure(System.nanoTime());
+
+        assertThat(meterRegistry.get("catalog.stock.reservations")
+                .tags("mode", "conditional", "outcome", "reserved").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("catalog.stock.reservations").tags("outcome", "rejected").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("catalog.stock.reservations").tags("outcome", "failed").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("catalog.stock.rejections").counter().count()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,142 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.reservation;
+
+import com.carlosoliveira.ecommerce.common.valueObjects.Money;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Product;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Stock;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.ProductRepository;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.StockDeltaWriter;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Correctness of the database-backed strategies when every thread reserves the same product and together
+ * they ask for twice its stock. Their throughput is compared by {@code ProductReservationBenchmark}.
+ */
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Stock Reservation Strategy Contention Tests")
+class StockReservationStrategyContentionTest {
+
+    private static final int THREADS = 8;
+    private static final int RESERVATIONS_PER_THREAD = 50;
+    private static final int INITIAL_STOCK = THREADS * RESERVATIONS_PER_THREAD / 2;
+
+    @Container
+    @ServiceConnection
+    static RabbitMQContainer rabbitmq = new RabbitMQContainer("rabbitmq:3.11-management");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockDeltaWriter stockDeltaWriter;
+
+    @Autowired
+    private OptimisticStockReservationStrategy optimisticStrategy;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private ConditionalStockReservationStrategy conditionalStrategy;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        conditionalStrategy = new ConditionalStockReservationStrategy(stockDeltaWriter);
+    }
+
+    @Test
+    @DisplayName("Conditional update should sell out exactly and reject only what is over the stock")
+    void conditionalUpdateShouldSellOutExactly() throws InterruptedException {
+        UUID productId = createProduct();
+
+        RunResult result = run(id -> transactionTemplate.execute(
+                status -> conditionalStrategy.reserveAll(Map.of(id, 1)).isEmpty()), productId);
+
+        assertThat(result.reserved()).isEqualTo(INITIAL_STOCK);
+        assertThat(result.failed()).isEqualTo(THREADS * RESERVATIONS_PER_THREAD - INITIAL_STOCK);
+        assertThat(quantityOf(productId)).isZero();
+    }
+
+    @Test
+    @DisplayName("Optimistic locking should never oversell and account for every reserved unit")
+    void optimisticLockingShouldNeverOversell() throws InterruptedException {
+        UUID productId = createProduct();
+
+        RunResult result = run(id -> optimisticStrategy.reserveAll(Map.of(id, 1)).isEmpty(), productId);
+
+        assertThat(result.reserved()).isLessThanOrEqualTo(INITIAL_STOCK);
+        assertThat(result.reserved() + result.failed()).isEqualTo(THREADS * RESERVATIONS_PER_THREAD);
+        assertThat(quantityOf(productId)).isEqualTo(INITIAL_STOCK - result.reserved());
+    }
+
+    private RunResult run(Predicate<UUID> reservation, UUID productId) throws InterruptedException {
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < RESERVATIONS_PER_THREAD; i++) {
+                    try {
+                        if (reservation.test(productId)) {
+                            reserved.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    } catch (ObjectOptimisticLockingFailureException e) {
+                        // lost the version check; StockHoldService would retry the transaction
+                        failed.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        return new RunResult(reserved.get(), failed.get());
+    }
+
+    private UUID createProduct() {
+        Product product = new Product("Hot Product",
+                new Money(new BigDecimal("10.00"), Currency.getInstance("USD")), new Stock(INITIAL_STOCK));
+        return productRepository.saveAndFlush(product).getId();
+    }
+
+    private int quantityOf(UUID productId) {
+        return productRepository.findById(productId).orElseThrow().getStock().getQuantity();
+    }
+
+    private record RunResult(int reserved, int failed) {}
+}
@@ -0,0 +1,87 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.services;
+
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.cache.ProductCache;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.FeedStagingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Feed Import Service Unit Tests")
+class FeedImportServiceTest {
+
+    private FeedStagingRepository feedStagingRepository;
+    private FeedStagingRepository.CopyWriter copyWriter;
+    private ProductCache productCache;
+    private FeedImportService sut;
+
+    @BeforeEach
+    void setUp() {
+        feedStagingRepository = mock(FeedStagingRepository.class);
+        copyWriter = mock(FeedStagingRepository.CopyWriter.class);
+        productCache = mock(ProductCache.class);
+        when(feedStagingRepository.copyProducts()).thenReturn(copyWriter);
+        when(feedStagingRepository.copyStockDeltas()).thenReturn(copyWriter);
+        sut = new FeedImportService(feedStagingRepository, productCache, new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("Should stage valid NDJSON product rows and report invalid ones")
+    void shouldStageValidProductRows() {
+        UUID productId = UUID.randomUUID();
+        when(feedStagingRepository.mergeProducts()).thenReturn(1);
+
+        var response = sut.importProducts(feed("""
+                {"id":"%s","name":"Laptop","priceAmount":999.90,"currency":"USD","quantity":5}
+                {"name":"Mouse","priceAmount":-1,"currency":"USD"}
+                {"name":"","priceAmount":10,"currency":"USD"}
+                """.formatted(productId)), FeedFormat.NDJSON);
+
+        verify(copyWriter).writeRow(1L, productId, "Laptop", "999.90", "USD", 5);
+        verify(copyWriter, times(1)).writeRow(any(Object[].class));
+        verify(copyWriter).finish();
+        verify(productCache).evictAll();
+        assertThat(response.rowsRead()).isEqualTo(3);
+        assertThat(response.rowsRejected()).isEqualTo(2);
+        assertThat(response.productsChanged()).isEqualTo(1);
+        assertThat(response.errors()).containsExactly(
+                "Row 2: Price amount must be non-negative.",
+                "Row 3: Product name cannot be null or empty."
+        );
+    }
+
+    @Test
+    @DisplayName("Should stage CSV stock deltas and reject negative ones")
+    void shouldStageValidStockDeltas() {
+        UUID productId = UUID.randomUUID();
+        when(feedStagingRepository.mergeStockDeltas())
+                .thenReturn(new FeedStagingRepository.StockMergeResult(1, 0));
+
+        var response = sut.importStockDeltas(feed("""
+                productId,delta
+                %s,4
+                %s,-2
+                ,3
+                """.formatted(productId, productId)), FeedFormat.CSV);
+
+        verify(copyWriter).writeRow(productId, 4);
+        verify(copyWriter, never()).writeRow(eq(productId), eq(-2));
+        assertThat(response.rowsRead()).isEqualTo(3);
+        assertThat(response.rowsRejected()).isEqualTo(2);
+        assertThat(response.productsChanged()).isEqualTo(1);
+    }
+
+    private static InputStream feed(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
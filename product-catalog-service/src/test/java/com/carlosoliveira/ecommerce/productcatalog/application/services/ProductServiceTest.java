@@ -0,0 +1,154 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.services;
+
+import com.carlosoliveira.ecommerce.common.valueObjects.Money;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CheckStockRequest;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductDetailsResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.reservation.StockReservationMetrics;
+import com.carlosoliveira.ecommerce.productcatalog.application.reservation.StockReservationStrategy;
+import com.carlosoliveira.ecommerce.productcatalog.config.ProductCacheProperties;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Product;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Stock;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.cache.ProductCache;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.ProductExportReader;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Product Service Unit Tests")
+class ProductServiceTest {
+
+    private static final int CART_LINES = 40;
+
+    private ProductRepository productRepository;
+    private StockReservationStrategy stockReservationStrategy;
+    private ProductExportReader productExportReader;
+    private StockReservationMetrics reservationMetrics;
+    private StockBucketService stockBucketService;
+    private ProductService sut;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        products = IntStream.range(0, CART_LINES)
+                .mapToObj(i -> new Product("Product " + i,
+                        new Money(new BigDecimal("10.00"), Currency.getInstance("USD")), new Stock(5)))
+                .toList();
+        when(productRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Collection<?> ids = (Collection<?>) invocation.getArgument(0, Iterable.class);
+            return products.stream().filter(product -> ids.contains(product.getId())).toList();
+        });
+        stockReservationStrategy = mock(StockReservationStrategy.class);
+        productExportReader = mock(ProductExportReader.class);
+        reservationMetrics = mock(StockReservationMetrics.class);
+        stockBucketService = mock(StockBucketService.class);
+        sut = new ProductService(
+                productRepository,
+                stockReservationStrategy,
+                stockBucketService,
+                new ProductCache(new ProductCacheProperties(100, Duration.ofMinutes(1))),
+                productExportReader,
+                reservationMetrics
+        );
+    }
+
+    @Test
+    @DisplayName("Should check a whole cart's stock with one query")
+    void shouldCheckWholeCartWithOneQuery() {
+        List<CheckStockRequest> checks = products.stream().map(product -> new CheckStockRequest(product.getId(), 6)).toList();
+
+        var results = sut.checkStock(checks);
+
+        assertThat(results).hasSize(CART_LINES);
+        assertThat(results.values()).allSatisfy(result -> {
+            assertThat(result.hasStock()).isFalse();
+            assertThat(result.availableQuantity()).isEqualTo(5);
+        });
+        verify(productRepository, times(1)).findAllById(anyIterable());
+        verify(productRepository, never()).findById(any());
+        verify(stockBucketService, times(1)).totalQuantities(anyCollection());
+        verify(stockBucketService, never()).isSharded(any());
+    }
+
+    @Test
+    @DisplayName("Should report the bucket total of a sharded product")
+    void shouldReportBucketTotalOfShardedProduct() {
+        UUID sharded = products.getFirst().getId();
+        when(stockBucketService.totalQuantities(anyCollection())).thenReturn(Map.of(sharded, 42));
+
+        var loaded = sut.getProducts(products.stream().map(Product::getId).toList());
+
+        assertThat(loaded.get(sharded).stockQuantity()).isEqualTo(42);
+        assertThat(loaded.get(products.getLast().getId()).stockQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should only query the products missing from the cache")
+    void shouldOnlyQueryMissingProducts() {
+        List<UUID> cached = products.subList(0, 10).stream().map(Product::getId).toList();
+        List<UUID> all = products.stream().map(Product::getId).toList();
+        sut.getProducts(cached);
+
+        assertThat(sut.getProducts(all)).containsOnlyKeys(all);
+        verify(productRepository).findAllById(argThat(ids -> ((Collection<?>) ids).size() == CART_LINES - 10));
+        verify(productRepository, times(2)).findAllById(anyIterable());
+    }
+
+    @Test
+    @DisplayName("Should export stock with the changes the reservation strategy has not written yet")
+    void shouldExportUnwrittenStock() {
+        UUID counted = UUID.randomUUID();
+        UUID untouched = UUID.randomUUID();
+        doAnswer(invocation -> {
+            Consumer<ProductDetailsResponse> consumer = invocation.getArgument(0);
+            consumer.accept(new ProductDetailsResponse(counted, "Counted", BigDecimal.TEN, 10, 1L));
+            consumer.accept(new ProductDetailsResponse(untouched, "Untouched", BigDecimal.TEN, 4, 1L));
+            return null;
+        }).when(productExportReader).forEach(any());
+        when(stockReservationStrategy.availableQuantity(counted)).thenReturn(OptionalInt.of(7));
+        when(stockReservationStrategy.availableQuantity(untouched)).thenReturn(OptionalInt.empty());
+        List<ProductDetailsResponse> exported = new ArrayList<>();
+
+        sut.exportProducts(exported::add);
+
+        assertThat(exported).extracting(ProductDetailsResponse::stockQuantity).containsExactly(7, 4);
+    }
+
+    @Test
+    @DisplayName("Should record short stock as rejected and a throwing strategy as failed")
+    void shouldRecordReservationOutcomes() {
+        UUID shortId = products.get(0).getId();
+        UUID plentyId = products.get(1).getId();
+        when(stockReservationStrategy.reserveAll(Map.of(shortId, 9, plentyId, 1))).thenReturn(Set.of(shortId));
+
+        assertThat(sut.reserveStock(Map.of(shortId, 9, plentyId, 1))).containsExactly(shortId);
+        verify(reservationMetrics).record(anyLong(), eq(1));
+
+        when(stockReservationStrategy.reserveAll(Map.of(plentyId, 1))).thenThrow(new IllegalStateException("being rewritten"));
+        assertThatThrownBy(() -> sut.reserveStock(Map.of(plentyId, 1))).isInstanceOf(IllegalStateException.class);
+        verify(reservationMetrics).recordFailure(anyLong());
+    }
+}
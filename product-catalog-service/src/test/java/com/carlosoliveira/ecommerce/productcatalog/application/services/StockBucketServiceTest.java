@@ -0,0 +1,160 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.services;
+
+import com.carlosoliveira.ecommerce.common.valueObjects.Money;
+import com.carlosoliveira.ecommerce.productcatalog.application.reservation.StockReservationStrategy;
+import com.carlosoliveira.ecommerce.productcatalog.config.ProductCacheProperties;
+import com.carlosoliveira.ecommerce.productcatalog.config.ReservationProperties;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Product;
+import com.carlosoliveira.ecommerce.productcatalog.domain.Stock;
+import com.carlosoliveira.ecommerce.productcatalog.domain.StockBucket;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.cache.ProductCache;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.BucketTotal;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.ProductRepository;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.StockBucketRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Currency;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Stock Bucket Service Unit Tests")
+class StockBucketServiceTest {
+
+    private final UUID productId = UUID.randomUUID();
+    private StockBucketRepository stockBucketRepository;
+    private ProductRepository productRepository;
+    private StockReservationStrategy stockReservationStrategy;
+    private StockBucketService sut;
+
+    @BeforeEach
+    void setUp() {
+        stockBucketRepository = mock(StockBucketRepository.class);
+        productRepository = mock(ProductRepository.class);
+        stockReservationStrategy = mock(StockReservationStrategy.class);
+        when(stockBucketRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        sut = service(Duration.ofMinutes(1));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("Should take the strategy's unflushed change along when splitting the product row")
+    void shouldSplitWithUnflushedChange() {
+        Product product = product(10);
+        when(stockReservationStrategy.detach(productId)).thenReturn(-3);
+        when(stockBucketRepository.findByProductIdForUpdate(productId)).thenReturn(List.of());
+
+        var response = sut.reshard(productId, 4);
+
+        assertThat(response.totalQuantity()).isEqualTo(7);
+        assertThat(response.bucketQuantities()).containsExactly(2, 2, 2, 1);
+        assertThat(product.getStock().getQuantity()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should merge the buckets and the unflushed change back into the product row")
+    void shouldMergeBucketsWithUnflushedChange() {
+        Product product = product(0);
+        when(stockReservationStrategy.detach(productId)).thenReturn(2);
+        when(stockBucketRepository.findByProductIdForUpdate(productId)).thenReturn(List.of(
+                new StockBucket(productId, 0, new Stock(3)),
+                new StockBucket(productId, 1, new Stock(4))
+        ));
+
+        var response = sut.reshard(productId, 1);
+
+        assertThat(response.totalQuantity()).isEqualTo(9);
+        assertThat(product.getStock().getQuantity()).isEqualTo(9);
+        verify(stockBucketRepository).deleteByProductId(productId);
+        verify(stockBucketRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should keep the old layout until the reshard commits")
+    void shouldSwitchLayoutOnlyAfterCommit() {
+        product(8);
+        when(stockBucketRepository.countByProductId(productId)).thenReturn(0L);
+        assertThat(sut.isSharded(productId)).isFalse();
+
+        sut.reshard(productId, 2);
+        when(stockBucketRepository.countByProductId(productId)).thenReturn(2L);
+        assertThat(sut.isSharded(productId)).isFalse();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(sut.isSharded(productId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should see a reshard made by another instance once the layout expires")
+    void shouldSeeReshardFromAnotherInstance() throws InterruptedException {
+        sut = service(Duration.ofMillis(20));
+        when(stockBucketRepository.countByProductId(productId)).thenReturn(0L);
+        assertThat(sut.isSharded(productId)).isFalse();
+
+        when(stockBucketRepository.countByProductId(productId)).thenReturn(4L);
+        Thread.sleep(50);
+
+        assertThat(sut.isSharded(productId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should fall back to locking every bucket when the cached layout is out of date")
+    void shouldReserveAcrossBucketsWithStaleLayout() {
+        when(stockBucketRepository.countByProductId(productId)).thenReturn(4L);
+        StockBucket only = new StockBucket(productId, 0, new Stock(5));
+        when(stockBucketRepository.findByProductIdForUpdate(productId)).thenReturn(List.of(only));
+
+        sut.reserve(productId, 3);
+
+        verify(stockBucketRepository, times(4)).decrementIfAvailable(eq(productId), anyInt(), eq(3));
+        assertThat(only.getStock().getQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should add up the buckets of many products in one query and remember which are sharded")
+    void shouldTotalManyProductsInOneQuery() {
+        UUID unsharded = UUID.randomUUID();
+        when(stockBucketRepository.findTotalsByProductIdIn(List.of(productId, unsharded)))
+                .thenReturn(List.of(new BucketTotal(productId, 4, 17)));
+
+        assertThat(sut.totalQuantities(List.of(productId, unsharded))).containsExactly(entry(productId, 17));
+
+        assertThat(sut.isSharded(productId)).isTrue();
+        assertThat(sut.isSharded(unsharded)).isFalse();
+        verify(stockBucketRepository, never()).countByProductId(any());
+    }
+
+    private StockBucketService service(Duration layoutTtl) {
+        return new StockBucketService(
+                stockBucketRepository,
+                productRepository,
+                new ProductCache(new ProductCacheProperties(100, Duration.ofSeconds(30))),
+                stockReservationStrategy,
+                new ReservationProperties("in-memory", new ReservationProperties.InMemory(Duration.ofMillis(500), 500),
+                        new ReservationProperties.Buckets(layoutTtl, 100))
+        );
+    }
+
+    private Product product(int quantity) {
+        Product product = new Product("Hot product", new Money(BigDecimal.TEN, Currency.getInstance("USD")), new Stock(quantity));
+        when(productRepository.findByIdWithWriteLock(productId)).thenReturn(Optional.of(product));
+        return product;
+    }
+}
@@ -0,0 +1,164 @@
+package com.carlosoliveira.ecommerce.productcatalog.application.services;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.dedupe.CartEventDeduplicator;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartCheckedOutEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEventDelivery;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ItemAddedToCartEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.StockAdjustment;
+import com.carlosoliveira.ecommerce.productcatalog.application.errors.StockReservationException;
+import com.carlosoliveira.ecommerce.productcatalog.application.holds.StockHoldExpiryScheduler;
+import com.carlosoliveira.ecommerce.productcatalog.config.StockHoldProperties;
+import com.carlosoliveira.ecommerce.productcatalog.domain.StockHold;
+import com.carlosoliveira.ecommerce.productcatalog.infrastructure.persistence.StockHoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Stock Hold Service Unit Tests")
+class StockHoldServiceTest {
+
+    private final UUID firstCartId = UUID.randomUUID();
+    private final UUID secondCartId = UUID.randomUUID();
+    private final UUID firstProductId = UUID.randomUUID();
+    private final UUID secondProductId = UUID.randomUUID();
+    private ProductService productService;
+    private StockHoldRepository stockHoldRepository;
+    private CartEventDeduplicator deduplicator;
+    private StockHoldService sut;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        stockHoldRepository = mock(StockHoldRepository.class);
+        when(stockHoldRepository.saveAndFlush(any(StockHold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(productService.reserveStock(anyMap())).thenReturn(Set.of());
+        deduplicator = mock(CartEventDeduplicator.class);
+        sut = new StockHoldService(
+                productService,
+                stockHoldRepository,
+                mock(StockHoldExpiryScheduler.class),
+                new StockHoldProperties(Duration.ofMinutes(15), Duration.ofSeconds(1), 6, 4, 500, true),
+                deduplicator
+        );
+    }
+
+    @Test
+    @DisplayName("Should net a product's changes across carts and give back no more than is still held")
+    void shouldNetPerProductAndClampReleases() {
+        StockHold held = hold(firstCartId, firstProductId, 3);
+
+        Set<UUID> rejected = sut.adjustAll(List.of(
+                new StockAdjustment(firstCartId, firstProductId, -5),
+                new StockAdjustment(secondCartId, firstProductId, 2)
+        ));
+
+        assertThat(rejected).isEmpty();
+        verify(productService).releaseStock(Map.of(firstProductId, 1));
+        verify(productService, never()).reserveStock(anyMap());
+        verify(stockHoldRepository).delete(held);
+        verify(stockHoldRepository).saveAndFlush(argThat(hold ->
+                hold.getCartId().equals(secondCartId) && hold.getQuantity() == 2));
+    }
+
+    @Test
+    @DisplayName("Should leave a rejected product's holds alone and still give back other products")
+    void shouldSkipRejectedProduct() {
+        StockHold firstHeld = hold(firstCartId, firstProductId, 4);
+        StockHold secondHeld = hold(firstCartId, secondProductId, 2);
+        when(productService.reserveStock(Map.of(firstProductId, 4))).thenReturn(Set.of(firstProductId));
+
+        Set<UUID> rejected = sut.adjustAll(List.of(
+                new StockAdjustment(firstCartId, firstProductId, -1),
+                new StockAdjustment(secondCartId, firstProductId, 5),
+                new StockAdjustment(firstCartId, secondProductId, -2)
+        ));
+
+        assertThat(rejected).containsExactly(firstProductId);
+        verify(productService).releaseStock(Map.of(secondProductId, 2));
+        assertThat(firstHeld.getQuantity()).isEqualTo(4);
+        verify(stockHoldRepository).delete(secondHeld);
+        verify(stockHoldRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Should fail the whole adjustment when a product cannot cover it")
+    void shouldFailWholeAdjustmentOnRejection() {
+        when(productService.reserveStock(anyMap())).thenReturn(Set.of(firstProductId));
+
+        assertThatThrownBy(() -> sut.adjust(List.of(new StockAdjustment(firstCartId, firstProductId, 3))))
+                .isInstanceOf(StockReservationException.class);
+    }
+
+    @Test
+    @DisplayName("Should leave out deliveries the deduplicator has seen before")
+    void shouldLeaveOutDuplicates() {
+        var fresh = new CartEventDelivery(new ItemAddedToCartEvent(firstCartId, firstProductId, 2, Instant.now()), "a", 2L);
+        var duplicate = new CartEventDelivery(new ItemAddedToCartEvent(firstCartId, firstProductId, 5, Instant.now()), "b", 1L);
+        when(deduplicator.unapplied(List.of(duplicate, fresh))).thenReturn(List.of(fresh));
+
+        var outcome = sut.applyAll(List.of(duplicate, fresh));
+
+        assertThat(outcome.fresh()).containsExactly(fresh);
+        verify(productService).reserveStock(Map.of(firstProductId, 2));
+        verify(deduplicator).claim(fresh);
+        verify(deduplicator, never()).claim(duplicate);
+    }
+
+    @Test
+    @DisplayName("Should not claim a delivery none of whose adjustments were applied")
+    void shouldNotClaimUnappliedDeliveries() {
+        var rejected = new CartEventDelivery(new ItemAddedToCartEvent(firstCartId, firstProductId, 9, Instant.now()), "a", 1L);
+        var applied = new CartEventDelivery(new ItemAddedToCartEvent(secondCartId, secondProductId, 1, Instant.now()), "b", 1L);
+        when(deduplicator.unapplied(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(productService.reserveStock(anyMap())).thenReturn(Set.of(firstProductId));
+
+        var outcome = sut.applyAll(List.of(rejected, applied));
+
+        assertThat(outcome.rejectedProducts()).containsExactly(firstProductId);
+        assertThat(outcome.isUnapplied(rejected)).isTrue();
+        assertThat(outcome.isUnapplied(applied)).isFalse();
+        verify(deduplicator, never()).claim(rejected);
+        verify(deduplicator).claim(applied);
+    }
+
+    @Test
+    @DisplayName("Should drop checked out holds without giving their stock back")
+    void shouldConfirmCheckedOutHolds() {
+        StockHold firstHeld = hold(firstCartId, firstProductId, 2);
+        StockHold secondHeld = hold(firstCartId, secondProductId, 5);
+        var checkout = new CartEventDelivery(new CartCheckedOutEvent(firstCartId, UUID.randomUUID(), List.of(
+                new CartCheckedOutEvent.CheckoutItem(firstProductId, "First", 2, BigDecimal.ONE, new BigDecimal("2")),
+                new CartCheckedOutEvent.CheckoutItem(secondProductId, "Second", 3, BigDecimal.ONE, new BigDecimal("3"))
+        ), new BigDecimal("5"), Instant.now()), "c", 3L);
+        when(deduplicator.claim(checkout)).thenReturn(true);
+
+        assertThat(sut.apply(checkout)).isTrue();
+
+        verify(stockHoldRepository).delete(firstHeld);
+        verify(stockHoldRepository, never()).delete(secondHeld);
+        assertThat(secondHeld.getQuantity()).isEqualTo(2);
+        verify(productService, never()).releaseStock(anyMap());
+        verify(productService, never()).reserveStock(anyMap());
+    }
+
+    private StockHold hold(UUID cartId, UUID productId, int quantity) {
+        StockHold hold = new StockHold(cartId, productId, quantity, Instant.now().plusSeconds(60));
+        when(stockHoldRepository.findByCartIdAndProductIdForUpdate(cartId, productId)).thenReturn(Optional.of(hold));
+        return hold;
+    }
+}
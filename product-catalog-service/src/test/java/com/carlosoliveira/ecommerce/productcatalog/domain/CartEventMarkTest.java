@@ -0,0 +1,73 @@
+package com.carlosoliveira.ecommerce.productcatalog.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Cart Event Mark Entity Unit Tests")
+class CartEventMarkTest {
+
+    private final CartEventMark mark = new CartEventMark(UUID.randomUUID(), Instant.now());
+
+    @Test
+    @DisplayName("Should move the high-water mark up with consecutive sequences")
+    void shouldAdvanceWithConsecutiveSequences() {
+        mark.record(1, Instant.now());
+        mark.record(2, Instant.now());
+
+        assertThat(mark.getHighWater()).isEqualTo(2);
+        assertThat(mark.getAppliedAbove()).isZero();
+        assertThat(mark.window().isApplied(2)).isTrue();
+        assertThat(mark.window().isApplied(3)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should remember sequences applied above a gap and close it once it fills")
+    void shouldCloseGapOnceItFills() {
+        mark.record(1, Instant.now());
+        mark.record(3, Instant.now());
+        mark.record(4, Instant.now());
+
+        assertThat(mark.getHighWater()).isEqualTo(1);
+        assertThat(mark.window().isAhead(5)).isTrue();
+        assertThat(mark.window().isApplied(2)).isFalse();
+        assertThat(mark.window().isApplied(3)).isTrue();
+        assertThat(mark.window().isApplied(4)).isTrue();
+
+        mark.record(2, Instant.now());
+
+        assertThat(mark.getHighWater()).isEqualTo(4);
+        assertThat(mark.getAppliedAbove()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should give up on missing sequences that fall out of the window")
+    void shouldGiveUpOnSequencesFallingOutOfWindow() {
+        mark.record(1, Instant.now());
+        mark.record(3, Instant.now());
+
+        long farAhead = 2 + CartEventMark.Window.SIZE;
+        mark.record(farAhead, Instant.now());
+
+        // 2 is taken for stale now; 3 was applied and the mark moves past it
+        assertThat(mark.window().isApplied(2)).isTrue();
+        assertThat(mark.getHighWater()).isEqualTo(3);
+        assertThat(mark.window().isApplied(farAhead)).isTrue();
+        assertThat(mark.window().isApplied(farAhead - 1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should leave the window unchanged for sequences already applied")
+    void shouldIgnoreSequencesAlreadyApplied() {
+        mark.record(1, Instant.now());
+        mark.record(3, Instant.now());
+        CartEventMark.Window before = mark.window();
+
+        assertThat(before.with(1)).isEqualTo(before);
+        assertThat(before.with(3)).isEqualTo(before);
+    }
+}
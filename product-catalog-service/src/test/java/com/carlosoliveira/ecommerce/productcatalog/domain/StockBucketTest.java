@@ -0,0 +1,58 @@
+package com.carlosoliveira.ecommerce.productcatalog.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Stock Bucket Entity Unit Tests")
+class StockBucketTest {
+
+    private final UUID productId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should split stock evenly and give the remainder to the first buckets")
+    void shouldSplitStockEvenlyWithRemainderFirst() {
+        List<StockBucket> buckets = StockBucket.split(productId, 10, 4);
+
+        assertThat(buckets).extracting(bucket -> bucket.getStock().getQuantity())
+                .containsExactly(3, 3, 2, 2);
+        assertThat(buckets).extracting(StockBucket::getBucketIndex)
+                .containsExactly(0, 1, 2, 3);
+        assertThat(buckets).allSatisfy(bucket -> assertThat(bucket.getProductId()).isEqualTo(productId));
+    }
+
+    @Test
+    @DisplayName("Should create empty buckets when stock is smaller than the bucket count")
+    void shouldCreateEmptyBucketsWhenStockIsSmall() {
+        List<StockBucket> buckets = StockBucket.split(productId, 1, 3);
+
+        assertThat(buckets).extracting(bucket -> bucket.getStock().getQuantity())
+                .containsExactly(1, 0, 0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1})
+    @DisplayName("Should throw IllegalArgumentException when splitting into fewer than one bucket")
+    void shouldThrowExceptionWhenBucketCountIsInvalid(int invalidCount) {
+        assertThatThrownBy(() -> StockBucket.split(productId, 10, invalidCount))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Bucket count must be at least 1.");
+    }
+
+    @Test
+    @DisplayName("Should propagate IllegalArgumentException from Stock when a bucket runs dry")
+    void shouldPropagateExceptionWhenBucketRunsDry() {
+        StockBucket bucket = new StockBucket(productId, 0, new Stock(2));
+
+        assertThatThrownBy(() -> bucket.decrementStock(3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Insufficient stock.");
+        assertThat(bucket.getStock().getQuantity()).isEqualTo(2);
+    }
+}
@@ -105,6 +105,21 @@ class StockTest {
         assertThat(initialStock.getQuantity()).isEqualTo(100);
     }
 
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 20})
+    @DisplayName("Should accept zero or positive increments without a stock")
+    void shouldAcceptValidIncrementWithoutStock(int amount) {
+        assertThatNoException().isThrownBy(() -> Stock.requireValidIncrement(amount));
+    }
+
+    @Test
+    @DisplayName("Should reject negative increments without a stock")
+    void shouldRejectNegativeIncrementWithoutStock() {
+        assertThatThrownBy(() -> Stock.requireValidIncrement(-1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Increment amount cannot be negative.");
+    }
+
     @Test
     @DisplayName("Should return true when stock is available for the requested amount")
     void shouldReturnTrueWhenStockIsAvailable() {
@@ -0,0 +1,50 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.cache;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductDetailsResponse;
+import com.carlosoliveira.ecommerce.productcatalog.config.ProductCacheProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Product Cache Unit Tests")
+class ProductCacheTest {
+
+    private final UUID productId = UUID.randomUUID();
+    private final ProductCache sut = new ProductCache(new ProductCacheProperties(100, Duration.ofMinutes(1)));
+
+    @Test
+    @DisplayName("Should load once and serve later reads from the cache")
+    void shouldLoadOnceAndServeFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        sut.get(productId, id -> details(id, 1L, loads.incrementAndGet()));
+        ProductDetailsResponse cached = sut.get(productId, id -> details(id, 1L, loads.incrementAndGet()));
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cached.version()).isEqualTo(1L);
+        assertThat(sut.stats().hitCount()).isEqualTo(1);
+        assertThat(sut.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reload the product after it is evicted")
+    void shouldReloadAfterEviction() {
+        sut.get(productId, id -> details(id, 1L, 10));
+
+        sut.evict(productId);
+        ProductDetailsResponse reloaded = sut.get(productId, id -> details(id, 2L, 9));
+
+        assertThat(reloaded.version()).isEqualTo(2L);
+        assertThat(reloaded.stockQuantity()).isEqualTo(9);
+    }
+
+    private ProductDetailsResponse details(UUID id, Long version, int stock) {
+        return new ProductDetailsResponse(id, "Cached Product", new BigDecimal("10.00"), stock, version);
+    }
+}
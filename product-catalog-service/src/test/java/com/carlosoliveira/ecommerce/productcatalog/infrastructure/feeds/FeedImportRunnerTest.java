@@ -0,0 +1,73 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.feeds;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.FeedImportResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.FeedFormat;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.FeedImportService;
+import com.carlosoliveira.ecommerce.productcatalog.config.FeedImportProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Feed Import Runner Unit Tests")
+class FeedImportRunnerTest {
+
+    @TempDir
+    Path directory;
+
+    private final FeedImportService feedImportService = mock(FeedImportService.class);
+
+    @Test
+    @DisplayName("Should import products before stock and exit with 0 when every row is accepted")
+    void shouldExitWithZeroWhenEveryRowIsAccepted() throws Exception {
+        Path products = Files.writeString(directory.resolve("products.csv"), "name\n");
+        Path stock = Files.writeString(directory.resolve("stock.ndjson"), "{}\n");
+        when(feedImportService.importProducts(any(), any())).thenReturn(response(0));
+        when(feedImportService.importStockDeltas(any(), any())).thenReturn(response(0));
+        var sut = new FeedImportRunner(new FeedImportProperties(products, stock), feedImportService);
+
+        sut.run(new DefaultApplicationArguments());
+
+        var inOrder = inOrder(feedImportService);
+        inOrder.verify(feedImportService).importProducts(any(), eq(FeedFormat.CSV));
+        inOrder.verify(feedImportService).importStockDeltas(any(), eq(FeedFormat.NDJSON));
+        assertThat(sut.getExitCode()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should exit with 1 when a row is rejected")
+    void shouldExitWithOneWhenRowIsRejected() throws Exception {
+        Path stock = Files.writeString(directory.resolve("stock.csv"), "productId,delta\n");
+        when(feedImportService.importStockDeltas(any(), any())).thenReturn(response(1));
+        var sut = new FeedImportRunner(new FeedImportProperties(null, stock), feedImportService);
+
+        sut.run(new DefaultApplicationArguments());
+
+        verify(feedImportService, never()).importProducts(any(), any());
+        assertThat(sut.getExitCode()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should exit with 1 when no feed file is configured")
+    void shouldExitWithOneWithoutFiles() throws Exception {
+        var sut = new FeedImportRunner(new FeedImportProperties(null, null), feedImportService);
+
+        sut.run(new DefaultApplicationArguments());
+
+        verifyNoInteractions(feedImportService);
+        assertThat(sut.getExitCode()).isEqualTo(1);
+    }
+
+    private FeedImportResponse response(long rejected) {
+        return new FeedImportResponse(1, rejected, 1 - rejected, 0, rejected > 0 ? List.of("row 1: bad delta") : List.of());
+    }
+}
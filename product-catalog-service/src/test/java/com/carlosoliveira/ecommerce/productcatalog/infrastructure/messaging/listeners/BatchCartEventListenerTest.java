@@ -0,0 +1,151 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.messaging.listeners;
+
+import com.carlosoliveira.ecommerce.common.events.CartEventContract;
+import com.carlosoliveira.ecommerce.productcatalog.application.dedupe.CartEventDeduplicator;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartClearedEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEventBatchOutcome;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEventDelivery;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ItemAddedToCartEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.StockAdjustment;
+import com.carlosoliveira.ecommerce.productcatalog.application.errors.StockReservationException;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.StockHoldService;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Batch Cart Event Listener Unit Tests")
+class BatchCartEventListenerTest {
+
+    private final UUID cartId = UUID.randomUUID();
+    private long sequence;
+    private final UUID firstProductId = UUID.randomUUID();
+    private final UUID secondProductId = UUID.randomUUID();
+    private StockHoldService stockHoldService;
+    private CartEventDeduplicator deduplicator;
+    private Channel channel;
+    private BatchCartEventListener sut;
+
+    @BeforeEach
+    void setUp() {
+        stockHoldService = mock(StockHoldService.class);
+        deduplicator = mock(CartEventDeduplicator.class);
+        channel = mock(Channel.class);
+        sut = new BatchCartEventListener(stockHoldService, deduplicator);
+    }
+
+    @Test
+    @DisplayName("Should apply the whole batch at once, leaving out known duplicates, and acknowledge it")
+    void shouldApplyWholeBatchAtOnce() throws IOException {
+        var added = delivery(event(firstProductId, 2), "added");
+        var duplicate = delivery(event(secondProductId, 1), "duplicate");
+        var cleared = delivery(new CartClearedEvent(cartId, UUID.randomUUID(),
+                List.of(new CartClearedEvent.ClearedItem(firstProductId, 2)), Instant.now()), "cleared");
+        when(deduplicator.isDuplicate(duplicate)).thenReturn(true);
+        rejectInBatch();
+
+        sut.handleCartEvents(messages(added, duplicate, cleared), channel);
+
+        verify(stockHoldService).applyAll(List.of(added, cleared));
+        verify(stockHoldService, never()).adjust(anyList());
+        verify(channel).basicAck(3, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    @DisplayName("Should replay a rejected product per message and dead-letter the ones that still fail")
+    void shouldReplayRejectedProductPerMessage() throws IOException {
+        var fits = delivery(event(firstProductId, 2), "fits");
+        var other = delivery(event(secondProductId, 1), "other");
+        var cleared = delivery(new CartClearedEvent(cartId, UUID.randomUUID(), List.of(
+                new CartClearedEvent.ClearedItem(secondProductId, 1),
+                new CartClearedEvent.ClearedItem(firstProductId, 2)
+        ), Instant.now()), "cleared");
+        var doesNotFit = delivery(event(firstProductId, 9), "does-not-fit");
+        rejectInBatch(firstProductId);
+        when(stockHoldService.apply(doesNotFit)).thenThrow(new StockReservationException(firstProductId));
+
+        sut.handleCartEvents(messages(fits, other, cleared, doesNotFit), channel);
+
+        var inOrder = inOrder(stockHoldService);
+        inOrder.verify(stockHoldService).apply(fits);
+        inOrder.verify(stockHoldService).adjust(List.of(new StockAdjustment(cartId, firstProductId, -2)));
+        inOrder.verify(stockHoldService).apply(doesNotFit);
+        verify(stockHoldService, never()).apply(other);
+        verify(stockHoldService, never()).apply(cleared);
+        verify(channel).basicReject(4, false);
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(2, false);
+        verify(channel).basicAck(3, false);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    @DisplayName("Should requeue an event that fails for any other reason than its stock")
+    void shouldRequeueEventFailingForOtherReasons() throws IOException {
+        var added = delivery(event(firstProductId, 2), "added");
+        var other = delivery(event(secondProductId, 1), "other");
+        rejectInBatch(firstProductId);
+        when(stockHoldService.apply(added)).thenThrow(new IllegalStateException("connection refused"));
+
+        sut.handleCartEvents(messages(added, other), channel);
+
+        verify(channel).basicNack(1, false, true);
+        verify(channel).basicAck(2, false);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    @DisplayName("Should requeue the whole batch when it cannot be applied")
+    void shouldRequeueBatchWhenApplyFails() throws IOException {
+        var added = delivery(event(firstProductId, 2), "added");
+        var other = delivery(event(secondProductId, 1), "other");
+        when(stockHoldService.applyAll(anyList())).thenThrow(new IllegalStateException("connection refused"));
+
+        sut.handleCartEvents(messages(added, other), channel);
+
+        verify(channel).basicNack(2, true, true);
+        verify(channel, never()).basicAck(anyLong(), any(Boolean.class));
+        verify(stockHoldService, never()).apply(any());
+    }
+
+    private void rejectInBatch(UUID... productIds) {
+        when(stockHoldService.applyAll(anyList()))
+                .thenAnswer(invocation -> new CartEventBatchOutcome(invocation.getArgument(0), Set.of(productIds)));
+    }
+
+    private List<Message<CartEvent>> messages(CartEventDelivery... deliveries) {
+        List<Message<CartEvent>> messages = new ArrayList<>();
+        for (CartEventDelivery delivery : deliveries) {
+            messages.add(MessageBuilder.withPayload(delivery.event())
+                    .setHeader(AmqpHeaders.MESSAGE_ID, delivery.eventId())
+                    .setHeader(CartEventContract.SEQUENCE_HEADER, delivery.sequence())
+                    .setHeader(AmqpHeaders.DELIVERY_TAG, (long) messages.size() + 1)
+                    .build());
+        }
+        return messages;
+    }
+
+    private CartEventDelivery delivery(CartEvent event, String eventId) {
+        return new CartEventDelivery(event, eventId, ++sequence);
+    }
+
+    private ItemAddedToCartEvent event(UUID productId, int quantity) {
+        return new ItemAddedToCartEvent(cartId, productId, quantity, Instant.now());
+    }
+}
@@ -0,0 +1,68 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.messaging.listeners;
+
+import com.carlosoliveira.ecommerce.productcatalog.config.CartEventsProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Cart Event Partition Balancer Unit Tests")
+class CartEventPartitionBalancerTest {
+
+    private AmqpAdmin amqpAdmin;
+    private DirectMessageListenerContainer container;
+    private CartEventPartitionBalancer sut;
+
+    @BeforeEach
+    void setUp() {
+        amqpAdmin = mock(AmqpAdmin.class);
+        container = mock(DirectMessageListenerContainer.class);
+        RabbitListenerEndpointRegistry registry = mock(RabbitListenerEndpointRegistry.class);
+        when(registry.getListenerContainer(PartitionedCartEventListener.LISTENER_ID)).thenReturn(container);
+        sut = new CartEventPartitionBalancer(
+                registry, amqpAdmin, new CartEventsProperties("partitioned", 100, Duration.ofMillis(50), 8, Duration.ZERO,
+                        new CartEventsProperties.Dedupe(100, Duration.ofDays(7))));
+    }
+
+    @Test
+    @DisplayName("Should hand off the partitions beyond this instance's share once another instance joins")
+    void shouldHandOffExcessPartitions() {
+        instances(2);
+        for (int i = 0; i < 6; i++) {
+            sut.delivered("cart_events_partition_" + i);
+        }
+
+        assertThat(sut.rebalance()).containsExactly("cart_events_partition_4", "cart_events_partition_5");
+
+        verify(container).removeQueueNames("cart_events_partition_4");
+        verify(container).addQueueNames("cart_events_partition_4");
+        verify(container).removeQueueNames("cart_events_partition_5");
+        verify(container).addQueueNames("cart_events_partition_5");
+    }
+
+    @Test
+    @DisplayName("Should keep partitions within its share and forget deliveries between rounds")
+    void shouldKeepFairShare() {
+        instances(2);
+        for (int i = 0; i < 4; i++) {
+            sut.delivered("cart_events_partition_" + i);
+        }
+
+        assertThat(sut.rebalance()).isEmpty();
+        assertThat(sut.rebalance()).isEmpty();
+        verifyNoInteractions(container);
+    }
+
+    private void instances(int count) {
+        when(amqpAdmin.getQueueInfo(anyString())).thenReturn(new QueueInformation("cart_events_partition_0", 0, count));
+    }
+}
@@ -0,0 +1,99 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.messaging.listeners;
+
+import com.carlosoliveira.ecommerce.common.events.CartEventContract;
+import com.carlosoliveira.ecommerce.productcatalog.application.dedupe.CartEventDeduplicator;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.CartEventDelivery;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ItemAddedToCartEvent;
+import com.carlosoliveira.ecommerce.productcatalog.application.errors.StockReservationException;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.StockHoldService;
+import com.carlosoliveira.ecommerce.productcatalog.config.RabbitMQConfig;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+@DisplayName("Partitioned Cart Event Listener Unit Tests")
+class PartitionedCartEventListenerTest {
+
+    private static final String PARTITION = RabbitMQConfig.CART_EVENTS_PARTITION_QUEUE_PREFIX + 3;
+
+    private final ItemAddedToCartEvent event = new ItemAddedToCartEvent(UUID.randomUUID(), UUID.randomUUID(), 2, Instant.now());
+    private final Message<CartEvent> message = MessageBuilder.<CartEvent>withPayload(event)
+            .setHeader(CartEventContract.PARTITION_KEY_HEADER, event.productId().toString())
+            .setHeader(AmqpHeaders.MESSAGE_ID, "event-7")
+            .setHeader(CartEventContract.SEQUENCE_HEADER, 7L)
+            .build();
+    private final CartEventDelivery delivery = new CartEventDelivery(event, "event-7", 7L);
+    private StockHoldService stockHoldService;
+    private Channel channel;
+    private CartEventPartitionBalancer balancer;
+    private CartEventDeduplicator deduplicator;
+    private PartitionedCartEventListener sut;
+
+    @BeforeEach
+    void setUp() {
+        stockHoldService = mock(StockHoldService.class);
+        channel = mock(Channel.class);
+        balancer = mock(CartEventPartitionBalancer.class);
+        deduplicator = mock(CartEventDeduplicator.class);
+        sut = new PartitionedCartEventListener(stockHoldService, balancer, deduplicator);
+    }
+
+    @Test
+    @DisplayName("Should apply the event, acknowledge it and record which partition delivered it")
+    void shouldAdjustAndRecordPartition() throws IOException {
+        sut.handleCartEvent(message, PARTITION, 11L, channel);
+
+        verify(stockHoldService).apply(delivery);
+        verify(balancer).delivered(PARTITION);
+        verify(channel).basicAck(11L, false);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    @DisplayName("Should reject an event whose stock is short so the broker dead-letters it as delivered")
+    void shouldRejectShortStock() throws IOException {
+        doThrow(new StockReservationException(event.productId()))
+                .when(stockHoldService).apply(delivery);
+
+        sut.handleCartEvent(message, PARTITION, 11L, channel);
+
+        verify(channel).basicReject(11L, false);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    @DisplayName("Should requeue an event that failed for any other reason")
+    void shouldRequeueOtherFailures() throws IOException {
+        doThrow(new CannotCreateTransactionException("Connection refused"))
+                .when(stockHoldService).apply(delivery);
+
+        sut.handleCartEvent(message, PARTITION, 11L, channel);
+
+        verify(channel).basicNack(11L, false, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    @DisplayName("Should acknowledge an event already applied without touching stock")
+    void shouldDropKnownDuplicate() throws IOException {
+        when(deduplicator.isDuplicate(delivery)).thenReturn(true);
+
+        sut.handleCartEvent(message, PARTITION, 11L, channel);
+
+        verify(balancer).delivered(PARTITION);
+        verify(channel).basicAck(11L, false);
+        verifyNoInteractions(stockHoldService);
+    }
+}
@@ -0,0 +1,65 @@
+package com.carlosoliveira.ecommerce.productcatalog.infrastructure.messaging.listeners;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.GetProductDetailsWithStockRequest;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.GetProductsDetailsWithStockRequest;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductDetailsResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductDetailsWithStockResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Product RPC Listener Unit Tests")
+class ProductRpcListenerTest {
+
+    private final UUID productId = UUID.randomUUID();
+    private final ProductDetailsResponse product =
+            new ProductDetailsResponse(productId, "Laptop", new BigDecimal("999.90"), 5, 0L);
+    private ProductService productService;
+    private ProductRpcListener sut;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        sut = new ProductRpcListener(productService);
+    }
+
+    @Test
+    @DisplayName("Should answer a single query with the product and its stock")
+    void shouldAnswerSingleQuery() {
+        when(productService.getProducts(List.of(productId))).thenReturn(Map.of(productId, product));
+
+        var response = sut.getProductDetailsWithStock(new GetProductDetailsWithStockRequest(productId, 3));
+
+        assertThat(response).isEqualTo(new ProductDetailsWithStockResponse(product, true, 5));
+    }
+
+    @Test
+    @DisplayName("Should answer a batch in request order with one lookup")
+    void shouldAnswerBatchInOrder() {
+        UUID unknownId = UUID.randomUUID();
+        when(productService.getProducts(anyCollection())).thenReturn(Map.of(productId, product));
+
+        var response = sut.getProductsDetailsWithStock(new GetProductsDetailsWithStockRequest(List.of(
+                new GetProductDetailsWithStockRequest(productId, 9),
+                new GetProductDetailsWithStockRequest(unknownId, 1),
+                new GetProductDetailsWithStockRequest(productId, 5)
+        )));
+
+        assertThat(response.items()).containsExactly(
+                new ProductDetailsWithStockResponse(product, false, 5),
+                new ProductDetailsWithStockResponse(null, false, 0),
+                new ProductDetailsWithStockResponse(product, true, 5)
+        );
+        verify(productService, times(1)).getProducts(anyCollection());
+    }
+}
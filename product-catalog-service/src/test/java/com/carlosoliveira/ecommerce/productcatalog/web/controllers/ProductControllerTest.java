@@ -0,0 +1,123 @@
+package com.carlosoliveira.ecommerce.productcatalog.web.controllers;
+
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.ProductDetailsResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.dtos.StockCheckResponse;
+import com.carlosoliveira.ecommerce.productcatalog.application.services.ProductService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ProductController.class)
+@DisplayName("Product Controller Tests")
+class ProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProductService productService;
+
+    @Test
+    @DisplayName("Should check the stock of every requested product")
+    void shouldCheckStock() throws Exception {
+        UUID productId = UUID.randomUUID();
+        when(productService.checkStock(anyCollection())).thenReturn(Map.of(productId, new StockCheckResponse(true, 7)));
+
+        mockMvc.perform(post("/products/stock-checks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(stockChecks(1, "\"" + productId + "\"", 2)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + productId + "'].hasStock").value(true))
+                .andExpect(jsonPath("$['" + productId + "'].availableQuantity").value(7));
+    }
+
+    @Test
+    @DisplayName("Should reject a stock check without a product or with a non-positive quantity")
+    void shouldRejectInvalidStockCheck() throws Exception {
+        mockMvc.perform(post("/products/stock-checks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(stockChecks(1, "null", 0)))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).checkStock(any());
+    }
+
+    @Test
+    @DisplayName("Should reject more than 500 stock checks in one request")
+    void shouldRejectOversizedBatch() throws Exception {
+        mockMvc.perform(post("/products/stock-checks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(stockChecks(501, "\"" + UUID.randomUUID() + "\"", 1)))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).checkStock(any());
+    }
+
+    @Test
+    @DisplayName("Should stream every product as one JSON line")
+    void shouldExportProductsAsNdjson() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        doAnswer(invocation -> {
+            Consumer<ProductDetailsResponse> consumer = invocation.getArgument(0);
+            consumer.accept(new ProductDetailsResponse(first, "Keyboard", new BigDecimal("49.99"), 3, 1L));
+            consumer.accept(new ProductDetailsResponse(second, "Mouse", new BigDecimal("19.99"), 0, 2L));
+            return null;
+        }).when(productService).exportProducts(any());
+
+        String body = export();
+
+        assertThat(body.lines().toList()).hasSize(2);
+        assertThat(body.lines().toList().getFirst()).contains(first.toString(), "\"Keyboard\"", "\"stockQuantity\":3");
+        assertThat(body.lines().toList().getLast()).contains(second.toString(), "\"Mouse\"", "\"stockQuantity\":0");
+    }
+
+    @Test
+    @DisplayName("Should answer an empty catalog with an empty body")
+    void shouldExportEmptyCatalog() throws Exception {
+        assertThat(export()).isEmpty();
+    }
+
+    private String export() throws Exception {
+        MvcResult started = mockMvc.perform(get("/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+
+    private String stockChecks(int count, String productId, int quantity) {
+        String check = "{\"productId\":" + productId + ",\"quantity\":" + quantity + "}";
+        return "[" + String.join(",", Collections.nCopies(count, check)) + "]";
+    }
+}
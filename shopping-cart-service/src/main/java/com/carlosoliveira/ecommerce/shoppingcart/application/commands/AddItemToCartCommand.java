@@ -9,5 +9,5 @@ public record AddItemToCartCommand(
         String productName,
         BigDecimal price,
         int quantity
-) {
+) implements CartCommand {
 }
@@ -0,0 +1,12 @@
+package com.carlosoliveira.ecommerce.shoppingcart.application.commands;
+
+import java.util.UUID;
+
+/**
+ * A command that changes one line of one user's cart.
+ */
+public sealed interface CartCommand permits AddItemToCartCommand, UpdateCartItemQuantityCommand {
+    UUID userId();
+
+    UUID productId();
+}
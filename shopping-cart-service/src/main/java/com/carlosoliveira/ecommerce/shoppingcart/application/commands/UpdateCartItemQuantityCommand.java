@@ -6,7 +6,7 @@ public record UpdateCartItemQuantityCommand(
         UUID userId,
         UUID productId,
         int newQuantity
-) {
+) implements CartCommand {
     public UpdateCartItemQuantityCommand {
         if (newQuantity < 0) {
             throw new IllegalArgumentException("Quantity cannot be negative");
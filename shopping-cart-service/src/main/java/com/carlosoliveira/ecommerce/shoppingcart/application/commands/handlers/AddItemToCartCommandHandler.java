@@ -2,7 +2,7 @@ package com.carlosoliveira.ecommerce.shoppingcart.application.commands.handlers;
 
 import com.carlosoliveira.ecommerce.common.valueObjects.Money;
 
-import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartRepository;
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartStore;
 import com.carlosoliveira.ecommerce.shoppingcart.application.commands.AddItemToCartCommand;
 import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CommandHandler;
 import com.carlosoliveira.ecommerce.shoppingcart.domain.Cart;
@@ -15,27 +15,35 @@ import java.util.Currency;
 
 @Slf4j
 @Component
-@Transactional
 public class AddItemToCartCommandHandler implements CommandHandler<AddItemToCartCommand> {
 
-    private final CartRepository cartRepository;
+    private final CartStore cartStore;
     private final ApplicationEventPublisher eventPublisher;
 
     public AddItemToCartCommandHandler(
-            CartRepository cartRepository,
+            CartStore cartStore,
             ApplicationEventPublisher eventPublisher) {
-        this.cartRepository = cartRepository;
+        this.cartStore = cartStore;
         this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
     public void handle(AddItemToCartCommand command) {
-        Cart cart = cartRepository.findByUserIdWithItems(command.userId())
-                .orElse(null);
+        Cart cart = apply(cartStore.loadForUpdate(command.userId(), command.productId()).orElse(null), command);
 
+        cartStore.save(cart);
+
+        cart.domainEvents().forEach(eventPublisher::publishEvent);
+        cart.clearDomainEvents();
+    }
+
+    /**
+     * Adds the item to {@code cart}, or to a new cart when the user has none yet, without saving it.
+     */
+    public Cart apply(Cart cart, AddItemToCartCommand command) {
         if (cart == null) {
-            cart = new Cart(command.userId());
-            cart = cartRepository.save(cart);
+            cart = cartStore.create(command.userId());
         }
 
         Money money = new Money(command.price(), Currency.getInstance("USD"));
@@ -45,10 +53,6 @@ public class AddItemToCartCommandHandler implements CommandHandler<AddItemToCart
                 money,
                 command.quantity()
         );
-
-        cartRepository.save(cart);
-
-        cart.domainEvents().forEach(eventPublisher::publishEvent);
-        cart.clearDomainEvents();
+        return cart;
     }
 }
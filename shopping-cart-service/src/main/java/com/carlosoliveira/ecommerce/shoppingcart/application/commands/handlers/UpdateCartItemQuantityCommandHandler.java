@@ -1,32 +1,43 @@
 package com.carlosoliveira.ecommerce.shoppingcart.application.commands.handlers;
 
-import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartRepository;
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartStore;
 import com.carlosoliveira.ecommerce.shoppingcart.application.commands.UpdateCartItemQuantityCommand;
 import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CommandHandler;
 import com.carlosoliveira.ecommerce.shoppingcart.domain.Cart;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 @Component
 public class UpdateCartItemQuantityCommandHandler implements CommandHandler<UpdateCartItemQuantityCommand> {
 
-    private final CartRepository cartRepository;
+    private final CartStore cartStore;
     private final ApplicationEventPublisher eventPublisher;
 
-    public UpdateCartItemQuantityCommandHandler(CartRepository cartRepository, ApplicationEventPublisher eventPublisher) {
-        this.cartRepository = cartRepository;
+    public UpdateCartItemQuantityCommandHandler(CartStore cartStore, ApplicationEventPublisher eventPublisher) {
+        this.cartStore = cartStore;
         this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
     public void handle(UpdateCartItemQuantityCommand command) {
-        Cart cart = cartRepository.findByUserIdWithItems(command.userId())
-                .orElseThrow(() -> new IllegalStateException("Cart not found"));
-        cart.updateItemQuantity(command.productId(), command.newQuantity());
+        Cart cart = apply(cartStore.loadForUpdate(command.userId(), command.productId()).orElse(null), command);
 
-        cartRepository.save(cart);
+        cartStore.save(cart);
 
         cart.domainEvents().forEach(eventPublisher::publishEvent);
         cart.clearDomainEvents();
     }
+
+    /**
+     * Changes the quantity on {@code cart} without saving it.
+     */
+    public Cart apply(Cart cart, UpdateCartItemQuantityCommand command) {
+        if (cart == null) {
+            throw new IllegalStateException("Cart not found");
+        }
+        cart.updateItemQuantity(command.productId(), command.newQuantity());
+        return cart;
+    }
 }
@@ -0,0 +1,13 @@
+package com.carlosoliveira.ecommerce.shoppingcart.application.dtos;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record CartItemResponse(
+        UUID productId,
+        String productName,
+        BigDecimal price,
+        int quantity,
+        BigDecimal subtotal
+) {
+}
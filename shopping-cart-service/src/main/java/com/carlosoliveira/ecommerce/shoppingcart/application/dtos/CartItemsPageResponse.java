@@ -0,0 +1,11 @@
+package com.carlosoliveira.ecommerce.shoppingcart.application.dtos;
+
+import java.util.List;
+
+public record CartItemsPageResponse(
+        List<CartItemResponse> items,
+        int page,
+        int size,
+        boolean hasNext
+) {
+}
@@ -0,0 +1,12 @@
+package com.carlosoliveira.ecommerce.shoppingcart.application.dtos;
+
+public record OutboxStatsResponse(
+        long pending,
+        long oldestPendingAgeMillis,
+        long publishedCount,
+        long batchCount,
+        long failedBatchCount,
+        long lastPublishLagMillis,
+        int unconfirmed,
+        long resentCount
+) {}
@@ -0,0 +1,6 @@
+package com.carlosoliveira.ecommerce.shoppingcart.application.dtos;
+
+public record UpdateItemQuantityRequest(
+        int quantity
+) {
+}
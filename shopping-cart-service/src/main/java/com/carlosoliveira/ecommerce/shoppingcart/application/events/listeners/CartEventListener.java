@@ -1,8 +1,10 @@
 package com.carlosoliveira.ecommerce.shoppingcart.application.events.listeners;
 
 import com.carlosoliveira.ecommerce.shoppingcart.application.ports.EventPublisher;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.CartClearedEvent;
 import com.carlosoliveira.ecommerce.shoppingcart.domain.events.CartItemQuantityUpdatedEvent;
 import com.carlosoliveira.ecommerce.shoppingcart.domain.events.ItemAddedToCartEvent;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.ItemRemovedFromCartEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
@@ -22,4 +24,14 @@ public class CartEventListener {
     public void onCartItemQuantityUpdated(CartItemQuantityUpdatedEvent event) {
         eventPublisher.publish(event);
     }
+
+    @EventListener
+    public void onItemRemovedFromCart(ItemRemovedFromCartEvent event) {
+        eventPublisher.publish(event);
+    }
+
+    @EventListener
+    public void onCartCleared(CartClearedEvent event) {
+        eventPublisher.publish(event);
+    }
 }
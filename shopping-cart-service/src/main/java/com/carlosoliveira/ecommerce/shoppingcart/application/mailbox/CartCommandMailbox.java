@@ -0,0 +1,297 @@
+package com.carlosoliveira.ecommerce.shoppingcart.application.mailbox;
+
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.AddItemToCartCommand;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.CartCommand;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.UpdateCartItemQuantityCommand;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.handlers.AddItemToCartCommandHandler;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.handlers.UpdateCartItemQuantityCommandHandler;
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartStore;
+import com.carlosoliveira.ecommerce.shoppingcart.config.CartMailboxProperties;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.Cart;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serializes cart commands per user. Users are hashed onto a fixed set of mailboxes; a mailbox is
+ * drained by at most one worker at a time, so two commands for the same cart never race on its
+ * version, while different mailboxes are drained in parallel.
+ * <p>
+ * Whatever has queued up in a mailbox by the time a worker gets to it is applied in one transaction,
+ * loading and saving each cart once. A command the domain rejects fails on its own; the rest of the
+ * batch still commits. If the commit itself fails, each command is retried in its own transaction.
+ * <p>
+ * Workers are virtual threads when {@code spring.threads.virtual.enabled} is set. Their number is
+ * fixed either way, so it keeps bounding the connections the mailboxes hold at once.
+ * <p>
+ * Each command is timed from submission to its outcome in {@code cart.commands}, tagged with the command
+ * and whether it was applied, rejected by the domain or failed; {@code cart.mailbox.queued} counts the
+ * commands waiting for a worker.
+ */
+@Slf4j
+@Component
+public class CartCommandMailbox implements SmartLifecycle {
+
+    private final CartStore cartStore;
+    private final AddItemToCartCommandHandler addItemToCart;
+    private final UpdateCartItemQuantityCommandHandler updateCartItemQuantity;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final CartMailboxProperties properties;
+    private final Mailbox[] mailboxes;
+    private final boolean virtualThreads;
+    private final Meter.MeterProvider<Timer> commandTimer;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    public CartCommandMailbox(
+            CartStore cartStore,
+            AddItemToCartCommandHandler addItemToCart,
+            UpdateCartItemQuantityCommandHandler updateCartItemQuantity,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            CartMailboxProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry) {
+        this.cartStore = cartStore;
+        this.addItemToCart = addItemToCart;
+        this.updateCartItemQuantity = updateCartItemQuantity;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        this.commandTimer = Timer.builder("cart.commands")
+                .description("Cart commands from submission until committed or turned down")
+                .withRegistry(meterRegistry);
+        Gauge.builder("cart.mailbox.queued", queued, AtomicInteger::get)
+                .description("Cart commands waiting for a mailbox worker")
+                .register(meterRegistry);
+        this.mailboxes = new Mailbox[properties.mailboxes()];
+        for (int i = 0; i < mailboxes.length; i++) {
+            mailboxes[i] = new Mailbox();
+        }
+    }
+
+    /**
+     * @return completes once the command is committed, or exceptionally with the reason it was rejected
+     */
+    public CompletableFuture<Void> submit(CartCommand command) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Cart mailbox is not running"));
+        }
+        Envelope envelope = new Envelope(command, new CompletableFuture<>(), System.nanoTime());
+        mailboxFor(command.userId()).enqueue(envelope);
+        return envelope.result();
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("cart-mailbox-", 1).factory()
+                : r -> new Thread(r, "cart-mailbox-" + threadNumber.incrementAndGet());
+        workers = Executors.newFixedThreadPool(properties.workers(), threadFactory);
+        running = true;
+    }
+
+    /**
+     * Stops taking commands and waits for those already queued.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Cart mailboxes did not drain within 30s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server and before the cart store, which may still have writes to flush.
+     */
+    @Override
+    public int getPhase() {
+        return 1;
+    }
+
+    private Mailbox mailboxFor(UUID userId) {
+        return mailboxes[(userId.hashCode() & Integer.MAX_VALUE) % mailboxes.length];
+    }
+
+    private void process(List<Envelope> batch) {
+        Map<UUID, List<Envelope>> byUser = new LinkedHashMap<>();
+        for (Envelope envelope : batch) {
+            byUser.computeIfAbsent(envelope.command().userId(), userId -> new ArrayList<>()).add(envelope);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> byUser.forEach((userId, envelopes) -> {
+                Cart cart = applyAll(userId, envelopes);
+                if (cart != null) {
+                    cartStore.save(cart);
+                    // Inside the transaction, so the outbox rows commit or roll back with the carts.
+                    cart.domainEvents().forEach(eventPublisher::publishEvent);
+                    cart.clearDomainEvents();
+                }
+            }));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.getFirst(), e);
+                return;
+            }
+            log.warn("Failed to commit {} cart commands together, retrying one by one: {}", batch.size(), e.getMessage());
+            batch.forEach(envelope -> process(List.of(envelope)));
+            return;
+        }
+
+        for (Envelope envelope : batch) {
+            if (envelope.rejection() == null) {
+                envelope.result().complete(null);
+                record(envelope, "applied");
+            } else {
+                envelope.result().completeExceptionally(envelope.rejection());
+                record(envelope, "rejected");
+            }
+        }
+    }
+
+    private void fail(Envelope envelope, RuntimeException e) {
+        envelope.result().completeExceptionally(e);
+        record(envelope, "failed");
+    }
+
+    private void record(Envelope envelope, String outcome) {
+        String command = switch (envelope.command()) {
+            case AddItemToCartCommand add -> "add_item";
+            case UpdateCartItemQuantityCommand update -> "update_quantity";
+        };
+        commandTimer.withTags("command", command, "outcome", outcome)
+                .record(System.nanoTime() - envelope.submittedAt(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the cart to save, or {@code null} if every command was rejected before a cart existed
+     */
+    private Cart applyAll(UUID userId, List<Envelope> envelopes) {
+        List<UUID> productIds = envelopes.stream().map(envelope -> envelope.command().productId()).distinct().toList();
+        Cart cart = cartStore.loadForUpdate(userId, productIds).orElse(null);
+        boolean changed = false;
+        for (Envelope envelope : envelopes) {
+            envelope.rejection(null);
+            try {
+                cart = switch (envelope.command()) {
+                    case AddItemToCartCommand add -> addItemToCart.apply(cart, add);
+                    case UpdateCartItemQuantityCommand update -> updateCartItemQuantity.apply(cart, update);
+                };
+                changed = true;
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                envelope.rejection(e);
+            }
+        }
+        return changed ? cart : null;
+    }
+
+    private final class Mailbox {
+
+        private final Queue<Envelope> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        void enqueue(Envelope envelope) {
+            queue.add(envelope);
+            queued.incrementAndGet();
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    workers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down: finish what was accepted on the calling thread.
+                    drain();
+                }
+            }
+        }
+
+        private void drain() {
+            List<Envelope> batch = new ArrayList<>(properties.maxBatchSize());
+            Envelope next;
+            while (batch.size() < properties.maxBatchSize() && (next = queue.poll()) != null) {
+                batch.add(next);
+            }
+            queued.addAndGet(-batch.size());
+            try {
+                if (!batch.isEmpty()) {
+                    process(batch);
+                }
+            } catch (RuntimeException e) {
+                log.error("Unexpected failure applying cart commands", e);
+                batch.forEach(envelope -> fail(envelope, e));
+            } finally {
+                scheduled.set(false);
+                if (!queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+
+    private static final class Envelope {
+
+        private final CartCommand command;
+        private final CompletableFuture<Void> result;
+        private final long submittedAt;
+        private RuntimeException rejection;
+
+        Envelope(CartCommand command, CompletableFuture<Void> result, long submittedAt) {
+            this.command = command;
+            this.result = result;
+            this.submittedAt = submittedAt;
+        }
+
+        CartCommand command() {
+            return command;
+        }
+
+        CompletableFuture<Void> result() {
+            return result;
+        }
+
+        long submittedAt() {
+            return submittedAt;
+        }
+
+        RuntimeException rejection() {
+            return rejection;
+        }
+
+        void rejection(RuntimeException rejection) {
+            this.rejection = rejection;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.carlosoliveira.ecommerce.shoppingcart.application.ports;
+
+import com.carlosoliveira.ecommerce.shoppingcart.domain.CartItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CartItemRepository extends JpaRepository<CartItem, UUID> {
+    Optional<CartItem> findByCartIdAndProductId(UUID cartId, UUID productId);
+
+    List<CartItem> findByCartIdAndProductIdIn(UUID cartId, Collection<UUID> productIds);
+
+    Slice<CartItem> findByCartId(UUID cartId, Pageable pageable);
+}
@@ -0,0 +1,39 @@
+package com.carlosoliveira.ecommerce.shoppingcart.application.ports;
+
+import com.carlosoliveira.ecommerce.shoppingcart.domain.Cart;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.CartItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Loads and saves whole {@link Cart} aggregates, independently of how they are laid out in the database.
+ * Selected with {@code shopping-cart.storage.mode}.
+ */
+public interface CartStore {
+
+    /**
+     * Loads the cart of {@code userId} with at least the line of {@code productId} attached, if it has one.
+     */
+    default Optional<Cart> loadForUpdate(UUID userId, UUID productId) {
+        return loadForUpdate(userId, List.of(productId));
+    }
+
+    /**
+     * Loads the cart of {@code userId} with at least the lines of {@code productIds} attached, where it has them.
+     */
+    Optional<Cart> loadForUpdate(UUID userId, Collection<UUID> productIds);
+
+    Cart create(UUID userId);
+
+    /**
+     * Writes a cart obtained from {@link #loadForUpdate} or {@link #create}. Each loaded instance is saved once.
+     */
+    void save(Cart cart);
+
+    Slice<CartItem> findItems(UUID userId, Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.carlosoliveira.ecommerce.shoppingcart.application.ports;
+
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.CartClearedEvent;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.CartItemQuantityUpdatedEvent;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.ItemAddedToCartEvent;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.ItemRemovedFromCartEvent;
+
+public interface EventPublisher {
+    void publish(ItemAddedToCartEvent event);
+
+    void publish(CartItemQuantityUpdatedEvent event);
+
+    void publish(ItemRemovedFromCartEvent event);
+
+    void publish(CartClearedEvent event);
+}
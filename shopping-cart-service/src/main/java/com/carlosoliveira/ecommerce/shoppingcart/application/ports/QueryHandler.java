@@ -0,0 +1,5 @@
+package com.carlosoliveira.ecommerce.shoppingcart.application.ports;
+
+public interface QueryHandler<Q, R> {
+    R handle(Q query);
+}
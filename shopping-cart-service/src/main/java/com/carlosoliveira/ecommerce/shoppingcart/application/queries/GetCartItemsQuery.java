@@ -0,0 +1,10 @@
+package com.carlosoliveira.ecommerce.shoppingcart.application.queries;
+
+import java.util.UUID;
+
+public record GetCartItemsQuery(
+        UUID userId,
+        int page,
+        int size
+) {
+}
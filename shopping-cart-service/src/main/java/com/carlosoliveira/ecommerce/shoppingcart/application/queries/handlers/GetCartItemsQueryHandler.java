@@ -0,0 +1,57 @@
+package com.carlosoliveira.ecommerce.shoppingcart.application.queries.handlers;
+
+import com.carlosoliveira.ecommerce.shoppingcart.application.dtos.CartItemResponse;
+import com.carlosoliveira.ecommerce.shoppingcart.application.dtos.CartItemsPageResponse;
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartStore;
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.QueryHandler;
+import com.carlosoliveira.ecommerce.shoppingcart.application.queries.GetCartItemsQuery;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.CartItem;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Reads a cart one page of lines at a time. In relational storage pages are slices ordered by line id,
+ * so large carts are never materialized as a whole and no count query is issued.
+ */
+@Component
+@Transactional(readOnly = true)
+public class GetCartItemsQueryHandler implements QueryHandler<GetCartItemsQuery, CartItemsPageResponse> {
+
+    static final int MAX_PAGE_SIZE = 500;
+
+    private final CartStore cartStore;
+
+    public GetCartItemsQueryHandler(CartStore cartStore) {
+        this.cartStore = cartStore;
+    }
+
+    @Override
+    public CartItemsPageResponse handle(GetCartItemsQuery query) {
+        if (query.page() < 0) {
+            throw new IllegalArgumentException("Page cannot be negative");
+        }
+        if (query.size() <= 0 || query.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Slice<CartItem> slice = cartStore.findItems(
+                query.userId(),
+                PageRequest.of(query.page(), query.size(), Sort.by("id"))
+        );
+        List<CartItemResponse> items = slice.getContent().stream()
+                .map(item -> new CartItemResponse(
+                        item.getProductId(),
+                        item.getProductName(),
+                        item.getPrice().getAmount(),
+                        item.getQuantity(),
+                        item.subtotal().getAmount()
+                ))
+                .toList();
+        return new CartItemsPageResponse(items, query.page(), query.size(), slice.hasNext());
+    }
+}
@@ -0,0 +1,16 @@
+package com.carlosoliveira.ecommerce.shoppingcart.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * @param format                {@code binary} or {@code json}; how events are written. Both are always read,
+ *                              so switch to {@code binary} only once every consumer reads it
+ * @param compressionThreshold  binary bodies larger than this are deflated
+ */
+@ConfigurationProperties(prefix = "shopping-cart.events")
+public record CartEventsProperties(
+        @DefaultValue("json") String format,
+        @DefaultValue("1KB") DataSize compressionThreshold
+) {}
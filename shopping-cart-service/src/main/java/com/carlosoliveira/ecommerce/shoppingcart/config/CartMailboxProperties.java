@@ -0,0 +1,16 @@
+package com.carlosoliveira.ecommerce.shoppingcart.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param mailboxes     mailboxes users are hashed onto; users sharing one wait for each other
+ * @param workers       threads draining mailboxes, and so the number of carts changed and connections held at once
+ * @param maxBatchSize  queued commands of one mailbox applied in a single transaction
+ */
+@ConfigurationProperties(prefix = "shopping-cart.mailbox")
+public record CartMailboxProperties(
+        @DefaultValue("1024") int mailboxes,
+        @DefaultValue("8") int workers,
+        @DefaultValue("64") int maxBatchSize
+) {}
@@ -0,0 +1,35 @@
+package com.carlosoliveira.ecommerce.shoppingcart.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param mode                    {@code relational}, {@code document} or {@code write-behind}; picks the {@code CartStore} bean
+ * @param migrateRelationalCarts  copy relational carts into {@code cart_documents} on startup
+ * @param migrationBatchSize      carts migrated per transaction
+ */
+@ConfigurationProperties(prefix = "shopping-cart.storage")
+public record CartStorageProperties(
+        @DefaultValue("relational") String mode,
+        @DefaultValue("false") boolean migrateRelationalCarts,
+        @DefaultValue("500") int migrationBatchSize,
+        @DefaultValue WriteBehind writeBehind
+) {
+    /**
+     * @param maxCarts        carts kept in memory; the least recently used clean ones are evicted beyond this
+     * @param maxPending      carts with unwritten changes; saves block for up to {@code enqueueTimeout} once reached
+     * @param flushInterval   how long a change may stay in memory only, and so how much is lost on a crash;
+     *                        {@code 0} writes every save through to the database before returning
+     * @param flushBatchSize  carts written per transaction; a flush also starts as soon as this many are pending
+     * @param enqueueTimeout  how long a save waits for room in the queue before failing
+     */
+    public record WriteBehind(
+            @DefaultValue("10000") int maxCarts,
+            @DefaultValue("10000") int maxPending,
+            @DefaultValue("200ms") Duration flushInterval,
+            @DefaultValue("500") int flushBatchSize,
+            @DefaultValue("5s") Duration enqueueTimeout
+    ) {}
+}
@@ -0,0 +1,25 @@
+package com.carlosoliveira.ecommerce.shoppingcart.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param relayEnabled    run the relay in this instance; rows are still written when off
+ * @param batchSize       messages published, confirmed and deleted per round
+ * @param pollInterval    how often the relay looks for rows written by other instances; commits here wake it at once
+ * @param confirmTimeout  how long to wait for the broker to confirm a batch before retrying it
+ * @param retryBackoff    pause after a failed round
+ * @param coalesceWindow  how long a quantity update waits for further updates of the same line to fold into it;
+ *                        {@code 0} publishes every update
+ */
+@ConfigurationProperties(prefix = "shopping-cart.outbox")
+public record OutboxProperties(
+        @DefaultValue("true") boolean relayEnabled,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("1s") Duration pollInterval,
+        @DefaultValue("5s") Duration confirmTimeout,
+        @DefaultValue("1s") Duration retryBackoff,
+        @DefaultValue("250ms") Duration coalesceWindow
+) {}
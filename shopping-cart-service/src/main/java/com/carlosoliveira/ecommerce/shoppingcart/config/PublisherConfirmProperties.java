@@ -0,0 +1,20 @@
+package com.carlosoliveira.ecommerce.shoppingcart.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param maxOutstanding  messages sent but not yet confirmed; further sends wait for a free slot
+ * @param windowTimeout   how long a send waits for a free slot before failing
+ * @param maxAttempts     sends per message, counting the first, before a nack or return fails it
+ * @param retryBackoff    pause before a resend, multiplied by the number of attempts so far
+ */
+@ConfigurationProperties(prefix = "shopping-cart.publisher")
+public record PublisherConfirmProperties(
+        @DefaultValue("2000") int maxOutstanding,
+        @DefaultValue("5s") Duration windowTimeout,
+        @DefaultValue("5") int maxAttempts,
+        @DefaultValue("100ms") Duration retryBackoff
+) {}
@@ -0,0 +1,24 @@
+package com.carlosoliveira.ecommerce.shoppingcart.config;
+
+import com.carlosoliveira.ecommerce.common.web.RequestConcurrencyFilter;
+import com.carlosoliveira.ecommerce.common.web.RequestConcurrencyProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Caps the requests in flight under {@code shopping-cart.requests} once they run on virtual threads.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class RequestConcurrencyConfig {
+
+    @Bean
+    public RequestConcurrencyFilter requestConcurrencyFilter(Environment environment) {
+        return new RequestConcurrencyFilter(Binder.get(environment)
+                .bindOrCreate("shopping-cart.requests", RequestConcurrencyProperties.class));
+    }
+}
@@ -21,7 +21,7 @@ public class Cart {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column()
+    @Column(unique = true)
     private UUID userId;
 
     @Version
@@ -30,6 +30,13 @@ public class Cart {
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<CartItem> items = new ArrayList<>();
 
+    /**
+     * Lines this instance knows about, by product. A loaded cart starts empty and only learns
+     * the lines a command attaches, so commands never touch the rest of the {@code items} collection.
+     */
+    @Transient
+    private final Map<UUID, CartItem> itemIndex = new HashMap<>();
+
     @Transient
     private final List<Object> domainEvents = new ArrayList<>();
 
@@ -37,6 +44,32 @@ public class Cart {
         this.userId = userId;
     }
 
+    /**
+     * Rebuilds a cart whose lines were all read at once, as a document store does.
+     */
+    public static Cart restore(UUID id, UUID userId, Long version, List<CartItem> items) {
+        Cart cart = new Cart(userId);
+        cart.id = id;
+        cart.version = version;
+        for (CartItem item : items) {
+            item.setCart(cart);
+            cart.items.add(item);
+            cart.itemIndex.put(item.getProductId(), item);
+        }
+        return cart;
+    }
+
+    /**
+     * Makes an already persisted line known to the aggregate. Commands must attach the lines of
+     * every product they touch before calling {@link #addItem} or {@link #updateItemQuantity}.
+     */
+    public void attachItem(CartItem item) {
+        if (!item.getCart().getId().equals(this.id)) {
+            throw new IllegalArgumentException("Item does not belong to this Cart");
+        }
+        this.itemIndex.put(item.getProductId(), item);
+    }
+
     public void addItem(
             UUID productId,
             String productName,
@@ -50,6 +83,7 @@ public class Cart {
             CartItem newItem = new CartItem(productId, productName, price, quantity);
             newItem.setCart(this);
             this.items.add(newItem);
+            this.itemIndex.put(productId, newItem);
         }
         this.domainEvents.add(new ItemAddedToCartEvent(this.id, productId, quantity, Instant.now()));
     }
@@ -87,8 +121,6 @@ public class Cart {
     }
 
     private Optional<CartItem> findItem(UUID productId) {
-        return this.items.stream()
-                .filter(item -> item.getProductId().equals(productId))
-                .findFirst();
+        return Optional.ofNullable(this.itemIndex.get(productId));
     }
 }
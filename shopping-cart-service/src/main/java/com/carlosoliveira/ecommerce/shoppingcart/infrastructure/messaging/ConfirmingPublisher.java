@@ -0,0 +1,230 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.messaging;
+
+import com.carlosoliveira.ecommerce.shoppingcart.config.PublisherConfirmProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes messages without waiting for each confirm. Every send carries its own correlation data and
+ * the broker's confirm completes the future handed back to the caller, so a caller can pipeline as many
+ * messages as the window allows and wait once for all of them.
+ * <p>
+ * A nack, a return (mandatory message that no queue took) or a channel closing under an unconfirmed
+ * message resends it, up to {@code maxAttempts}; only then does its future fail. A send that cannot reach
+ * the broker at all fails straight away. A resend may duplicate a message the broker did take, so
+ * consumers must tolerate duplicates either way.
+ * <p>
+ * {@code cart.publisher.confirms} times each message from its first send until it is confirmed or given
+ * up on, resends included.
+ */
+@Slf4j
+@Component
+public class ConfirmingPublisher implements SmartLifecycle {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final PublisherConfirmProperties properties;
+    private final Semaphore window;
+
+    private final AtomicLong confirmedCount = new AtomicLong();
+    private final AtomicLong resentCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final Timer confirmedTimer;
+    private final Timer failedTimer;
+
+    private ScheduledExecutorService resender;
+    private volatile boolean running;
+
+    public ConfirmingPublisher(RabbitTemplate rabbitTemplate, PublisherConfirmProperties properties, MeterRegistry meterRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.properties = properties;
+        this.window = new Semaphore(properties.maxOutstanding());
+        this.confirmedTimer = confirmTimer("confirmed", meterRegistry);
+        this.failedTimer = confirmTimer("failed", meterRegistry);
+        FunctionCounter.builder("cart.publisher.resends", resentCount, AtomicLong::get)
+                .description("Messages sent again after a nack, return or lost channel")
+                .register(meterRegistry);
+        Gauge.builder("cart.publisher.outstanding", this, ConfirmingPublisher::outstandingCount)
+                .description("Messages sent and not yet confirmed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Blocks only while the window is full.
+     *
+     * @return completes once the broker has confirmed the message, or exceptionally once it gave up on it
+     */
+    public CompletableFuture<Void> publish(String exchange, String routingKey, Message message) {
+        acquireSlot();
+        Outstanding outstanding = new Outstanding(exchange, routingKey, message, new CompletableFuture<>(), System.nanoTime());
+        send(outstanding, 1);
+        return outstanding.result();
+    }
+
+    /**
+     * Sends every message before waiting for any confirm.
+     *
+     * @return completes once all of them are confirmed, or exceptionally as soon as one of them fails
+     */
+    public CompletableFuture<Void> publishAll(List<OutgoingMessage> messages) {
+        CompletableFuture<?>[] confirms = new CompletableFuture<?>[messages.size()];
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        for (int i = 0; i < confirms.length; i++) {
+            OutgoingMessage message = messages.get(i);
+            confirms[i] = publish(message.exchange(), message.routingKey(), message.message())
+                    .whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            firstFailure.completeExceptionally(error);
+                        }
+                    });
+        }
+        return CompletableFuture.anyOf(CompletableFuture.allOf(confirms), firstFailure).thenApply(ignored -> null);
+    }
+
+    public int outstandingCount() {
+        return properties.maxOutstanding() - window.availablePermits();
+    }
+
+    public long confirmedCount() {
+        return confirmedCount.get();
+    }
+
+    public long resentCount() {
+        return resentCount.get();
+    }
+
+    public long failedCount() {
+        return failedCount.get();
+    }
+
+    @Override
+    public void start() {
+        resender = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "amqp-resend"));
+        running = true;
+    }
+
+    /**
+     * Pending resends are dropped and their futures failed; messages already sent keep their confirms.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        for (Runnable dropped : resender.shutdownNow()) {
+            dropped.run();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the outbox relay, which waits for the confirms of its last round.
+     */
+    @Override
+    public int getPhase() {
+        return -2;
+    }
+
+    private void send(Outstanding outstanding, int attempt) {
+        CorrelationData correlation = new CorrelationData(UUID.randomUUID().toString());
+        try {
+            rabbitTemplate.send(outstanding.exchange(), outstanding.routingKey(), outstanding.message(), correlation);
+        } catch (AmqpException e) {
+            // No connection to resend on; fail at once and leave retrying to the caller.
+            fail(outstanding, attempt, e.getMessage());
+            return;
+        }
+        // Confirms arrive on the connection's thread; resends are handed to our own so it is never blocked.
+        correlation.getFuture().whenComplete((confirm, error) -> {
+            ReturnedMessage returned = correlation.getReturned();
+            if (error != null) {
+                retryOrFail(outstanding, attempt, error.getMessage());
+            } else if (returned != null) {
+                retryOrFail(outstanding, attempt, "returned " + returned.getReplyCode() + " " + returned.getReplyText());
+            } else if (!confirm.isAck()) {
+                retryOrFail(outstanding, attempt, "nacked: " + confirm.getReason());
+            } else {
+                confirmedCount.incrementAndGet();
+                confirmedTimer.record(System.nanoTime() - outstanding.sentAt(), TimeUnit.NANOSECONDS);
+                window.release();
+                outstanding.result().complete(null);
+            }
+        });
+    }
+
+    private void retryOrFail(Outstanding outstanding, int attempt, String reason) {
+        if (running && attempt < properties.maxAttempts()) {
+            resentCount.incrementAndGet();
+            log.debug("Resending message to {} after attempt {}: {}", outstanding.routingKey(), attempt, reason);
+            try {
+                resender.schedule(
+                        () -> {
+                            if (running) {
+                                send(outstanding, attempt + 1);
+                            } else {
+                                fail(outstanding, attempt, reason);
+                            }
+                        },
+                        properties.retryBackoff().toMillis() * attempt,
+                        TimeUnit.MILLISECONDS
+                );
+                return;
+            } catch (RejectedExecutionException e) {
+                // stopping
+            }
+        }
+        fail(outstanding, attempt, reason);
+    }
+
+    private void fail(Outstanding outstanding, int attempt, String reason) {
+        failedCount.incrementAndGet();
+        failedTimer.record(System.nanoTime() - outstanding.sentAt(), TimeUnit.NANOSECONDS);
+        window.release();
+        outstanding.result().completeExceptionally(new AmqpException(
+                "Message to " + outstanding.routingKey() + " not confirmed after " + attempt + " attempts: " + reason));
+    }
+
+    private static Timer confirmTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("cart.publisher.confirms")
+                .description("Messages from first send until confirmed or given up on")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void acquireSlot() {
+        if (window.tryAcquire()) {
+            return;
+        }
+        try {
+            if (!window.tryAcquire(properties.windowTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new AmqpTimeoutException("No confirm window slot within " + properties.windowTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException("Interrupted while waiting for a confirm window slot", e);
+        }
+    }
+
+    public record OutgoingMessage(String exchange, String routingKey, Message message) {
+    }
+
+    private record Outstanding(String exchange, String routingKey, Message message, CompletableFuture<Void> result, long sentAt) {
+    }
+}
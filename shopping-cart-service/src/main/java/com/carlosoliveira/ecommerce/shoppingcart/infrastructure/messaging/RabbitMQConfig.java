@@ -1,37 +1,74 @@
 package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.messaging;
 
+import com.carlosoliveira.ecommerce.common.events.BinaryEventMessageConverter;
+import com.carlosoliveira.ecommerce.common.events.CartEventContract;
+import com.carlosoliveira.ecommerce.common.events.EventSchemaRegistry;
+import com.carlosoliveira.ecommerce.shoppingcart.config.CartEventsProperties;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.CartCheckedOutEvent;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.CartClearedEvent;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.CartItemQuantityUpdatedEvent;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.ItemAddedToCartEvent;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.ItemRemovedFromCartEvent;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
+
 @Configuration
 public class RabbitMQConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(RabbitMQConfig.class);
     public static final String CART_EVENTS_EXCHANGE = "cart_events_exchange";
-    public static final String CART_ROUTING_KEY_PATTERN = "cart.*";
+    public static final String CART_ROUTING_KEY_PATTERN = "cart.#";
 
     @Bean
     public TopicExchange cartEventsExchange() {
         return new TopicExchange(CART_EVENTS_EXCHANGE, true, false);
     }
 
+    /**
+     * Events go out as JSON, or in the binary form shared through {@code common-api} once {@code format} is
+     * {@code binary}; everything else, and every incoming message that is not binary, goes through JSON. Events written as JSON carry their contract
+     * name as type id rather than our class name.
+     */
     @Bean
-    public Jackson2JsonMessageConverter messageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(CartEventsProperties properties) {
+        EventSchemaRegistry schemas = new EventSchemaRegistry()
+                .register(CartEventContract.ITEM_ADDED, 1, ItemAddedToCartEvent.class)
+                .register(CartEventContract.ITEM_QUANTITY_UPDATED, 1, CartItemQuantityUpdatedEvent.class)
+                .register(CartEventContract.ITEM_REMOVED, 1, ItemRemovedFromCartEvent.class)
+                .register(CartEventContract.CHECKED_OUT, 1, CartCheckedOutEvent.class)
+                .register(CartEventContract.CLEARED, 1, CartClearedEvent.class);
+        DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+        typeMapper.setIdClassMapping(Map.of(
+                CartEventContract.ITEM_ADDED, ItemAddedToCartEvent.class,
+                CartEventContract.ITEM_QUANTITY_UPDATED, CartItemQuantityUpdatedEvent.class,
+                CartEventContract.ITEM_REMOVED, ItemRemovedFromCartEvent.class,
+                CartEventContract.CHECKED_OUT, CartCheckedOutEvent.class,
+                CartEventContract.CLEARED, CartClearedEvent.class
+        ));
+        Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter();
+        json.setJavaTypeMapper(typeMapper);
+        BinaryEventMessageConverter converter = new BinaryEventMessageConverter(schemas, json);
+        converter.setWriteBinary("binary".equals(properties.format()));
+        converter.setCompressionThreshold((int) Math.min(properties.compressionThreshold().toBytes(), Integer.MAX_VALUE));
+        return converter;
     }
 
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter messageConverter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setExchange(CART_EVENTS_EXCHANGE);
-        template.setMessageConverter(messageConverter());
+        template.setMessageConverter(messageConverter);
         template.setMandatory(true);
         return template;
     }
@@ -0,0 +1,37 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.messaging.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * The last sequence handed to an event of a cart. The row is locked by every transaction that queues an
+ * event of the cart and stays locked until that transaction ends, so the cart's sequences are assigned in
+ * commit order, and one rolled back gives its sequences back.
+ */
+@Entity
+@Table(name = "cart_event_sequences")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CartEventSequence {
+
+    @Id
+    private UUID cartId;
+
+    @Column(nullable = false)
+    private long lastSequence;
+
+    CartEventSequence(UUID cartId) {
+        this.cartId = cartId;
+    }
+
+    long next() {
+        return ++lastSequence;
+    }
+}
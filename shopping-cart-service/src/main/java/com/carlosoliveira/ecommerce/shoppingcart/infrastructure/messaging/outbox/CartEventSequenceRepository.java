@@ -0,0 +1,20 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.messaging.outbox;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CartEventSequenceRepository extends JpaRepository<CartEventSequence, UUID> {
+
+    /**
+     * The cart's counter, locked until the caller's transaction ends; waits for a transaction holding it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CartEventSequence s WHERE s.cartId = :cartId")
+    Optional<CartEventSequence> lockByCartId(@Param("cartId") UUID cartId);
+}
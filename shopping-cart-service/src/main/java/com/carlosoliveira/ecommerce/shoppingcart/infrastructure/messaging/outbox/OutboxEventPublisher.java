@@ -0,0 +1,170 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.messaging.outbox;
+
+import com.carlosoliveira.ecommerce.common.events.CartEventContract;
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.EventPublisher;
+import com.carlosoliveira.ecommerce.shoppingcart.config.OutboxProperties;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.CartClearedEvent;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.CartItemQuantityUpdatedEvent;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.ItemAddedToCartEvent;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.ItemRemovedFromCartEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes events to the outbox in the caller's transaction, so they are published if and only if
+ * the change that raised them commits. Publishing itself is left to {@link OutboxRelay}.
+ * <p>
+ * Quantity updates are held for {@code coalesceWindow}. While held, a further update of the same line
+ * is folded into the held row, which keeps its place in line and ends up carrying the net change; a
+ * net change of zero drops the row. Only an update that is the cart's newest queued event is folded, and
+ * the relay publishes nothing of a cart that is queued behind a held row, so holding a row does not move
+ * it behind the cart's later events.
+ * <p>
+ * Every row gets the next sequence of its cart. The cart's {@link CartEventSequence} row stays locked until
+ * the transaction ends, so the events of two transactions changing one cart are numbered in commit order.
+ * A folded update takes no sequence of its own; a dropped row leaves a gap.
+ */
+@Component
+public class OutboxEventPublisher implements EventPublisher {
+
+    public static final String ITEM_ADDED_ROUTING_KEY = "cart.added";
+    public static final String QUANTITY_UPDATED_ROUTING_KEY = "cart.quantity.updated";
+    public static final String ITEM_REMOVED_ROUTING_KEY = "cart.removed";
+    public static final String CLEARED_ROUTING_KEY = "cart.cleared";
+
+    private final OutboxRepository outboxRepository;
+    private final CartEventSequenceRepository sequenceRepository;
+    private final MessageConverter messageConverter;
+    private final OutboxRelay relay;
+    private final Duration coalesceWindow;
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    public OutboxEventPublisher(
+            OutboxRepository outboxRepository,
+            CartEventSequenceRepository sequenceRepository,
+            MessageConverter messageConverter,
+            OutboxRelay relay,
+            OutboxProperties properties,
+            MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.sequenceRepository = sequenceRepository;
+        this.messageConverter = messageConverter;
+        this.relay = relay;
+        this.coalesceWindow = properties.coalesceWindow();
+        FunctionCounter.builder("cart.outbox.coalesced", coalescedCount, AtomicLong::get)
+                .description("Quantity updates folded into one still waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(ItemAddedToCartEvent event) {
+        append(event.cartId(), ITEM_ADDED_ROUTING_KEY, toMessage(event, event.productId()), Duration.ZERO);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(CartItemQuantityUpdatedEvent event) {
+        if (coalesceWindow.isPositive() && coalesceIntoHeld(event)) {
+            coalescedCount.incrementAndGet();
+            return;
+        }
+        append(event.cartId(), QUANTITY_UPDATED_ROUTING_KEY, toMessage(event, event.productId()), coalesceWindow);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(ItemRemovedFromCartEvent event) {
+        append(event.cartId(), ITEM_REMOVED_ROUTING_KEY, toMessage(event, event.productId()), Duration.ZERO);
+    }
+
+    /**
+     * Partitioned by cart, since a clear spans products.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(CartClearedEvent event) {
+        append(event.cartId(), CLEARED_ROUTING_KEY, toMessage(event, event.cartId()), Duration.ZERO);
+    }
+
+    /**
+     * Updates folded into an earlier held update, including those that cancelled it out.
+     */
+    public long coalescedCount() {
+        return coalescedCount.get();
+    }
+
+    private boolean coalesceIntoHeld(CartItemQuantityUpdatedEvent event) {
+        Instant now = Instant.now();
+        Optional<OutboxMessage> newest = outboxRepository.findFirstByAggregateIdOrderByIdDesc(event.cartId())
+                .filter(message -> QUANTITY_UPDATED_ROUTING_KEY.equals(message.getRoutingKey()))
+                .filter(message -> message.getPublishAfter().isAfter(now));
+        if (newest.isEmpty()
+                || !(messageConverter.fromMessage(newest.get().toAmqp()) instanceof CartItemQuantityUpdatedEvent held)
+                || !held.productId().equals(event.productId())) {
+            return false;
+        }
+
+        CartItemQuantityUpdatedEvent net = new CartItemQuantityUpdatedEvent(
+                event.cartId(),
+                event.userId(),
+                event.productId(),
+                held.previousQuantity(),
+                event.newQuantity(),
+                event.newQuantity() - held.previousQuantity(),
+                event.occurredAt()
+        );
+        if (net.quantityDifference() == 0) {
+            outboxRepository.delete(newest.get());
+        } else {
+            newest.get().replaceContent(toMessage(net, net.productId()));
+        }
+        return true;
+    }
+
+    private void append(UUID cartId, String routingKey, Message message, Duration hold) {
+        Instant now = Instant.now();
+        Instant publishAfter = now.plus(hold);
+        outboxRepository.save(new OutboxMessage(cartId, nextSequence(cartId), routingKey, message, now, publishAfter));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (hold.isPositive()) {
+                    relay.wakeAt(publishAfter);
+                } else {
+                    relay.wake();
+                }
+            }
+        });
+    }
+
+    /**
+     * Two transactions queueing the first events of a new cart both insert its counter; one of them fails,
+     * as it would on the cart itself.
+     */
+    private long nextSequence(UUID cartId) {
+        CartEventSequence sequence = sequenceRepository.lockByCartId(cartId)
+                .orElseGet(() -> sequenceRepository.saveAndFlush(new CartEventSequence(cartId)));
+        return sequence.next();
+    }
+
+    private Message toMessage(Object event, UUID partitionKey) {
+        MessageProperties properties = new MessageProperties();
+        properties.setHeader(CartEventContract.PARTITION_KEY_HEADER, partitionKey.toString());
+        return messageConverter.toMessage(event, properties);
+    }
+}
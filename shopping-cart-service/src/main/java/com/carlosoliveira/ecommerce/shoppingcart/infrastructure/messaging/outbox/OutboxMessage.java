@@ -0,0 +1,126 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.messaging.outbox;
+
+import com.carlosoliveira.ecommerce.common.events.BinaryEventMessageConverter;
+import com.carlosoliveira.ecommerce.common.events.CartEventContract;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * A domain event written in the transaction that raised it, waiting for {@link OutboxRelay} to publish it.
+ * {@code payload} and the columns beside it are exactly what the message converter produced, so consumers
+ * see the same messages as when events were sent directly.
+ * <p>
+ * A row is not published before {@code publishAfter}, and neither is any later row of the same aggregate.
+ * <p>
+ * Ids are handed out on insert, not on commit, so id order is not the order in which a cart's changes
+ * happened. {@code sequence} is: it comes from the cart's {@link CartEventSequence}, which hands out
+ * consecutive numbers in commit order. A row dropped by coalescing leaves a gap in its cart's sequence.
+ */
+@Entity
+@Table(name = "outbox_messages", indexes = @Index(name = "idx_outbox_messages_aggregate", columnList = "aggregateId, id"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OutboxMessage {
+
+    static final int MAX_PAYLOAD_BYTES = 1024 * 1024;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(updatable = false)
+    private UUID eventId;
+
+    @Column(nullable = false)
+    private UUID aggregateId;
+
+    @Column(nullable = false)
+    private String routingKey;
+
+    @Column
+    private String typeId;
+
+    @Column
+    private String schemaName;
+
+    @Column
+    private Integer schemaVersion;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    @Column
+    private String contentEncoding;
+
+    @Column
+    private String partitionKey;
+
+    @Column(nullable = false, length = MAX_PAYLOAD_BYTES)
+    private byte[] payload;
+
+    /** {@code null} on rows queued before events were sequenced */
+    @Column(updatable = false)
+    private Long sequence;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant publishAfter;
+
+    OutboxMessage(UUID aggregateId, long sequence, String routingKey, Message message, Instant createdAt, Instant publishAfter) {
+        this.eventId = UUID.randomUUID();
+        this.aggregateId = aggregateId;
+        this.sequence = sequence;
+        this.routingKey = routingKey;
+        this.createdAt = createdAt;
+        this.publishAfter = publishAfter;
+        replaceContent(message);
+    }
+
+    Message toAmqp() {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(contentType);
+        properties.setContentEncoding(contentEncoding);
+        // rows queued before event ids were introduced fall back to the row id
+        properties.setMessageId(eventId == null ? id.toString() : eventId.toString());
+        if (sequence != null) {
+            properties.setHeader(CartEventContract.SEQUENCE_HEADER, sequence);
+        }
+        properties.setTimestamp(Date.from(createdAt));
+        if (typeId != null) {
+            properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, typeId);
+        }
+        if (schemaName != null) {
+            properties.setHeader(BinaryEventMessageConverter.SCHEMA_HEADER, schemaName);
+            properties.setHeader(BinaryEventMessageConverter.SCHEMA_VERSION_HEADER, schemaVersion);
+        }
+        if (partitionKey != null) {
+            properties.setHeader(CartEventContract.PARTITION_KEY_HEADER, partitionKey);
+        }
+        return new Message(payload, properties);
+    }
+
+    /**
+     * Swaps in a newer version of the event, keeping the row's place in line, its hold, its event id and its sequence.
+     */
+    void replaceContent(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        this.typeId = properties.getHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        this.schemaName = properties.getHeader(BinaryEventMessageConverter.SCHEMA_HEADER);
+        this.schemaVersion = properties.getHeader(BinaryEventMessageConverter.SCHEMA_VERSION_HEADER);
+        this.contentType = properties.getContentType();
+        this.contentEncoding = properties.getContentEncoding();
+        this.partitionKey = properties.getHeader(CartEventContract.PARTITION_KEY_HEADER);
+        this.payload = message.getBody();
+    }
+}
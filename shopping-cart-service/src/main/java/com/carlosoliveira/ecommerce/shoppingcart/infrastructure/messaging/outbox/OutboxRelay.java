@@ -0,0 +1,245 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.messaging.outbox;
+
+import com.carlosoliveira.ecommerce.shoppingcart.application.dtos.OutboxStatsResponse;
+import com.carlosoliveira.ecommerce.shoppingcart.config.OutboxProperties;
+import com.carlosoliveira.ecommerce.shoppingcart.infrastructure.messaging.ConfirmingPublisher;
+import com.carlosoliveira.ecommerce.shoppingcart.infrastructure.messaging.ConfirmingPublisher.OutgoingMessage;
+import com.carlosoliveira.ecommerce.shoppingcart.infrastructure.messaging.RabbitMQConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes outbox rows, oldest id first, which need not be the order of their cart's sequences (see
+ * {@link OutboxMessage}); consumers order a cart's events by sequence. Each round locks up to {@code batchSize}
+ * rows, sends them all through the {@link ConfirmingPublisher} without waiting in between, waits once for the broker to confirm the lot
+ * and only then deletes them, in the same transaction as the lock. Nacked and returned messages are resent
+ * by the publisher; a round that still is not confirmed within {@code confirmTimeout} rolls back and is
+ * retried, so a message may be published twice but never lost. Rows held for coalescing, and the rows of
+ * the same cart behind them, wait for their hold to pass; on shutdown they are published regardless.
+ * <p>
+ * The relay sleeps until a transaction that wrote to the outbox commits, a hold it was told about passes,
+ * or {@code pollInterval} passes.
+ * With several instances, rows locked by one are skipped by the others.
+ */
+@Slf4j
+@Component
+public class OutboxRelay implements SmartLifecycle {
+
+    private final OutboxRepository outboxRepository;
+    private final ConfirmingPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+
+    private final Semaphore wakeups = new Semaphore(0);
+    private final ConcurrentSkipListSet<Instant> holdDeadlines = new ConcurrentSkipListSet<>();
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong failedBatchCount = new AtomicLong();
+    private final AtomicLong lastPublishLagMillis = new AtomicLong();
+
+    private Thread worker;
+    private volatile boolean running;
+
+    public OutboxRelay(
+            OutboxRepository outboxRepository,
+            ConfirmingPublisher publisher,
+            PlatformTransactionManager transactionManager,
+            OutboxProperties properties,
+            MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.publisher = publisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        FunctionCounter.builder("cart.outbox.published", publishedCount, AtomicLong::get)
+                .description("Outbox messages published, confirmed and deleted")
+                .register(meterRegistry);
+        FunctionCounter.builder("cart.outbox.batches", batchCount, AtomicLong::get)
+                .tag("outcome", "relayed")
+                .register(meterRegistry);
+        FunctionCounter.builder("cart.outbox.batches", failedBatchCount, AtomicLong::get)
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        TimeGauge.builder("cart.outbox.lag", lastPublishLagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the newest message in the last relayed batch when it was confirmed")
+                .register(meterRegistry);
+    }
+
+    public void wake() {
+        if (wakeups.availablePermits() == 0) {
+            wakeups.release();
+        }
+    }
+
+    /**
+     * Makes sure the relay looks again once a row held until {@code deadline} is due.
+     */
+    public void wakeAt(Instant deadline) {
+        holdDeadlines.add(deadline);
+        wake();
+    }
+
+    /**
+     * @return the number of messages published and deleted
+     */
+    int relayBatch() {
+        return relayBatch(Instant.now());
+    }
+
+    /**
+     * @param cutoff rows held past this instant are left for later
+     */
+    int relayBatch(Instant cutoff) {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxMessage> batch = outboxRepository.lockNextBatch(cutoff, PageRequest.of(0, properties.batchSize()));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            awaitConfirms(publisher.publishAll(batch.stream()
+                    .map(message -> new OutgoingMessage(RabbitMQConfig.CART_EVENTS_EXCHANGE, message.getRoutingKey(), message.toAmqp()))
+                    .toList()));
+            outboxRepository.deleteAllInBatch(batch);
+
+            Instant confirmedAt = Instant.now();
+            publishedCount.addAndGet(batch.size());
+            batchCount.incrementAndGet();
+            lastPublishLagMillis.set(Duration.between(batch.getLast().getCreatedAt(), confirmedAt).toMillis());
+            return batch.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    public OutboxStatsResponse stats() {
+        long oldestAge = outboxRepository.findOldestCreatedAt()
+                .map(createdAt -> Duration.between(createdAt, Instant.now()).toMillis())
+                .orElse(0L);
+        return new OutboxStatsResponse(
+                outboxRepository.count(),
+                oldestAge,
+                publishedCount.get(),
+                batchCount.get(),
+                failedBatchCount.get(),
+                lastPublishLagMillis.get(),
+                publisher.outstandingCount(),
+                publisher.resentCount()
+        );
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (properties.relayEnabled()) {
+            worker = new Thread(this::run, "outbox-relay");
+            worker.start();
+        }
+    }
+
+    /**
+     * Lets the current round finish, then publishes whatever is left that the broker will take.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (worker == null) {
+            return;
+        }
+        wake();
+        try {
+            worker.join(properties.confirmTimeout().toMillis() * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker = null;
+        try {
+            Instant pastEveryHold = Instant.now().plus(properties.coalesceWindow());
+            while (relayBatch(pastEveryHold) == properties.batchSize()) {
+                // keep going until a partial batch shows the outbox is empty
+            }
+        } catch (RuntimeException e) {
+            log.warn("Outbox not fully relayed on shutdown, remaining rows are published on next start: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the cart mailbox and the cart store, so it relays every event they committed.
+     */
+    @Override
+    public int getPhase() {
+        return -1;
+    }
+
+    private void run() {
+        while (running) {
+            int relayed;
+            try {
+                relayed = relayBatch();
+            } catch (RuntimeException e) {
+                failedBatchCount.incrementAndGet();
+                log.warn("Failed to relay outbox messages, will retry: {}", e.getMessage());
+                sleep(properties.retryBackoff());
+                continue;
+            }
+            if (relayed < properties.batchSize()) {
+                awaitWork();
+            }
+        }
+    }
+
+    private void awaitConfirms(CompletableFuture<Void> confirms) {
+        try {
+            confirms.get(properties.confirmTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new AmqpTimeoutException("Outbox batch not confirmed within " + properties.confirmTimeout());
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof AmqpException amqp ? amqp : new AmqpException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException("Interrupted while waiting for outbox confirms", e);
+        }
+    }
+
+    private void awaitWork() {
+        Instant now = Instant.now();
+        holdDeadlines.headSet(now, true).clear();
+        long waitMillis = properties.pollInterval().toMillis();
+        if (!holdDeadlines.isEmpty()) {
+            waitMillis = Math.min(waitMillis, Duration.between(now, holdDeadlines.first()).toMillis() + 1);
+        }
+        try {
+            if (wakeups.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+                wakeups.drainPermits();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.messaging.outbox;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface OutboxRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Oldest messages first, skipping rows another relay instance has already locked, rows still held
+     * past {@code cutoff} and every row queued behind a held row of the same aggregate.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            SELECT m FROM OutboxMessage m
+            WHERE m.publishAfter <= :cutoff
+              AND NOT EXISTS (
+                  SELECT 1 FROM OutboxMessage held
+                  WHERE held.aggregateId = m.aggregateId AND held.id < m.id AND held.publishAfter > :cutoff)
+            ORDER BY m.id""")
+    List<OutboxMessage> lockNextBatch(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    /**
+     * The aggregate's newest unpublished message, locked; waits for a relay that is publishing it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<OutboxMessage> findFirstByAggregateIdOrderByIdDesc(UUID aggregateId);
+
+    @Query("SELECT MIN(m.createdAt) FROM OutboxMessage m")
+    Optional<Instant> findOldestCreatedAt();
+}
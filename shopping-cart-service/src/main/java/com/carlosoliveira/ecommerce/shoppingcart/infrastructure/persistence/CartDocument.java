@@ -0,0 +1,55 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.persistence;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.util.UUID;
+
+/**
+ * A whole cart in one row, keyed by user. {@code body} is written by {@link CartDocumentCodec}.
+ * {@code version} is bumped by {@link CartDocumentRepository#updateIfVersion}, not by Hibernate.
+ */
+@Entity
+@Table(name = "cart_documents")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CartDocument implements Persistable<UUID> {
+
+    static final int MAX_BODY_BYTES = 64 * 1024 * 1024;
+
+    @Id
+    private UUID userId;
+
+    @Column(nullable = false)
+    private UUID cartId;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false, length = MAX_BODY_BYTES)
+    private byte[] body;
+
+    @Transient
+    private boolean isNew;
+
+    public CartDocument(UUID userId, UUID cartId, long version, byte[] body) {
+        this.userId = userId;
+        this.cartId = cartId;
+        this.version = version;
+        this.body = body;
+        this.isNew = true;
+    }
+
+    @Override
+    public UUID getId() {
+        return userId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+}
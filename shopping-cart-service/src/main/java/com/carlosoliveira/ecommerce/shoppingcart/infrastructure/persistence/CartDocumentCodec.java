@@ -0,0 +1,65 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.persistence;
+
+import com.carlosoliveira.ecommerce.common.valueObjects.Money;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.CartItem;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Binary layout of {@link CartDocument#getBody()}: a format byte, the line count, then per line the
+ * product id, name, quantity, price in minor units and currency code. Lines carry no ids of their own.
+ */
+public final class CartDocumentCodec {
+
+    static final byte FORMAT_V1 = 1;
+
+    private static final int BYTES_PER_LINE_ESTIMATE = 64;
+
+    private CartDocumentCodec() {
+    }
+
+    public static byte[] encode(Collection<CartItem> items) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(5 + items.size() * BYTES_PER_LINE_ESTIMATE);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_V1);
+            out.writeInt(items.size());
+            for (CartItem item : items) {
+                out.writeLong(item.getProductId().getMostSignificantBits());
+                out.writeLong(item.getProductId().getLeastSignificantBits());
+                out.writeUTF(item.getProductName() == null ? "" : item.getProductName());
+                out.writeInt(item.getQuantity());
+                out.writeLong(item.getPrice().getMinorUnits());
+                out.writeUTF(item.getPrice().getCurrency().getCurrencyCode());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static List<CartItem> decode(byte[] body) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            byte format = in.readByte();
+            if (format != FORMAT_V1) {
+                throw new IllegalStateException("Unsupported cart document format: " + format);
+            }
+            int count = in.readInt();
+            List<CartItem> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                UUID productId = new UUID(in.readLong(), in.readLong());
+                String productName = in.readUTF();
+                int quantity = in.readInt();
+                Money price = Money.ofMinorUnits(in.readLong(), Currency.getInstance(in.readUTF()));
+                items.add(new CartItem(productId, productName, price, quantity));
+            }
+            return items;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
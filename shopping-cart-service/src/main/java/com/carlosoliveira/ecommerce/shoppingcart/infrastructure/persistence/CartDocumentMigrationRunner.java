@@ -0,0 +1,26 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.persistence;
+
+import com.carlosoliveira.ecommerce.shoppingcart.config.CartStorageProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves relational carts to document storage on startup, before switching {@code shopping-cart.storage.mode}
+ * to {@code document} for good.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shopping-cart.storage", name = "migrate-relational-carts", havingValue = "true")
+@RequiredArgsConstructor
+public class CartDocumentMigrationRunner implements ApplicationRunner {
+
+    private final CartDocumentMigrator migrator;
+    private final CartStorageProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migrator.migrate(properties.migrationBatchSize());
+    }
+}
@@ -0,0 +1,76 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.persistence;
+
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartItemRepository;
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartRepository;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.Cart;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.CartItem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Copies relational carts into {@code cart_documents}, one transaction per batch of carts. Carts that
+ * already have a document are skipped, so the migration can be re-run after a partial failure.
+ */
+@Slf4j
+@Component
+public class CartDocumentMigrator {
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final CartDocumentRepository documentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public CartDocumentMigrator(
+            CartRepository cartRepository,
+            CartItemRepository cartItemRepository,
+            CartDocumentRepository documentRepository,
+            PlatformTransactionManager transactionManager) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.documentRepository = documentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @return the number of documents written
+     */
+    public int migrate(int batchSize) {
+        int migrated = 0;
+        Pageable pageable = PageRequest.of(0, batchSize, Sort.by("id"));
+        BatchResult batch;
+        do {
+            Pageable current = pageable;
+            batch = transactionTemplate.execute(status -> migratePage(current));
+            migrated += batch.written();
+            pageable = pageable.next();
+        } while (batch.hasNext());
+        log.info("Migrated {} carts to document storage", migrated);
+        return migrated;
+    }
+
+    private BatchResult migratePage(Pageable pageable) {
+        Page<Cart> carts = cartRepository.findAll(pageable);
+        int written = 0;
+        for (Cart cart : carts) {
+            if (documentRepository.existsById(cart.getUserId())) {
+                continue;
+            }
+            List<CartItem> items = cartItemRepository.findByCartId(cart.getId(), Pageable.unpaged()).getContent();
+            long version = cart.getVersion() == null ? 0 : cart.getVersion();
+            documentRepository.save(new CartDocument(cart.getUserId(), cart.getId(), version, CartDocumentCodec.encode(items)));
+            written++;
+        }
+        return new BatchResult(written, carts.hasNext());
+    }
+
+    private record BatchResult(int written, boolean hasNext) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+public interface CartDocumentRepository extends JpaRepository<CartDocument, UUID> {
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE CartDocument d SET d.body = :body, d.version = d.version + 1
+            WHERE d.userId = :userId AND d.version = :version
+            """)
+    int updateIfVersion(@Param("userId") UUID userId, @Param("version") long version, @Param("body") byte[] body);
+
+    /**
+     * Writes a document whose version was decided elsewhere, unless the row already holds that version or a later one.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE CartDocument d SET d.body = :body, d.version = :version
+            WHERE d.userId = :userId AND d.version < :version
+            """)
+    int overwriteIfOlder(@Param("userId") UUID userId, @Param("version") long version, @Param("body") byte[] body);
+}
@@ -0,0 +1,74 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.persistence;
+
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartStore;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.Cart;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.CartItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * One {@code cart_documents} row per cart. A load is a primary key read and a save a single update
+ * conditional on the version that was read; a lost race surfaces as an optimistic locking failure.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shopping-cart.storage", name = "mode", havingValue = "document")
+@RequiredArgsConstructor
+public class DocumentCartStore implements CartStore {
+
+    private final CartDocumentRepository documentRepository;
+
+    @Override
+    public Optional<Cart> loadForUpdate(UUID userId, Collection<UUID> productIds) {
+        return documentRepository.findById(userId).map(DocumentCartStore::toCart);
+    }
+
+    @Override
+    public Cart create(UUID userId) {
+        return Cart.restore(UUID.randomUUID(), userId, null, List.of());
+    }
+
+    @Override
+    public void save(Cart cart) {
+        byte[] body = CartDocumentCodec.encode(cart.getItems());
+        if (cart.getVersion() == null) {
+            documentRepository.save(new CartDocument(cart.getUserId(), cart.getId(), 0, body));
+            return;
+        }
+        if (documentRepository.updateIfVersion(cart.getUserId(), cart.getVersion(), body) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Cart.class, cart.getId());
+        }
+    }
+
+    @Override
+    public Slice<CartItem> findItems(UUID userId, Pageable pageable) {
+        List<CartItem> items = documentRepository.findById(userId)
+                .map(document -> CartDocumentCodec.decode(document.getBody()))
+                .orElse(List.of());
+        return slice(items, pageable);
+    }
+
+    static Slice<CartItem> slice(List<CartItem> items, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), items.size());
+        int to = Math.min(from + pageable.getPageSize(), items.size());
+        return new SliceImpl<>(items.subList(from, to), pageable, to < items.size());
+    }
+
+    private static Cart toCart(CartDocument document) {
+        return Cart.restore(
+                document.getCartId(),
+                document.getUserId(),
+                document.getVersion(),
+                CartDocumentCodec.decode(document.getBody())
+        );
+    }
+}
@@ -0,0 +1,63 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.persistence;
+
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartItemRepository;
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartRepository;
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartStore;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.Cart;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.CartItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * One {@code carts} row plus one {@code cart_items} row per line. Commands load only the line they touch.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shopping-cart.storage", name = "mode", havingValue = "relational", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RelationalCartStore implements CartStore {
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+
+    @Override
+    public Optional<Cart> loadForUpdate(UUID userId, UUID productId) {
+        Optional<Cart> cart = cartRepository.findByUserId(userId);
+        cart.ifPresent(found -> cartItemRepository.findByCartIdAndProductId(found.getId(), productId)
+                .ifPresent(found::attachItem));
+        return cart;
+    }
+
+    @Override
+    public Optional<Cart> loadForUpdate(UUID userId, Collection<UUID> productIds) {
+        Optional<Cart> cart = cartRepository.findByUserId(userId);
+        cart.ifPresent(found -> cartItemRepository.findByCartIdAndProductIdIn(found.getId(), productIds)
+                .forEach(found::attachItem));
+        return cart;
+    }
+
+    @Override
+    public Cart create(UUID userId) {
+        return cartRepository.save(new Cart(userId));
+    }
+
+    @Override
+    public void save(Cart cart) {
+        cartRepository.save(cart);
+    }
+
+    @Override
+    public Slice<CartItem> findItems(UUID userId, Pageable pageable) {
+        return cartRepository.findByUserId(userId)
+                .map(cart -> cartItemRepository.findByCartId(cart.getId(), pageable))
+                .orElseGet(() -> new SliceImpl<>(List.of(), pageable, false));
+    }
+}
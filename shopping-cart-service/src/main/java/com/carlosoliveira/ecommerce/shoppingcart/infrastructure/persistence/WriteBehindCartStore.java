@@ -0,0 +1,424 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.persistence;
+
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartStore;
+import com.carlosoliveira.ecommerce.shoppingcart.config.CartStorageProperties;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.Cart;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.CartItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves carts from memory and writes them to {@code cart_documents} in the background.
+ * <p>
+ * Carts are cached as encoded documents, so every command still works on its own {@link Cart} copy and
+ * a save based on an outdated version fails exactly as it does in document storage. Saves only queue
+ * the new document; repeated saves of a cart before the next flush collapse into one write. Carts with
+ * unwritten changes are never evicted, so a miss can always be served from the database.
+ * <p>
+ * A save made inside a transaction is only cached and queued once that transaction commits, so a rolled
+ * back command leaves no change behind to be written without the outbox events it committed with. With
+ * writes through ({@code flushInterval} 0) the document is written in the caller's transaction.
+ * <p>
+ * Changes accepted since the last flush are lost if the process dies; see
+ * {@link CartStorageProperties.WriteBehind#flushInterval()}. The queue is drained on shutdown.
+ * <p>
+ * The version check runs against this instance's memory, so the store assumes it is the only writer of
+ * {@code cart_documents}: run a single instance in this mode. A write that finds the same or a later version
+ * already in the database was made against a copy another writer has since replaced; it is dropped, logged
+ * and counted in {@code cart.write_behind.lost}, and the cart is evicted so the next command reloads the
+ * stored version. With writes through ({@code flushInterval} 0) such a save fails with an optimistic
+ * locking error instead.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "shopping-cart.storage", name = "mode", havingValue = "write-behind")
+public class WriteBehindCartStore implements CartStore, SmartLifecycle {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final CartDocumentRepository documentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CartStorageProperties.WriteBehind properties;
+    private final boolean writeThrough;
+
+    /** Guarded by itself; in access order, so iteration starts at the least recently used cart. */
+    private final LinkedHashMap<UUID, Snapshot> carts = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentMap<UUID, Snapshot> pending = new ConcurrentHashMap<>();
+    /** Saves whose transaction has not completed yet. */
+    private final ConcurrentMap<UUID, Snapshot> staged = new ConcurrentHashMap<>();
+    private final Semaphore pendingPermits;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Counter lostWrites;
+
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    public WriteBehindCartStore(
+            CartDocumentRepository documentRepository,
+            PlatformTransactionManager transactionManager,
+            CartStorageProperties storageProperties,
+            MeterRegistry meterRegistry) {
+        this.documentRepository = documentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = storageProperties.writeBehind();
+        this.writeThrough = properties.flushInterval().isZero();
+        this.pendingPermits = new Semaphore(properties.maxPending());
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        Gauge.builder("cart.write_behind.pending", this, WriteBehindCartStore::pendingCount)
+                .description("Carts with changes not yet written to the database")
+                .register(meterRegistry);
+        Gauge.builder("cart.write_behind.cached", this, WriteBehindCartStore::cachedCount)
+                .description("Carts held in memory")
+                .register(meterRegistry);
+        this.lostWrites = Counter.builder("cart.write_behind.lost")
+                .description("Cart writes dropped because the database already held a later version")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<Cart> loadForUpdate(UUID userId, Collection<UUID> productIds) {
+        return Optional.ofNullable(current(userId))
+                .map(snapshot -> Cart.restore(snapshot.cartId(), userId, snapshot.version(), CartDocumentCodec.decode(snapshot.body())));
+    }
+
+    @Override
+    public Cart create(UUID userId) {
+        return Cart.restore(UUID.randomUUID(), userId, null, List.of());
+    }
+
+    @Override
+    public void save(Cart cart) {
+        UUID userId = cart.getUserId();
+        long expectedVersion = cart.getVersion() == null ? -1 : cart.getVersion();
+        Snapshot snapshot = new Snapshot(cart.getId(), expectedVersion + 1, CartDocumentCodec.encode(cart.getItems()));
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+
+        if (!writeThrough) {
+            acquirePermit();
+        }
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            Snapshot current = current(userId);
+            if (staged.containsKey(userId) || (current == null ? -1 : current.version()) != expectedVersion) {
+                if (!writeThrough) {
+                    pendingPermits.release();
+                }
+                throw new ObjectOptimisticLockingFailureException(Cart.class, cart.getId());
+            }
+            if (writeThrough) {
+                boolean written = inTransaction ? write(userId, snapshot) : transactionTemplate.execute(status -> write(userId, snapshot));
+                if (!written) {
+                    evict(userId);
+                    throw new ObjectOptimisticLockingFailureException(Cart.class, cart.getId());
+                }
+            }
+            if (inTransaction) {
+                stage(userId, snapshot);
+                return;
+            }
+            publish(userId, snapshot);
+        } finally {
+            lock.unlock();
+        }
+        flushIfFull();
+    }
+
+    @Override
+    public Slice<CartItem> findItems(UUID userId, Pageable pageable) {
+        Snapshot snapshot = current(userId);
+        List<CartItem> items = snapshot == null ? List.of() : CartDocumentCodec.decode(snapshot.body());
+        return DocumentCartStore.slice(items, pageable);
+    }
+
+    /**
+     * Writes every pending cart, one transaction per {@code flushBatchSize} carts. A failed batch stays
+     * queued and is retried on the next flush; writes that lost to a later version are dropped.
+     *
+     * @return the number of carts written
+     */
+    public int flush() {
+        List<Map.Entry<UUID, Snapshot>> queued = new ArrayList<>(pending.entrySet());
+        int written = 0;
+        for (int from = 0; from < queued.size(); from += properties.flushBatchSize()) {
+            List<Map.Entry<UUID, Snapshot>> batch = queued.subList(from, Math.min(from + properties.flushBatchSize(), queued.size()));
+            List<Map.Entry<UUID, Snapshot>> stale;
+            try {
+                stale = transactionTemplate.execute(status -> batch.stream()
+                        .filter(entry -> !write(entry.getKey(), entry.getValue()))
+                        .toList());
+            } catch (RuntimeException e) {
+                log.warn("Failed to write {} carts, will retry: {}", batch.size(), e.getMessage());
+                return written;
+            }
+            for (Map.Entry<UUID, Snapshot> entry : batch) {
+                markWritten(entry.getKey(), entry.getValue());
+            }
+            for (Map.Entry<UUID, Snapshot> entry : stale) {
+                lostWrites.increment();
+                log.error("Dropped version {} of the cart of user {}: the database already holds a later one, "
+                        + "is another instance writing carts?", entry.getValue().version(), entry.getKey());
+                evictUnlessPending(entry.getKey());
+            }
+            written += batch.size() - stale.size();
+        }
+        if (written > 0) {
+            log.debug("Wrote {} carts", written);
+        }
+        return written;
+    }
+
+    public long lostWriteCount() {
+        return (long) lostWrites.count();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    public int cachedCount() {
+        synchronized (carts) {
+            return carts.size();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!writeThrough) {
+            long intervalMs = properties.flushInterval().toMillis();
+            flusher = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "cart-write-behind"));
+            flusher.scheduleWithFixedDelay(this::flush, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(properties.flushInterval().toMillis() * 2, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flusher = null;
+        }
+        while (!pending.isEmpty()) {
+            int queued = pending.size();
+            if (flush() == 0) {
+                log.error("Could not write {} carts on shutdown, their latest changes are lost", queued);
+                break;
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server, so the final flush sees every save it accepted.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private Snapshot current(UUID userId) {
+        synchronized (carts) {
+            Snapshot cached = carts.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // Loading under the cart's lock keeps a flush from marking a newer version clean, and so
+        // evictable, while the older one is on its way in from the database.
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            synchronized (carts) {
+                Snapshot cached = carts.get(userId);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            Snapshot loaded = documentRepository.findById(userId)
+                    .map(document -> new Snapshot(document.getCartId(), document.getVersion(), document.getBody()))
+                    .orElse(null);
+            if (loaded != null) {
+                cache(userId, loaded);
+            }
+            return loaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cache(UUID userId, Snapshot snapshot) {
+        synchronized (carts) {
+            carts.put(userId, snapshot);
+            if (carts.size() <= properties.maxCarts()) {
+                return;
+            }
+            Iterator<Map.Entry<UUID, Snapshot>> eldest = carts.entrySet().iterator();
+            while (carts.size() > properties.maxCarts() && eldest.hasNext()) {
+                if (!pending.containsKey(eldest.next().getKey())) {
+                    eldest.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} if nothing was written because the database holds this version or a later one
+     */
+    private boolean write(UUID userId, Snapshot snapshot) {
+        if (documentRepository.overwriteIfOlder(userId, snapshot.version(), snapshot.body()) > 0) {
+            return true;
+        }
+        if (documentRepository.existsById(userId)) {
+            return false;
+        }
+        documentRepository.save(new CartDocument(userId, snapshot.cartId(), snapshot.version(), snapshot.body()));
+        return true;
+    }
+
+    /**
+     * Holds the snapshot back until the caller's transaction completes, so a rolled back save reaches
+     * neither the cache nor the write queue. A second save of the cart meanwhile fails the version check.
+     */
+    private void stage(UUID userId, Snapshot snapshot) {
+        staged.put(userId, snapshot);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ReentrantLock lock = lockFor(userId);
+                lock.lock();
+                try {
+                    staged.remove(userId, snapshot);
+                    if (status == STATUS_COMMITTED) {
+                        publish(userId, snapshot);
+                    } else if (!writeThrough) {
+                        pendingPermits.release();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (status == STATUS_COMMITTED) {
+                    flushIfFull();
+                }
+            }
+        });
+    }
+
+    /**
+     * Makes the saved snapshot the cart's current version. Called under the cart's lock.
+     */
+    private void publish(UUID userId, Snapshot snapshot) {
+        // Queued first, so the cart is never picked for eviction while its change is unwritten.
+        if (!writeThrough && pending.put(userId, snapshot) != null) {
+            pendingPermits.release();
+        }
+        cache(userId, snapshot);
+    }
+
+    private void flushIfFull() {
+        if (!writeThrough && pending.size() >= properties.flushBatchSize()) {
+            requestFlush();
+        }
+    }
+
+    private void evict(UUID userId) {
+        synchronized (carts) {
+            carts.remove(userId);
+        }
+    }
+
+    /**
+     * Evicts a cart whose write was dropped, so it is reloaded from the database, unless a newer change
+     * of it is queued; that one is written, or dropped and evicted, by the next flush.
+     */
+    private void evictUnlessPending(UUID userId) {
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            if (!pending.containsKey(userId)) {
+                evict(userId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markWritten(UUID userId, Snapshot snapshot) {
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            if (pending.remove(userId, snapshot)) {
+                pendingPermits.release();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquirePermit() {
+        if (pendingPermits.tryAcquire()) {
+            return;
+        }
+        requestFlush();
+        try {
+            if (!pendingPermits.tryAcquire(properties.enqueueTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Cart write-behind queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the cart write-behind queue", e);
+        }
+    }
+
+    private void requestFlush() {
+        ScheduledExecutorService current = flusher;
+        if (current != null && flushRequested.compareAndSet(false, true)) {
+            try {
+                current.execute(() -> {
+                    flushRequested.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private ReentrantLock lockFor(UUID userId) {
+        return locks[(userId.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+    }
+
+    private record Snapshot(UUID cartId, long version, byte[] body) {
+    }
+}
@@ -1,23 +1,38 @@
 package com.carlosoliveira.ecommerce.shoppingcart.presentation;
 
-import com.carlosoliveira.ecommerce.shoppingcart.application.commands.handlers.AddItemToCartCommandHandler;
 import com.carlosoliveira.ecommerce.shoppingcart.application.commands.AddItemToCartCommand;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.UpdateCartItemQuantityCommand;
 import com.carlosoliveira.ecommerce.shoppingcart.application.dtos.AddItemRequest;
+import com.carlosoliveira.ecommerce.shoppingcart.application.dtos.UpdateItemQuantityRequest;
+import com.carlosoliveira.ecommerce.shoppingcart.application.mailbox.CartCommandMailbox;
+import com.carlosoliveira.ecommerce.shoppingcart.application.dtos.CartItemsPageResponse;
+import com.carlosoliveira.ecommerce.shoppingcart.application.queries.GetCartItemsQuery;
+import com.carlosoliveira.ecommerce.shoppingcart.application.queries.handlers.GetCartItemsQueryHandler;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/carts")
 @AllArgsConstructor
 public class CartController {
 
-    private final AddItemToCartCommandHandler addItemToCart;
+    private final CartCommandMailbox mailbox;
+    private final GetCartItemsQueryHandler getCartItems;
+
+    @GetMapping("/{userId}/items")
+    public ResponseEntity<CartItemsPageResponse> getItems(
+            @PathVariable UUID userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(getCartItems.handle(new GetCartItemsQuery(userId, page, size)));
+    }
 
     @PostMapping("/{userId}/items")
-    public ResponseEntity<Void> addItem(@PathVariable UUID userId, @RequestBody AddItemRequest request) {
+    public CompletableFuture<ResponseEntity<Void>> addItem(@PathVariable UUID userId, @RequestBody AddItemRequest request) {
         AddItemToCartCommand command = new AddItemToCartCommand(
                 userId,
                 request.productId(),
@@ -25,7 +40,15 @@ public class CartController {
                 request.price(),
                 request.quantity()
         );
-        addItemToCart.handle(command);
-        return ResponseEntity.ok().build();
+        return mailbox.submit(command).thenApply(done -> ResponseEntity.ok().build());
+    }
+
+    @PatchMapping("/{userId}/items/{productId}")
+    public CompletableFuture<ResponseEntity<Void>> updateItemQuantity(
+            @PathVariable UUID userId,
+            @PathVariable UUID productId,
+            @RequestBody UpdateItemQuantityRequest request) {
+        UpdateCartItemQuantityCommand command = new UpdateCartItemQuantityCommand(userId, productId, request.quantity());
+        return mailbox.submit(command).thenApply(done -> ResponseEntity.ok().build());
     }
 }
@@ -0,0 +1,22 @@
+package com.carlosoliveira.ecommerce.shoppingcart.presentation;
+
+import com.carlosoliveira.ecommerce.shoppingcart.application.dtos.OutboxStatsResponse;
+import com.carlosoliveira.ecommerce.shoppingcart.infrastructure.messaging.outbox.OutboxRelay;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/outbox")
+@AllArgsConstructor
+public class OutboxAdminController {
+
+    private final OutboxRelay outboxRelay;
+
+    @GetMapping("/stats")
+    public ResponseEntity<OutboxStatsResponse> stats() {
+        return ResponseEntity.ok(outboxRelay.stats());
+    }
+}
@@ -89,6 +89,28 @@ class AddItemToCartCommandHandlerTest {
         assertThat(persistedCart.get().getItems().getFirst().getProductId()).isEqualTo(productId);
     }
 
+    @Test
+    void shouldUpdateExistingLineWithoutDuplicatingItInALargeCart() {
+        // Arrange
+        for (int i = 0; i < 200; i++) {
+            sut.handle(new AddItemToCartCommand(userId, UUID.randomUUID(), "Filler " + i, price, 1));
+        }
+        sut.handle(createCommand());
+
+        // Act
+        sut.handle(new AddItemToCartCommand(userId, productId, "Integrated Test Product", price, 7));
+
+        // Assert
+        var persistedCart = cartRepository.findByUserIdWithItems(userId);
+
+        assertThat(persistedCart).isPresent();
+        assertThat(persistedCart.get().getItems()).hasSize(201);
+        assertThat(persistedCart.get().getItems())
+                .filteredOn(item -> item.getProductId().equals(productId))
+                .singleElement()
+                .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(7));
+    }
+
     private AddItemToCartCommand createCommand() {
         return new AddItemToCartCommand(
                 userId,
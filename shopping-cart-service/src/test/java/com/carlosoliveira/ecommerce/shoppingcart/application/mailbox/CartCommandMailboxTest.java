@@ -0,0 +1,87 @@
+package com.carlosoliveira.ecommerce.shoppingcart.application.mailbox;
+
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.AddItemToCartCommand;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.UpdateCartItemQuantityCommand;
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DisplayName("CartCommandMailbox Integration Tests")
+class CartCommandMailboxTest {
+
+    @Autowired
+    private CartCommandMailbox sut;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final UUID userId = UUID.randomUUID();
+    private final BigDecimal price = new BigDecimal("10.00");
+
+    @BeforeEach
+    void setup() {
+        cartRepository.deleteAll();
+    }
+
+    @Test
+    void shouldApplyConcurrentCommandsForOneUserToASingleCart() throws Exception {
+        // Arrange
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+
+        // Act
+        try (ExecutorService clients = Executors.newFixedThreadPool(8)) {
+            List<CompletableFuture<CompletableFuture<Void>>> submissions = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                AddItemToCartCommand command = new AddItemToCartCommand(userId, UUID.randomUUID(), "Product " + i, price, 1);
+                submissions.add(CompletableFuture.supplyAsync(() -> sut.submit(command), clients));
+            }
+            for (CompletableFuture<CompletableFuture<Void>> submission : submissions) {
+                results.add(submission.get());
+            }
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+        // Assert
+        assertThat(cartRepository.count()).isEqualTo(1);
+        assertThat(cartRepository.findByUserIdWithItems(userId).orElseThrow().getItems()).hasSize(50);
+    }
+
+    @Test
+    void shouldRejectOnlyTheFailingCommandOfABatch() {
+        // Arrange
+        UUID productId = UUID.randomUUID();
+
+        // Act
+        CompletableFuture<Void> added = sut.submit(new AddItemToCartCommand(userId, productId, "Keyboard", price, 1));
+        CompletableFuture<Void> missing = sut.submit(new UpdateCartItemQuantityCommand(userId, UUID.randomUUID(), 2));
+        CompletableFuture<Void> updated = sut.submit(new UpdateCartItemQuantityCommand(userId, productId, 3));
+
+        // Assert
+        added.join();
+        updated.join();
+        assertThatThrownBy(missing::join).hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(cartRepository.findByUserIdWithItems(userId).orElseThrow().getItems().getFirst().getQuantity())
+                .isEqualTo(3);
+        assertThat(meterRegistry.get("cart.commands")
+                .tags("command", "update_quantity", "outcome", "rejected").timer().count()).isPositive();
+    }
+}
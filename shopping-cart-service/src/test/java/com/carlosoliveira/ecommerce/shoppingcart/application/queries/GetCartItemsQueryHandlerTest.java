@@ -0,0 +1,81 @@
+package com.carlosoliveira.ecommerce.shoppingcart.application.queries;
+
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.AddItemToCartCommand;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.handlers.AddItemToCartCommandHandler;
+import com.carlosoliveira.ecommerce.shoppingcart.application.dtos.CartItemResponse;
+import com.carlosoliveira.ecommerce.shoppingcart.application.dtos.CartItemsPageResponse;
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartRepository;
+import com.carlosoliveira.ecommerce.shoppingcart.application.queries.handlers.GetCartItemsQueryHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DisplayName("GetCartItemsQueryHandler Integration Tests")
+class GetCartItemsQueryHandlerTest {
+
+    @Autowired
+    private GetCartItemsQueryHandler sut;
+
+    @Autowired
+    private AddItemToCartCommandHandler addItemToCart;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        cartRepository.deleteAll();
+    }
+
+    @Test
+    void shouldWalkEveryLineOncePageByPage() {
+        // Arrange
+        for (int i = 0; i < 25; i++) {
+            addItemToCart.handle(new AddItemToCartCommand(
+                    userId, UUID.randomUUID(), "Product " + i, new BigDecimal("2.50"), 2));
+        }
+
+        // Act
+        List<CartItemResponse> seen = new ArrayList<>();
+        CartItemsPageResponse page;
+        int pageNumber = 0;
+        do {
+            page = sut.handle(new GetCartItemsQuery(userId, pageNumber++, 10));
+            seen.addAll(page.items());
+        } while (page.hasNext());
+
+        // Assert
+        assertThat(pageNumber).isEqualTo(3);
+        assertThat(seen).hasSize(25);
+        assertThat(new HashSet<>(seen.stream().map(CartItemResponse::productId).toList())).hasSize(25);
+        assertThat(seen.getFirst().subtotal()).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    void shouldReturnEmptyPageWhenCartDoesNotExist() {
+        CartItemsPageResponse page = sut.handle(new GetCartItemsQuery(UUID.randomUUID(), 0, 10));
+
+        assertThat(page.items()).isEmpty();
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void shouldRejectOversizedPages() {
+        assertThatThrownBy(() -> sut.handle(new GetCartItemsQuery(userId, 0, 10_000)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,109 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.messaging;
+
+import com.carlosoliveira.ecommerce.shoppingcart.config.PublisherConfirmProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ConfirmingPublisher Unit Tests")
+class ConfirmingPublisherTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final Message message = new Message("{}".getBytes(), new MessageProperties());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ConfirmingPublisher sut;
+
+    @BeforeEach
+    void setup() {
+        sut = new ConfirmingPublisher(rabbitTemplate, new PublisherConfirmProperties(2, Duration.ofMillis(100), 3, Duration.ZERO), meterRegistry);
+        sut.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.stop();
+    }
+
+    @Test
+    void shouldCompleteBatchOnceEveryMessageIsConfirmed() throws Exception {
+        // Arrange
+        confirmSends(attempt -> true, false);
+
+        // Act
+        CompletableFuture<Void> batch = sut.publishAll(List.of(
+                new ConfirmingPublisher.OutgoingMessage("exchange", "cart.added", message),
+                new ConfirmingPublisher.OutgoingMessage("exchange", "cart.added", message)
+        ));
+
+        // Assert
+        batch.get(1, TimeUnit.SECONDS);
+        assertThat(sut.confirmedCount()).isEqualTo(2);
+        assertThat(sut.outstandingCount()).isZero();
+        assertThat(meterRegistry.get("cart.publisher.confirms").tag("outcome", "confirmed").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldResendNackedMessageUntilConfirmed() throws Exception {
+        // Arrange
+        confirmSends(attempt -> attempt > 1, false);
+
+        // Act
+        sut.publish("exchange", "cart.added", message).get(1, TimeUnit.SECONDS);
+
+        // Assert
+        verify(rabbitTemplate, times(2)).send(any(), any(), any(Message.class), any(CorrelationData.class));
+        assertThat(sut.resentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFailReturnedMessageAfterMaxAttemptsAndFreeItsSlot() {
+        // Arrange
+        confirmSends(attempt -> true, true);
+
+        // Act
+        CompletableFuture<Void> result = sut.publish("exchange", "cart.unbound", message);
+
+        // Assert
+        assertThatThrownBy(() -> result.get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasMessageContaining("returned");
+        verify(rabbitTemplate, times(3)).send(any(), any(), any(Message.class), any(CorrelationData.class));
+        assertThat(sut.failedCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("cart.publisher.confirms").tag("outcome", "failed").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cart.publisher.resends").functionCounter().count()).isEqualTo(2);
+        assertThat(sut.outstandingCount()).isZero();
+    }
+
+    private void confirmSends(IntPredicate ackOnAttempt, boolean returned) {
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            if (returned) {
+                correlation.setReturned(new ReturnedMessage(message, 312, "NO_ROUTE", "exchange", invocation.getArgument(1)));
+            }
+            boolean ack = ackOnAttempt.test(attempts.incrementAndGet());
+            correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            return null;
+        }).when(rabbitTemplate).send(any(), any(), any(Message.class), any(CorrelationData.class));
+    }
+}
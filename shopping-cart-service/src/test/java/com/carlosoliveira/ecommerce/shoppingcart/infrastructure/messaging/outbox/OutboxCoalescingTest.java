@@ -0,0 +1,149 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.messaging.outbox;
+
+import com.carlosoliveira.ecommerce.common.events.CartEventContract;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.AddItemToCartCommand;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.UpdateCartItemQuantityCommand;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.handlers.AddItemToCartCommandHandler;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.handlers.UpdateCartItemQuantityCommandHandler;
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartRepository;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.events.CartItemQuantityUpdatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "shopping-cart.outbox.relay-enabled=false",
+                "shopping-cart.outbox.coalesce-window=1m"
+        }
+)
+@DisplayName("Outbox Coalescing Integration Tests")
+class OutboxCoalescingTest {
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private AddItemToCartCommandHandler addItemToCart;
+
+    @Autowired
+    private UpdateCartItemQuantityCommandHandler updateQuantity;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private MessageConverter messageConverter;
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID keyboard = UUID.randomUUID();
+    private final UUID mouse = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        outboxRepository.deleteAll();
+        cartRepository.deleteAll();
+        doAnswer(invocation -> {
+            invocation.<CorrelationData>getArgument(3).getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).send(any(), any(), any(Message.class), any(CorrelationData.class));
+
+        addItemToCart.handle(new AddItemToCartCommand(userId, keyboard, "Keyboard", new BigDecimal("49.99"), 1));
+        addItemToCart.handle(new AddItemToCartCommand(userId, mouse, "Mouse", new BigDecimal("19.99"), 1));
+    }
+
+    @Test
+    void shouldFoldQuantityUpdatesOfOneLineIntoOneNetUpdate() {
+        // Act
+        updateQuantity.handle(new UpdateCartItemQuantityCommand(userId, keyboard, 3));
+        updateQuantity.handle(new UpdateCartItemQuantityCommand(userId, keyboard, 4));
+        updateQuantity.handle(new UpdateCartItemQuantityCommand(userId, keyboard, 6));
+
+        // Assert
+        assertThat(outboxRepository.findAll())
+                .filteredOn(message -> message.getRoutingKey().equals(OutboxEventPublisher.QUANTITY_UPDATED_ROUTING_KEY))
+                .singleElement()
+                .extracting(message -> (CartItemQuantityUpdatedEvent) messageConverter.fromMessage(message.toAmqp()))
+                .satisfies(event -> {
+                    assertThat(event.previousQuantity()).isEqualTo(1);
+                    assertThat(event.newQuantity()).isEqualTo(6);
+                    assertThat(event.quantityDifference()).isEqualTo(5);
+                });
+    }
+
+    @Test
+    void shouldDropUpdatesThatCancelOut() {
+        // Act
+        updateQuantity.handle(new UpdateCartItemQuantityCommand(userId, keyboard, 3));
+        updateQuantity.handle(new UpdateCartItemQuantityCommand(userId, keyboard, 1));
+
+        // Assert
+        assertThat(outboxRepository.findAll())
+                .extracting(OutboxMessage::getRoutingKey)
+                .containsOnly(OutboxEventPublisher.ITEM_ADDED_ROUTING_KEY);
+    }
+
+    @Test
+    void shouldNumberTheCartsEventsConsecutivelyLeavingFoldedUpdatesOut() {
+        // Act
+        updateQuantity.handle(new UpdateCartItemQuantityCommand(userId, keyboard, 3));
+        updateQuantity.handle(new UpdateCartItemQuantityCommand(userId, keyboard, 4));
+        updateQuantity.handle(new UpdateCartItemQuantityCommand(userId, mouse, 5));
+
+        // Assert
+        assertThat(outboxRepository.findAll())
+                .extracting(message -> message.toAmqp().getMessageProperties().<Long>getHeader(CartEventContract.SEQUENCE_HEADER))
+                .containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void shouldHoldTheCartBehindAHeldUpdateAndKeepItsOrder() {
+        // Arrange
+        updateQuantity.handle(new UpdateCartItemQuantityCommand(userId, keyboard, 2));
+        updateQuantity.handle(new UpdateCartItemQuantityCommand(userId, mouse, 5));
+        // Not folded: the mouse update is now the cart's newest event.
+        updateQuantity.handle(new UpdateCartItemQuantityCommand(userId, keyboard, 3));
+
+        // Act
+        int beforeHold = relay.relayBatch();
+        int afterHold = relay.relayBatch(Instant.now().plus(Duration.ofMinutes(2)));
+
+        // Assert
+        assertThat(beforeHold).isEqualTo(2);
+        assertThat(afterHold).isEqualTo(3);
+        ArgumentCaptor<String> routingKeys = ArgumentCaptor.forClass(String.class);
+        verify(rabbitTemplate, times(5)).send(any(), routingKeys.capture(), any(Message.class), any(CorrelationData.class));
+        assertThat(routingKeys.getAllValues()).containsExactly(
+                OutboxEventPublisher.ITEM_ADDED_ROUTING_KEY,
+                OutboxEventPublisher.ITEM_ADDED_ROUTING_KEY,
+                OutboxEventPublisher.QUANTITY_UPDATED_ROUTING_KEY,
+                OutboxEventPublisher.QUANTITY_UPDATED_ROUTING_KEY,
+                OutboxEventPublisher.QUANTITY_UPDATED_ROUTING_KEY
+        );
+        assertThat(outboxRepository.count()).isZero();
+    }
+}
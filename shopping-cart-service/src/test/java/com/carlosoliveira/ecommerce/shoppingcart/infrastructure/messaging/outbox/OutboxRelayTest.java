@@ -0,0 +1,119 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.messaging.outbox;
+
+import com.carlosoliveira.ecommerce.common.events.BinaryEventMessageConverter;
+import com.carlosoliveira.ecommerce.common.events.CartEventContract;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.AddItemToCartCommand;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.handlers.AddItemToCartCommandHandler;
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartRepository;
+import com.carlosoliveira.ecommerce.shoppingcart.infrastructure.messaging.RabbitMQConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "shopping-cart.outbox.relay-enabled=false",
+                "shopping-cart.events.format=binary"
+        }
+)
+@DisplayName("OutboxRelay Integration Tests")
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay sut;
+
+    @Autowired
+    private AddItemToCartCommandHandler addItemToCart;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    @BeforeEach
+    void setup() {
+        outboxRepository.deleteAll();
+        cartRepository.deleteAll();
+        confirmEverySend(true);
+    }
+
+    @Test
+    void shouldWriteEventsToTheOutboxInTheCommandTransaction() {
+        // Act
+        addItemToCart.handle(new AddItemToCartCommand(UUID.randomUUID(), UUID.randomUUID(), "Keyboard", new BigDecimal("49.99"), 1));
+
+        // Assert
+        assertThat(outboxRepository.findAll())
+                .singleElement()
+                .satisfies(message -> {
+                    assertThat(message.getRoutingKey()).isEqualTo(OutboxEventPublisher.ITEM_ADDED_ROUTING_KEY);
+                    assertThat(message.getSchemaName()).isEqualTo(CartEventContract.ITEM_ADDED);
+                    assertThat(message.getSchemaVersion()).isEqualTo(1);
+                    assertThat(message.getContentType()).isEqualTo(BinaryEventMessageConverter.CONTENT_TYPE);
+                });
+        verify(rabbitTemplate, never()).send(any(), any(), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void shouldPublishBatchAndDeleteItOnceEveryMessageIsConfirmed() throws Exception {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            addItemToCart.handle(new AddItemToCartCommand(UUID.randomUUID(), UUID.randomUUID(), "Keyboard", new BigDecimal("49.99"), 1));
+        }
+
+        // Act
+        int relayed = sut.relayBatch();
+
+        // Assert
+        assertThat(relayed).isEqualTo(3);
+        ArgumentCaptor<Message> sent = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate, times(3)).send(
+                eq(RabbitMQConfig.CART_EVENTS_EXCHANGE), eq(OutboxEventPublisher.ITEM_ADDED_ROUTING_KEY), sent.capture(), any(CorrelationData.class));
+        assertThat(sent.getValue().getMessageProperties().getHeaders())
+                .containsEntry(BinaryEventMessageConverter.SCHEMA_HEADER, CartEventContract.ITEM_ADDED)
+                .containsEntry(BinaryEventMessageConverter.SCHEMA_VERSION_HEADER, 1)
+                .containsKey(CartEventContract.PARTITION_KEY_HEADER);
+        assertThat(outboxRepository.count()).isZero();
+        assertThat(sut.stats().publishedCount()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void shouldKeepRowsWhenBrokerDoesNotConfirm() {
+        // Arrange
+        addItemToCart.handle(new AddItemToCartCommand(UUID.randomUUID(), UUID.randomUUID(), "Keyboard", new BigDecimal("49.99"), 1));
+        confirmEverySend(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> sut.relayBatch()).hasMessageContaining("not confirmed");
+        assertThat(outboxRepository.count()).isEqualTo(1);
+        assertThat(sut.stats().pending()).isEqualTo(1);
+    }
+
+    private void confirmEverySend(boolean ack) {
+        doAnswer(invocation -> {
+            invocation.<CorrelationData>getArgument(3).getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            return null;
+        }).when(rabbitTemplate).send(any(), any(), any(Message.class), any(CorrelationData.class));
+    }
+}
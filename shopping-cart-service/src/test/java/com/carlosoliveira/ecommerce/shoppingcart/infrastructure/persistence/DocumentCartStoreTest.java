@@ -0,0 +1,123 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.persistence;
+
+import com.carlosoliveira.ecommerce.common.valueObjects.Money;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.AddItemToCartCommand;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.UpdateCartItemQuantityCommand;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.handlers.AddItemToCartCommandHandler;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.handlers.UpdateCartItemQuantityCommandHandler;
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartRepository;
+import com.carlosoliveira.ecommerce.shoppingcart.application.ports.CartStore;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.Cart;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.CartItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shopping-cart.storage.mode=document"
+)
+@DisplayName("DocumentCartStore Integration Tests")
+class DocumentCartStoreTest {
+
+    @Autowired
+    private CartStore sut;
+
+    @Autowired
+    private AddItemToCartCommandHandler addItemToCart;
+
+    @Autowired
+    private UpdateCartItemQuantityCommandHandler updateCartItemQuantity;
+
+    @Autowired
+    private CartDocumentRepository documentRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartDocumentMigrator migrator;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID productId = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        documentRepository.deleteAll();
+        cartRepository.deleteAll();
+    }
+
+    @Test
+    void shouldKeepTheWholeCartInOneVersionedRow() {
+        // Arrange
+        addItemToCart.handle(new AddItemToCartCommand(userId, productId, "Keyboard", new BigDecimal("49.99"), 1));
+        addItemToCart.handle(new AddItemToCartCommand(userId, UUID.randomUUID(), "Mouse", new BigDecimal("19.50"), 2));
+
+        // Act
+        updateCartItemQuantity.handle(new UpdateCartItemQuantityCommand(userId, productId, 4));
+
+        // Assert
+        CartDocument document = documentRepository.findById(userId).orElseThrow();
+        assertThat(document.getVersion()).isEqualTo(2);
+        assertThat(cartRepository.count()).isZero();
+
+        Cart cart = sut.loadForUpdate(userId, productId).orElseThrow();
+        assertThat(cart.getId()).isEqualTo(document.getCartId());
+        assertThat(cart.getItems()).hasSize(2);
+        assertThat(cart.getItems().getFirst().getQuantity()).isEqualTo(4);
+        assertThat(cart.getItems().getFirst().getPrice().getAmount()).isEqualByComparingTo("49.99");
+    }
+
+    @Test
+    void shouldRejectSaveOfStaleVersion() {
+        // Arrange
+        addItemToCart.handle(new AddItemToCartCommand(userId, productId, "Keyboard", new BigDecimal("49.99"), 1));
+        Cart first = sut.loadForUpdate(userId, productId).orElseThrow();
+        Cart second = sut.loadForUpdate(userId, productId).orElseThrow();
+        first.updateItemQuantity(productId, 2);
+        sut.save(first);
+
+        // Act & Assert
+        second.updateItemQuantity(productId, 3);
+        assertThatThrownBy(() -> sut.save(second))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(sut.loadForUpdate(userId, productId).orElseThrow().getItems().getFirst().getQuantity())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void shouldMigrateRelationalCartsOnce() {
+        // Arrange
+        Money price = new Money(new BigDecimal("10.00"), Currency.getInstance("USD"));
+        for (int i = 0; i < 3; i++) {
+            Cart cart = new Cart(UUID.randomUUID());
+            cart.addItem(UUID.randomUUID(), "Product " + i, price, i + 1);
+            cartRepository.save(cart);
+        }
+
+        // Act
+        int firstRun = migrator.migrate(2);
+        int secondRun = migrator.migrate(2);
+
+        // Assert
+        assertThat(firstRun).isEqualTo(3);
+        assertThat(secondRun).isZero();
+        assertThat(documentRepository.findAll())
+                .allSatisfy(document -> {
+                    List<CartItem> items = CartDocumentCodec.decode(document.getBody());
+                    assertThat(items).hasSize(1);
+                    assertThat(items.getFirst().getPrice()).isEqualTo(price);
+                });
+    }
+}
@@ -0,0 +1,155 @@
+package com.carlosoliveira.ecommerce.shoppingcart.infrastructure.persistence;
+
+import com.carlosoliveira.ecommerce.common.valueObjects.Money;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.AddItemToCartCommand;
+import com.carlosoliveira.ecommerce.shoppingcart.application.commands.handlers.AddItemToCartCommandHandler;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.Cart;
+import com.carlosoliveira.ecommerce.shoppingcart.domain.CartItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "shopping-cart.storage.mode=write-behind",
+                "shopping-cart.storage.write-behind.flush-interval=1h",
+                "shopping-cart.storage.write-behind.max-carts=2"
+        }
+)
+@DisplayName("WriteBehindCartStore Integration Tests")
+class WriteBehindCartStoreTest {
+
+    @Autowired
+    private WriteBehindCartStore sut;
+
+    @Autowired
+    private AddItemToCartCommandHandler addItemToCart;
+
+    @Autowired
+    private CartDocumentRepository documentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID productId = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        sut.flush();
+        documentRepository.deleteAll();
+    }
+
+    @Test
+    void shouldServeCommandsFromMemoryAndCollapseRepeatedWrites() {
+        // Act
+        for (int quantity = 1; quantity <= 5; quantity++) {
+            addItemToCart.handle(new AddItemToCartCommand(userId, productId, "Keyboard", new BigDecimal("49.99"), quantity));
+        }
+
+        // Assert
+        assertThat(documentRepository.existsById(userId)).isFalse();
+        assertThat(sut.pendingCount()).isEqualTo(1);
+        assertThat(sut.loadForUpdate(userId, productId).orElseThrow().getItems().getFirst().getQuantity()).isEqualTo(5);
+
+        assertThat(sut.flush()).isEqualTo(1);
+        CartDocument document = documentRepository.findById(userId).orElseThrow();
+        assertThat(document.getVersion()).isEqualTo(4);
+        assertThat(CartDocumentCodec.decode(document.getBody()).getFirst().getQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldEvictOnlyWrittenCartsAndReloadThemOnMiss() {
+        // Arrange
+        List<UUID> userIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            UUID user = UUID.randomUUID();
+            userIds.add(user);
+            addItemToCart.handle(new AddItemToCartCommand(user, productId, "Keyboard", new BigDecimal("49.99"), i + 1));
+        }
+        assertThat(sut.cachedCount()).isGreaterThanOrEqualTo(4);
+
+        // Act
+        sut.flush();
+        addItemToCart.handle(new AddItemToCartCommand(UUID.randomUUID(), productId, "Keyboard", new BigDecimal("49.99"), 1));
+
+        // Assert
+        assertThat(sut.cachedCount()).isLessThanOrEqualTo(2);
+        Cart reloaded = sut.loadForUpdate(userIds.getFirst(), productId).orElseThrow();
+        assertThat(reloaded.getItems().getFirst().getQuantity()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDrainQueueOnStop() {
+        // Arrange
+        addItemToCart.handle(new AddItemToCartCommand(userId, productId, "Keyboard", new BigDecimal("49.99"), 2));
+
+        // Act
+        sut.stop();
+        sut.start();
+
+        // Assert
+        assertThat(sut.pendingCount()).isZero();
+        assertThat(documentRepository.existsById(userId)).isTrue();
+    }
+
+    @Test
+    void shouldDropWriteThatLostToLaterVersionAndReloadTheCart() {
+        // Arrange
+        addItemToCart.handle(new AddItemToCartCommand(userId, productId, "Keyboard", new BigDecimal("49.99"), 1));
+        sut.flush();
+        addItemToCart.handle(new AddItemToCartCommand(userId, productId, "Keyboard", new BigDecimal("49.99"), 2));
+        Cart elsewhere = Cart.restore(UUID.randomUUID(), userId, 5L, List.of());
+        elsewhere.addItem(UUID.randomUUID(), "Mouse", new Money(new BigDecimal("19.99"), Currency.getInstance("USD")), 3);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                documentRepository.overwriteIfOlder(userId, 5, CartDocumentCodec.encode(elsewhere.getItems())));
+        long lostBefore = sut.lostWriteCount();
+
+        // Act
+        int written = sut.flush();
+
+        // Assert
+        assertThat(written).isZero();
+        assertThat(sut.pendingCount()).isZero();
+        assertThat(sut.lostWriteCount()).isEqualTo(lostBefore + 1);
+        Cart reloaded = sut.loadForUpdate(userId, productId).orElseThrow();
+        assertThat(reloaded.getVersion()).isEqualTo(5L);
+        assertThat(reloaded.getItems()).extracting(CartItem::getProductName).containsExactly("Mouse");
+    }
+
+    @Test
+    void shouldOnlyKeepSavesWhoseTransactionCommits() {
+        // Arrange
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Cart cart = sut.create(userId);
+        cart.addItem(productId, "Keyboard", new Money(new BigDecimal("49.99"), Currency.getInstance("USD")), 1);
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            sut.save(cart);
+            assertThat(sut.pendingCount()).isZero();
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertThat(sut.pendingCount()).isZero();
+        assertThat(sut.loadForUpdate(userId, productId)).isEmpty();
+
+        transactionTemplate.executeWithoutResult(status -> sut.save(cart));
+        assertThat(sut.pendingCount()).isEqualTo(1);
+        assertThat(sut.loadForUpdate(userId, productId).orElseThrow().getVersion()).isZero();
+    }
+}